@@ -0,0 +1,11 @@
+package com.symptocare.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Turns on the @Scheduled jobs in com.symptocare.backend.scheduler
+// (pool size: spring.task.scheduling.pool.size)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,96 @@
+package com.symptocare.backend.config;
+
+import com.symptocare.backend.storage.BlobStore;
+import com.symptocare.backend.storage.LocalBlobStore;
+import com.symptocare.backend.storage.S3BlobStore;
+import com.symptocare.backend.storage.TieredBlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+
+@Configuration
+public class StorageConfig {
+
+    // local | s3 | tiered
+    @Value("${file.storage.type:local}")
+    private String storageType;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    // Leave empty for AWS; set to e.g. http://localhost:9000 for MinIO
+    @Value("${file.storage.s3.endpoint:}")
+    private String s3Endpoint;
+
+    @Value("${file.storage.s3.region:us-east-1}")
+    private String s3Region;
+
+    @Value("${file.storage.s3.bucket:}")
+    private String s3Bucket;
+
+    @Value("${file.storage.s3.access-key:}")
+    private String s3AccessKey;
+
+    @Value("${file.storage.s3.secret-key:}")
+    private String s3SecretKey;
+
+    // MinIO and most self-hosted stand-ins need path-style URLs
+    @Value("${file.storage.s3.path-style:true}")
+    private boolean s3PathStyle;
+
+    @Value("${file.storage.s3.multipart-threshold:16MB}")
+    private DataSize multipartThreshold;
+
+    @Value("${file.storage.s3.part-size:8MB}")
+    private DataSize partSize;
+
+    // Size of the hot local cache in tiered mode
+    @Value("${file.storage.tiered.cache-size:2GB}")
+    private DataSize tieredCacheSize;
+
+    @Bean
+    public BlobStore blobStore() throws IOException {
+        return switch (storageType) {
+            case "local" -> new LocalBlobStore(Paths.get(uploadDir));
+            case "s3" -> s3BlobStore();
+            case "tiered" -> new TieredBlobStore(Paths.get(uploadDir), s3BlobStore(), tieredCacheSize.toBytes());
+            default -> throw new IllegalStateException("Unknown file.storage.type: " + storageType);
+        };
+    }
+
+    private S3BlobStore s3BlobStore() {
+        if (!StringUtils.hasText(s3Bucket)) {
+            throw new IllegalStateException("file.storage.s3.bucket is required for " + storageType + " storage");
+        }
+
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(s3Region))
+                .forcePathStyle(s3PathStyle);
+
+        if (StringUtils.hasText(s3Endpoint)) {
+            builder.endpointOverride(URI.create(s3Endpoint));
+        }
+
+        if (StringUtils.hasText(s3AccessKey)) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(
+                    AwsBasicCredentials.create(s3AccessKey, s3SecretKey)));
+        } else {
+            builder.credentialsProvider(DefaultCredentialsProvider.create());
+        }
+
+        return new S3BlobStore(builder.build(), s3Bucket,
+                multipartThreshold.toBytes(), partSize.toBytes());
+    }
+}
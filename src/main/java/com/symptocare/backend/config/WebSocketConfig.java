@@ -1,19 +1,80 @@
 package com.symptocare.backend.config;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketFlowControl flowControl;
+
+    // Relay to an external STOMP broker (RabbitMQ, ActiveMQ Artemis, …) instead of the in-memory
+    // one, so pushes reach users connected to any instance
+    @Value("${websocket.broker.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${websocket.inbound.pool-size:8}")
+    private int inboundPoolSize;
+
+    // Writes to a socket don't block on a slow client (the session buffers), so the pool only
+    // needs to cover the CPU spent encoding frames
+    @Value("${websocket.outbound.pool-size:16}")
+    private int outboundPoolSize;
+
+    @Value("${websocket.outbound.send-time-limit:10s}")
+    private Duration sendTimeLimit;
+
+    @Value("${websocket.outbound.send-buffer-size-limit:512KB}")
+    private DataSize sendBufferSizeLimit;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable simple in-memory broker for these destinations
-        config.enableSimpleBroker("/queue", "/topic");
+        if (relayEnabled) {
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/queue", "/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    // Messages for a user with no session here are rebroadcast for the other instances
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    // Instances share their local sessions, so the user registry is cluster-wide
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+            if (StringUtils.hasText(relayVirtualHost)) relay.setVirtualHost(relayVirtualHost);
+        } else {
+            // Enable simple in-memory broker for these destinations
+            config.enableSimpleBroker("/queue", "/topic");
+        }
         // Prefix for messages FROM client TO server
         config.setApplicationDestinationPrefixes("/app");
         // Prefix for user-specific messages
@@ -26,4 +87,28 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
-}
\ No newline at end of file
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(inboundPoolSize)
+                .maxPoolSize(inboundPoolSize);
+    }
+
+    // Fixed-size pool; WebSocketFlowControl keeps its queue bounded (one frame per session)
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundPoolSize)
+                .maxPoolSize(outboundPoolSize);
+        registration.interceptors(flowControl);
+    }
+
+    // A client that has not taken a frame within the time limit, or lets the buffer fill up,
+    // is disconnected — it reconnects and reloads over REST
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) sendTimeLimit.toMillis())
+                .setSendBufferSizeLimit((int) sendBufferSizeLimit.toBytes());
+    }
+}
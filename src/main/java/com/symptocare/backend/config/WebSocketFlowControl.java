@@ -0,0 +1,162 @@
+package com.symptocare.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-session backpressure on clientOutboundChannel. Each connected session has at most one
+// MESSAGE frame in flight on the channel's thread pool; the rest wait in a per-session queue of
+// websocket.outbound.session-queue-limit frames, in order (so publish order is kept without
+// Spring's unbounded preservePublishOrder queue). When a frame is queued:
+//  - one carrying the x-coalesce-key header replaces a queued frame with the same key
+//    (a newer state event supersedes the older one) and joins the tail of the queue, so it
+//    never overtakes frames published before it
+//  - otherwise, if the queue is full, the frame is dropped — the client resyncs over REST
+// A client that stops reading altogether is cut off by the transport's send time / buffer
+// limits (WebSocketConfig). Other frames (CONNECTED, RECEIPT, ERROR, heartbeats) pass through.
+@Component
+@Slf4j
+public class WebSocketFlowControl implements ExecutorChannelInterceptor {
+
+    public static final String COALESCE_KEY = "x-coalesce-key";
+
+    private final int queueLimit;
+    private final Counter dropped;
+    private final Counter coalesced;
+
+    private static final class SessionQueue {
+        final ArrayDeque<Message<?>> queued = new ArrayDeque<>();
+        boolean inFlight;
+        Message<?> releasing;   // the queued frame being handed to the channel, let through once
+    }
+
+    private final Map<String, SessionQueue> sessions = new ConcurrentHashMap<>();
+
+    public WebSocketFlowControl(@Value("${websocket.outbound.session-queue-limit:100}") int queueLimit,
+                                MeterRegistry meterRegistry) {
+        this.queueLimit = queueLimit;
+        this.dropped = meterRegistry.counter("websocket.outbound.dropped");
+        this.coalesced = meterRegistry.counter("websocket.outbound.coalesced");
+        meterRegistry.gaugeMapSize("websocket.outbound.sessions", List.of(), sessions);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) sessions.putIfAbsent(sessionId, new SessionQueue());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+    }
+
+    // ─── Channel interception ─────────────────────────────────────────────────
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SessionQueue session = tracked(message);
+        if (session == null) return message;
+
+        synchronized (session) {
+            if (session.releasing == message) {
+                session.releasing = null;
+                return message;
+            }
+            if (!session.inFlight) {
+                session.inFlight = true;
+                return message;
+            }
+
+            String key = coalesceKey(message);
+            if (key != null && replace(session.queued, key, message)) {
+                coalesced.increment();
+                return null;
+            }
+            if (session.queued.size() >= queueLimit) {
+                dropped.increment();
+                log.debug("Outbound queue full for WebSocket session {} — frame dropped", sessionIdOf(message));
+                return null;
+            }
+            session.queued.add(message);
+            return null;
+        }
+    }
+
+    // Runs on the outbound pool once the frame has been written (or buffered) to the socket
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+                                    Exception ex) {
+        release(message, channel);
+    }
+
+    // The executor refused the frame — it will never be handled, so free the slot here
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (!sent && ex != null) release(message, channel);
+    }
+
+    // ─── Internals ────────────────────────────────────────────────────────────
+
+    private void release(Message<?> message, MessageChannel channel) {
+        SessionQueue session = tracked(message);
+        if (session == null) return;
+
+        Message<?> next;
+        synchronized (session) {
+            next = session.queued.poll();
+            session.inFlight = next != null;
+            session.releasing = next;
+        }
+        if (next != null) channel.send(next);
+    }
+
+    private SessionQueue tracked(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) return null;
+        String sessionId = sessionIdOf(message);
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    private static String sessionIdOf(Message<?> message) {
+        return SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+    }
+
+    private static boolean replace(ArrayDeque<Message<?>> queued, String key, Message<?> message) {
+        // Drop the older frame and queue the newer one last: taking the older one's place would
+        // deliver it ahead of frames queued after that one (a CREATED it already counts)
+        for (Iterator<Message<?>> it = queued.iterator(); it.hasNext(); ) {
+            if (key.equals(coalesceKey(it.next()))) {
+                it.remove();
+                queued.add(message);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String coalesceKey(Message<?> message) {
+        Object nativeHeaders = message.getHeaders().get(NativeMessageHeaderAccessor.NATIVE_HEADERS);
+        if (!(nativeHeaders instanceof Map<?, ?> headers)) return null;
+        List<String> values = ((Map<String, List<String>>) headers).get(COALESCE_KEY);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.symptocare.backend.controller;
+
+import com.symptocare.backend.dto.BudgetRequest;
+import com.symptocare.backend.model.Budget;
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.service.BudgetService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/budgets")
+@RequiredArgsConstructor
+public class BudgetController {
+
+    private final BudgetService budgetService;
+
+    // GET /api/budgets?month=3&year=2025 → budgets with spending (default: current month)
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getBudgets(
+            Authentication auth,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) Integer year) {
+        return ResponseEntity.ok(budgetService.getBudgets(auth.getName(), month, year));
+    }
+
+    // PUT /api/budgets/FOOD → create or change the monthly budget for a category
+    @PutMapping("/{category}")
+    public ResponseEntity<Map<String, Object>> setBudget(
+            Authentication auth,
+            @PathVariable ExpenseCategory category,
+            @Valid @RequestBody BudgetRequest request) {
+        Budget budget = budgetService.setBudget(auth.getName(), category, request.getAmount());
+        return ResponseEntity.ok(Map.of(
+                "id", budget.getId(),
+                "category", budget.getCategory(),
+                "amount", budget.getAmount()));
+    }
+
+    // DELETE /api/budgets/FOOD
+    @DeleteMapping("/{category}")
+    public ResponseEntity<Map<String, String>> deleteBudget(
+            Authentication auth,
+            @PathVariable ExpenseCategory category) {
+        budgetService.deleteBudget(auth.getName(), category);
+        return ResponseEntity.ok(Map.of("message", "Budget deleted successfully"));
+    }
+}
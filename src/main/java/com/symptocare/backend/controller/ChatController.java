@@ -26,6 +26,15 @@ public class ChatController {
         return ResponseEntity.ok(pdfChatService.chat(auth.getName(), request));
     }
 
+    // DELETE /api/chat/pdf/session/{sessionId} → end a server-side chat session
+    @DeleteMapping("/pdf/session/{sessionId}")
+    public ResponseEntity<Map<String, String>> endSession(
+            Authentication auth,
+            @PathVariable String sessionId) {
+        pdfChatService.endSession(auth.getName(), sessionId);
+        return ResponseEntity.ok(Map.of("message", "Chat session ended"));
+    }
+
     // GET /api/chat/pdf/{fileId}/prepare → extract text and prepare PDF for chat
     @GetMapping("/pdf/{fileId}/prepare")
     public ResponseEntity<Map<String, Object>> preparePdf(
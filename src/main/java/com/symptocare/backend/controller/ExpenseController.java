@@ -1,16 +1,37 @@
 package com.symptocare.backend.controller;
 
+import com.symptocare.backend.dto.BulkDeleteRequest;
+import com.symptocare.backend.dto.BulkResult;
 import com.symptocare.backend.dto.ExpenseFilterRequest;
 import com.symptocare.backend.dto.ExpenseRequest;
 import com.symptocare.backend.dto.ExpenseResponse;
 import com.symptocare.backend.dto.ExpenseSummaryResponse;
+import com.symptocare.backend.dto.ExpenseUpdateRequest;
+import com.symptocare.backend.dto.RecurringExpenseRequest;
+import com.symptocare.backend.service.ExpenseAnalyticsService;
+import com.symptocare.backend.service.ExpenseExportService;
+import com.symptocare.backend.service.ExpenseExportService.ExportFormat;
 import com.symptocare.backend.service.ExpenseService;
+import com.symptocare.backend.service.RecurringExpenseService;
+import com.symptocare.backend.service.ResourceVersions;
+import com.symptocare.backend.service.ResourceVersions.Domain;
+import com.symptocare.backend.service.StatementImportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +41,11 @@ import java.util.Map;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final StatementImportService statementImportService;
+    private final ExpenseExportService expenseExportService;
+    private final ExpenseAnalyticsService expenseAnalyticsService;
+    private final RecurringExpenseService recurringExpenseService;
+    private final ResourceVersions resourceVersions;
 
     // POST /api/expenses
     @PostMapping
@@ -29,6 +55,60 @@ public class ExpenseController {
         return ResponseEntity.ok(expenseService.create(auth.getName(), request));
     }
 
+    // POST /api/expenses/bulk → create many (e.g. bank statement import), per-item results
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult> bulkCreate(
+            Authentication auth,
+            @RequestBody List<ExpenseRequest> requests) {
+        return ResponseEntity.ok(expenseService.bulkCreate(auth.getName(), requests));
+    }
+
+    // PUT /api/expenses/bulk → update many (each item carries its id)
+    @PutMapping("/bulk")
+    public ResponseEntity<BulkResult> bulkUpdate(
+            Authentication auth,
+            @RequestBody List<ExpenseUpdateRequest> requests) {
+        return ResponseEntity.ok(expenseService.bulkUpdate(auth.getName(), requests));
+    }
+
+    // POST /api/expenses/bulk/delete → { "ids": [1, 2, 3] }
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkResult> bulkDelete(
+            Authentication auth,
+            @Valid @RequestBody BulkDeleteRequest request) {
+        return ResponseEntity.ok(expenseService.bulkDelete(auth.getName(), request.getIds()));
+    }
+
+    // POST /api/expenses/import → bank statement (CSV / OFX), progress on /user/queue/import-progress
+    // positiveAmountsAreExpenses: for CSVs with a single amount column where spends are positive
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importStatement(
+            Authentication auth,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean positiveAmountsAreExpenses) throws IOException {
+        return ResponseEntity.ok(statementImportService.importStatement(
+                auth.getName(), file, positiveAmountsAreExpenses));
+    }
+
+    // GET /api/expenses/export?format=csv|ndjson|xlsx → download, streamed as rows are read
+    // Accepts the same filters as /filter as query params, e.g. ?format=xlsx&year=2025&category=FOOD
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            Authentication auth,
+            @RequestParam(defaultValue = "csv") String format,
+            @ModelAttribute ExpenseFilterRequest filter) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        String email = auth.getName();
+        String fileName = "expenses-" + LocalDate.now() + "." + exportFormat.extension;
+
+        StreamingResponseBody body = out -> expenseExportService.export(email, filter, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName).build().toString())
+                .body(body);
+    }
+
     // GET /api/expenses
     @GetMapping
     public ResponseEntity<List<ExpenseResponse>> getAll(Authentication auth) {
@@ -52,13 +132,21 @@ public class ExpenseController {
         return ResponseEntity.ok(expenseService.getByMonthYear(auth.getName(), month, year));
     }
 
-    // GET /api/expenses/summary/month?month=6&year=2025
+    // GET /api/expenses/summary/month?month=6&year=2025 (ETag — 304 until an expense changes)
     @GetMapping("/summary/month")
     public ResponseEntity<ExpenseSummaryResponse> getMonthlySummary(
             Authentication auth,
             @RequestParam Integer month,
-            @RequestParam Integer year) {
-        return ResponseEntity.ok(expenseService.getMonthlySummary(auth.getName(), month, year));
+            @RequestParam Integer year,
+            WebRequest webRequest) {
+        String etag = resourceVersions.etag(auth.getName(), Domain.EXPENSES);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .body(expenseService.getMonthlySummary(auth.getName(), month, year));
     }
 
     // GET /api/expenses/summary/year?year=2025
@@ -71,14 +159,73 @@ public class ExpenseController {
 
     // GET /api/expenses/years
     @GetMapping("/years")
-    public ResponseEntity<List<Integer>> getAvailableYears(Authentication auth) {
-        return ResponseEntity.ok(expenseService.getAvailableYears(auth.getName()));
+    public ResponseEntity<List<Integer>> getAvailableYears(Authentication auth, WebRequest webRequest) {
+        String etag = resourceVersions.etag(auth.getName(), Domain.EXPENSES);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .body(expenseService.getAvailableYears(auth.getName()));
     }
 
-    // GET /api/expenses/stats/current
+    // GET /api/expenses/stats/current (ETag — 304 until an expense changes or the day turns)
     @GetMapping("/stats/current")
-    public ResponseEntity<Map<String, Object>> getCurrentMonthStats(Authentication auth) {
-        return ResponseEntity.ok(expenseService.getCurrentMonthStats(auth.getName()));
+    public ResponseEntity<Map<String, Object>> getCurrentMonthStats(Authentication auth, WebRequest webRequest) {
+        String etag = resourceVersions.etag(auth.getName(), Domain.EXPENSES);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .body(expenseService.getCurrentMonthStats(auth.getName()));
+    }
+
+    // GET /api/expenses/analytics?from=2025-01-01&to=2025-12-31&granularity=day|week|month&topMerchants=10
+    // Category time series, monthly rolling averages / deltas and top merchants (defaults: last 12 months)
+    @GetMapping("/analytics")
+    public ResponseEntity<Map<String, Object>> getAnalytics(
+            Authentication auth,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "month") String granularity,
+            @RequestParam(defaultValue = "10") int topMerchants) {
+        return ResponseEntity.ok(expenseAnalyticsService.analyze(
+                auth.getName(), from, to, granularity, topMerchants));
+    }
+
+    // GET /api/expenses/insights?days=30
+    // End-of-month forecast per category (EWMA / seasonal naive) and recent unusual expenses
+    @GetMapping("/insights")
+    public ResponseEntity<Map<String, Object>> getInsights(
+            Authentication auth,
+            @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(expenseAnalyticsService.insights(auth.getName(), days));
+    }
+
+    // GET /api/expenses/recurring → recurring series with their next due date
+    @GetMapping("/recurring")
+    public ResponseEntity<List<Map<String, Object>>> getRecurring(Authentication auth) {
+        return ResponseEntity.ok(recurringExpenseService.getAll(auth.getName()));
+    }
+
+    // POST /api/expenses/recurring → new series; occurrences already due are created immediately
+    @PostMapping("/recurring")
+    public ResponseEntity<Map<String, Object>> createRecurring(
+            Authentication auth,
+            @Valid @RequestBody RecurringExpenseRequest request) {
+        return ResponseEntity.ok(recurringExpenseService.create(auth.getName(), request));
+    }
+
+    // DELETE /api/expenses/recurring/{id} → stop the series (generated expenses are kept)
+    @DeleteMapping("/recurring/{id}")
+    public ResponseEntity<Map<String, String>> cancelRecurring(
+            Authentication auth,
+            @PathVariable Long id) {
+        recurringExpenseService.cancel(auth.getName(), id);
+        return ResponseEntity.ok(Map.of("message", "Recurring expense stopped"));
     }
 
     // PUT /api/expenses/{id}
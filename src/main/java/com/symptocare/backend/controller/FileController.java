@@ -1,26 +1,54 @@
 package com.symptocare.backend.controller;
 
+import com.symptocare.backend.dto.BulkDeleteRequest;
+import com.symptocare.backend.dto.BulkResult;
 import com.symptocare.backend.model.FileEntry;
 import com.symptocare.backend.model.FileEntry.FileCategory;
 import com.symptocare.backend.service.FileService;
+import com.symptocare.backend.storage.LocalFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/files")
 @RequiredArgsConstructor
 public class FileController {
 
+    // Tomcat request attributes for zero-copy sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final FileService fileService;
 
     // POST /api/files/upload
@@ -33,6 +61,41 @@ public class FileController {
         return ResponseEntity.ok(fileService.upload(auth.getName(), file, description));
     }
 
+    // POST /api/files/upload/stream?fileName=report.pdf
+    // Raw request body (Content-Type = file type) — written once, no multipart buffering
+    @PostMapping("/upload/stream")
+    public ResponseEntity<FileEntry> uploadStream(
+            Authentication auth,
+            HttpServletRequest request,
+            @RequestParam String fileName,
+            @RequestParam(value = "description", required = false) String description)
+            throws IOException {
+        return ResponseEntity.ok(fileService.uploadStream(
+                auth.getName(),
+                request.getInputStream(),
+                request.getContentLengthLong(),
+                fileName,
+                request.getContentType(),
+                description));
+    }
+
+    // POST /api/files/bulk/upload → several files at once, per-file results
+    @PostMapping("/bulk/upload")
+    public ResponseEntity<BulkResult> bulkUpload(
+            Authentication auth,
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "description", required = false) String description) {
+        return ResponseEntity.ok(fileService.bulkUpload(auth.getName(), files, description));
+    }
+
+    // POST /api/files/bulk/delete → { "ids": [1, 2, 3] }
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkResult> bulkDelete(
+            Authentication auth,
+            @Valid @RequestBody BulkDeleteRequest request) {
+        return ResponseEntity.ok(fileService.bulkDelete(auth.getName(), request.getIds()));
+    }
+
     // GET /api/files
     @GetMapping
     public ResponseEntity<List<FileEntry>> getAll(Authentication auth) {
@@ -62,19 +125,139 @@ public class FileController {
     }
 
     // GET /api/files/{id}/download
+    // Supports conditional GET (ETag / Last-Modified → 304) and single byte ranges (206)
     @GetMapping("/{id}/download")
-    public ResponseEntity<Resource> download(
+    public void download(
             Authentication auth,
-            @PathVariable Long id) throws IOException {
+            @PathVariable Long id,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        FileEntry entry = fileService.download(auth.getName(), id);
+        long length = entry.getFileSize();
+        long lastModified = entry.getUploadedAt()
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        String etag = "\"" + entry.getContentHash() + "\"";
+
+        // 304 if the client's copy is current
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setContentType(entry.getFileType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(entry.getOriginalFileName(), StandardCharsets.UTF_8)
+                .build().toString());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+
+        long start = 0;
+        long end = length - 1;
+
+        // Only honour Range if If-Range (when sent) still matches this version
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request, etag, lastModified)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // Multi-range requests are answered with the full body
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    if (start >= length || start > end) {
+                        throw new IllegalArgumentException("Range starts past the end of the file");
+                    }
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        // Content kept only in remote storage is streamed through
+        Optional<LocalFile> local = fileService.localFile(entry);
+        if (local.isEmpty()) {
+            try (InputStream in = fileService.openContent(entry, start, end)) {
+                in.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+
+        try (LocalFile file = local.get()) {
+            Path path = file.path();
+
+            // Let Tomcat send the file straight from the page cache (sendfile) when it can —
+            // not for a pinned cache copy, since Tomcat reads it after this method has returned
+            if (!file.isPinned() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+
+            // Otherwise copy channel to channel without staging the file in heap buffers
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+                long position = start;
+                while (count > 0) {
+                    long sent = channel.transferTo(position, count, out);
+                    if (sent <= 0) break;
+                    position += sent;
+                    count -= sent;
+                }
+            }
+        }
+    }
+
+    // If-Range holds either an entity tag (strong comparison) or a date, which must equal
+    // Last-Modified to the second; anything else means the full body is sent with 200
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) return ifRange.equals(etag);
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return date / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // GET /api/files/{id}/thumbnail → small JPEG preview for images and PDFs
+    // Content-addressed, so it can be cached for a long time; 404 until it has been rendered
+    @GetMapping("/{id}/thumbnail")
+    public ResponseEntity<Resource> thumbnail(
+            Authentication auth,
+            @PathVariable Long id,
+            WebRequest webRequest) throws IOException {
 
-        Resource resource = fileService.download(auth.getName(), id);
         FileEntry entry = fileService.getFileEntry(auth.getName(), id);
+        String etag = "\"thumb-" + entry.getContentHash() + "\"";
+
+        if (entry.getContentHash() != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        Optional<InputStream> thumbnail = fileService.openThumbnail(entry);
+        if (thumbnail.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
 
         return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(entry.getFileType()))
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + entry.getOriginalFileName() + "\"")
-                .body(resource);
+                .contentType(MediaType.IMAGE_JPEG)
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
+                .eTag(etag)
+                .body(new InputStreamResource(thumbnail.get()));
     }
 
     // DELETE /api/files/{id}
@@ -91,4 +274,4 @@ public class FileController {
     public ResponseEntity<Map<String, Object>> getStats(Authentication auth) {
         return ResponseEntity.ok(fileService.getStorageStats(auth.getName()));
     }
-}
\ No newline at end of file
+}
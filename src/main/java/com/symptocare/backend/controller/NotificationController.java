@@ -1,11 +1,16 @@
 package com.symptocare.backend.controller;
 
+import com.symptocare.backend.dto.NotificationResponse;
 import com.symptocare.backend.model.Notification;
 import com.symptocare.backend.service.NotificationService;
+import com.symptocare.backend.service.ResourceVersions;
+import com.symptocare.backend.service.ResourceVersions.Domain;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -16,6 +21,7 @@ import java.util.Map;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final ResourceVersions resourceVersions;
 
     // GET /api/notifications → all notifications
     @GetMapping
@@ -23,9 +29,9 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.getAll(auth.getName()));
     }
 
-    // GET /api/notifications/latest → top 20 for bell icon
+    // GET /api/notifications/latest → top 20 for bell icon (in-memory for active users)
     @GetMapping("/latest")
-    public ResponseEntity<List<Notification>> getLatest(Authentication auth) {
+    public ResponseEntity<List<NotificationResponse>> getLatest(Authentication auth) {
         return ResponseEntity.ok(notificationService.getLatest(auth.getName()));
     }
 
@@ -35,12 +41,17 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.getUnread(auth.getName()));
     }
 
-    // GET /api/notifications/count → unread count for badge
+    // GET /api/notifications/count → unread count for badge (ETag — 304 until a notification changes)
     @GetMapping("/count")
-    public ResponseEntity<Map<String, Long>> getUnreadCount(Authentication auth) {
-        return ResponseEntity.ok(
-                Map.of("unreadCount", notificationService.getUnreadCount(auth.getName()))
-        );
+    public ResponseEntity<Map<String, Long>> getUnreadCount(Authentication auth, WebRequest webRequest) {
+        String etag = resourceVersions.etag(auth.getName(), Domain.NOTIFICATIONS);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .body(Map.of("unreadCount", notificationService.getUnreadCount(auth.getName())));
     }
 
     // PATCH /api/notifications/{id}/read → mark single as read
@@ -1,15 +1,22 @@
 // src/main/java/com/symptocare/backend/controller/TaskController.java
 package com.symptocare.backend.controller;
 
+import com.symptocare.backend.dto.BulkDeleteRequest;
+import com.symptocare.backend.dto.BulkResult;
 import com.symptocare.backend.dto.TaskRequest;
 import com.symptocare.backend.dto.TaskResponse;
+import com.symptocare.backend.dto.TaskUpdateRequest;
+import com.symptocare.backend.service.ResourceVersions;
+import com.symptocare.backend.service.ResourceVersions.Domain;
 import com.symptocare.backend.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -21,6 +28,7 @@ import java.util.Map;
 public class TaskController {
 
     private final TaskService taskService;
+    private final ResourceVersions resourceVersions;
 
     // POST /api/tasks → create task
     @PostMapping
@@ -30,16 +38,47 @@ public class TaskController {
         return ResponseEntity.ok(taskService.createTask(auth.getName(), request));
     }
 
+    // POST /api/tasks/bulk → create many, per-item results
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult> bulkCreate(
+            Authentication auth,
+            @RequestBody List<TaskRequest> requests) {
+        return ResponseEntity.ok(taskService.bulkCreate(auth.getName(), requests));
+    }
+
+    // PUT /api/tasks/bulk → update many (each item carries its id)
+    @PutMapping("/bulk")
+    public ResponseEntity<BulkResult> bulkUpdate(
+            Authentication auth,
+            @RequestBody List<TaskUpdateRequest> requests) {
+        return ResponseEntity.ok(taskService.bulkUpdate(auth.getName(), requests));
+    }
+
+    // POST /api/tasks/bulk/delete → { "ids": [1, 2, 3] }
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkResult> bulkDelete(
+            Authentication auth,
+            @Valid @RequestBody BulkDeleteRequest request) {
+        return ResponseEntity.ok(taskService.bulkDelete(auth.getName(), request.getIds()));
+    }
+
     // GET /api/tasks → all tasks sorted by priority
     @GetMapping
     public ResponseEntity<List<TaskResponse>> getAllTasks(Authentication auth) {
         return ResponseEntity.ok(taskService.getAllTasks(auth.getName()));
     }
 
-    // GET /api/tasks/today → today's tasks
+    // GET /api/tasks/today → today's tasks (ETag — 304 until a task changes or the day turns)
     @GetMapping("/today")
-    public ResponseEntity<List<TaskResponse>> getTodayTasks(Authentication auth) {
-        return ResponseEntity.ok(taskService.getTodayTasks(auth.getName()));
+    public ResponseEntity<List<TaskResponse>> getTodayTasks(Authentication auth, WebRequest webRequest) {
+        String etag = resourceVersions.etag(auth.getName(), Domain.TASKS);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .body(taskService.getTodayTasks(auth.getName()));
     }
 
     // GET /api/tasks/date?date=2025-06-01 → tasks for a specific date
@@ -0,0 +1,12 @@
+package com.symptocare.backend.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class BulkDeleteRequest {
+
+    @NotEmpty(message = "At least one id is required")
+    private List<Long> ids;
+}
@@ -0,0 +1,51 @@
+package com.symptocare.backend.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+// Outcome of a bulk create / update / delete — one entry per submitted item, in request order
+@Data
+public class BulkResult {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+
+    // Slot per item, so the order doesn't depend on when each item was settled
+    // (bulk creates report validation errors before the insert assigns ids)
+    @Getter(AccessLevel.NONE)
+    private final ItemResult[] items;
+
+    public BulkResult(int total) {
+        this.total = total;
+        this.items = new ItemResult[total];
+    }
+
+    public void ok(int index, Long id) {
+        items[index] = new ItemResult(index, id, true, null);
+        succeeded++;
+    }
+
+    public void error(int index, Long id, String error) {
+        items[index] = new ItemResult(index, id, false, error);
+        failed++;
+    }
+
+    public List<ItemResult> getResults() {
+        return Arrays.stream(items).filter(Objects::nonNull).toList();
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private Long id;
+        private boolean success;
+        private String error;
+    }
+}
@@ -17,7 +17,11 @@ public class ChatRequest {
     @NotBlank(message = "Question is required")
     private String question;
 
-    // Previous conversation history
+    // Server-side session returned by a previous answer
+    // When present and still alive, history and document context are kept on the server
+    private String sessionId;
+
+    // Previous conversation history (only used when no live session exists)
     // Each map has "role" (user/assistant) and "content"
     private List<Map<String, String>> history;
 }
\ No newline at end of file
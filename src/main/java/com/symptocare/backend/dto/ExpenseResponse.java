@@ -3,6 +3,7 @@ package com.symptocare.backend.dto;
 import com.symptocare.backend.model.Expense;
 import com.symptocare.backend.model.Expense.ExpenseCategory;
 import com.symptocare.backend.model.Expense.PaymentMethod;
+import com.symptocare.backend.util.Money;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -28,7 +29,7 @@ public class ExpenseResponse {
         ExpenseResponse res = new ExpenseResponse();
         res.setId(expense.getId());
         res.setAmount(expense.getAmount());
-        res.setAmountFormatted("₹" + String.format("%,.2f", expense.getAmount()));
+        res.setAmountFormatted(Money.format(expense.getAmount()));
         res.setTitle(expense.getTitle());
         res.setDescription(expense.getDescription());
         res.setCategory(expense.getCategory());
@@ -0,0 +1,14 @@
+package com.symptocare.backend.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+// One item of a bulk expense update
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ExpenseUpdateRequest extends ExpenseRequest {
+
+    @NotNull(message = "Expense id is required")
+    private Long id;
+}
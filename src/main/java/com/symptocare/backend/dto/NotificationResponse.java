@@ -0,0 +1,31 @@
+package com.symptocare.backend.dto;
+
+import com.symptocare.backend.model.Notification;
+import com.symptocare.backend.model.Notification.NotificationType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Detached view of a notification — safe to cache and serialize outside a session
+@Data
+public class NotificationResponse {
+    private Long id;
+    private String title;
+    private String message;
+    private NotificationType type;
+    private Long referenceId;
+    private boolean read;
+    private LocalDateTime createdAt;
+
+    public static NotificationResponse from(Notification notification) {
+        NotificationResponse res = new NotificationResponse();
+        res.setId(notification.getId());
+        res.setTitle(notification.getTitle());
+        res.setMessage(notification.getMessage());
+        res.setType(notification.getType());
+        res.setReferenceId(notification.getReferenceId());
+        res.setRead(notification.isRead());
+        res.setCreatedAt(notification.getCreatedAt());
+        return res;
+    }
+}
@@ -0,0 +1,53 @@
+package com.symptocare.backend.dto;
+
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.model.Expense.PaymentMethod;
+import com.symptocare.backend.model.RecurringExpense.Frequency;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class RecurringExpenseRequest {
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+
+    @NotBlank(message = "Title is required")
+    private String title;
+
+    private String description;
+
+    @NotNull(message = "Category is required")
+    private ExpenseCategory category;
+
+    @NotNull(message = "Payment method is required")
+    private PaymentMethod paymentMethod;
+
+    @NotNull(message = "Frequency is required")
+    private Frequency frequency;
+
+    // Optional — taken from startDate when not given
+    @Min(value = 1, message = "Day of month must be 1-31")
+    @Max(value = 31, message = "Day of month must be 1-31")
+    private Integer dayOfMonth;
+
+    @Min(value = 1, message = "Day of week must be 1 (Monday) - 7 (Sunday)")
+    @Max(value = 7, message = "Day of week must be 1 (Monday) - 7 (Sunday)")
+    private Integer dayOfWeek;
+
+    @Min(value = 1, message = "Month must be 1-12")
+    @Max(value = 12, message = "Month must be 1-12")
+    private Integer monthOfYear;
+
+    // Defaults to today
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+}
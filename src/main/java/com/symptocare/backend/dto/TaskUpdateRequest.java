@@ -0,0 +1,14 @@
+package com.symptocare.backend.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+// One item of a bulk task update
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class TaskUpdateRequest extends TaskRequest {
+
+    @NotNull(message = "Task id is required")
+    private Long id;
+}
@@ -0,0 +1,50 @@
+package com.symptocare.backend.model;
+
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// Record of a budget threshold alert already sent — the unique key makes each
+// (category, month, threshold) alert go out once, even across instances
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "budget_alerts",
+        uniqueConstraints = @UniqueConstraint(
+                columnNames = {"user_id", "category", "alert_year", "alert_month", "threshold"}))
+public class BudgetAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExpenseCategory category;
+
+    @Column(name = "alert_year", nullable = false)
+    private Integer alertYear;
+
+    @Column(name = "alert_month", nullable = false)
+    private Integer alertMonth;
+
+    // Percent of the budget, e.g. 80 or 100
+    @Column(nullable = false)
+    private Integer threshold;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "expenses")
+@Table(name = "expenses",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"recurrence_id", "recurrence_period"}))
 public class Expense {
 
     @Id
@@ -60,6 +61,14 @@ public class Expense {
     @Column(nullable = false)
     private boolean isRecurring;
 
+    // Set on occurrences generated from a RecurringExpense: the series id and the period
+    // ("2025-03", "2025-W12", "2025") — unique together, so none is generated twice
+    @Column(name = "recurrence_id")
+    private Long recurrenceId;
+
+    @Column(name = "recurrence_period", length = 10)
+    private String recurrencePeriod;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,42 @@
+package com.symptocare.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "file_blobs")
+public class FileBlob {
+
+    // SHA-256 of the content (hex) — identical uploads share one blob
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    // Size of the content in bytes
+    @Column(nullable = false)
+    private Long size;
+
+    // Bytes actually kept in storage (smaller than size when compressed; null = same as size)
+    private Long storedSize;
+
+    // Stored deflate-compressed under "<key>.deflate" (null on rows from before compression)
+    private Boolean compressed;
+
+    // Number of file_entries pointing at this blob; the blob is removed at 0
+    @Column(nullable = false)
+    private Integer refCount;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -22,7 +22,7 @@ public class FileEntry {
     // Stored file name (UUID based to avoid conflicts) e.g. "a1b2c3-resume.pdf"
     @Column(nullable = false, unique = true)
     private String storedFileName;
-    // Full path on server e.g. "uploads/userId/a1b2c3-resume.pdf"
+    // Storage key e.g. "blobs/ab/cd/<sha256>" (older rows: full path on server)
     @Column(nullable = false, columnDefinition = "TEXT")
     private String filePath;
     // MIME type e.g. "application/pdf", "image/png", "video/mp4"
@@ -31,6 +31,9 @@ public class FileEntry {
     // File size in bytes
     @Column(nullable = false)
     private Long fileSize;
+    // SHA-256 of the stored bytes (hex) — used as a strong ETag for downloads
+    @Column(length = 64)
+    private String contentHash;
     // Human readable size e.g. "2.3 MB"
     private String fileSizeFormatted;
     // Category for filtering
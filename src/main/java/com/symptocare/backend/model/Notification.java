@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "notifications")
+@Table(name = "notifications",
+        indexes = @Index(name = "idx_notification_user_created", columnList = "user_id, created_at"))
 public class Notification {
 
     @Id
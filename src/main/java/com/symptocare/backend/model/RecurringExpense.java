@@ -0,0 +1,88 @@
+package com.symptocare.backend.model;
+
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.model.Expense.PaymentMethod;
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// A repeating expense (rent, Netflix, SIP...) — the scheduler materializes each due
+// occurrence as a normal Expense, tagged with this series' id and its period
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "recurring_expenses",
+        indexes = @Index(name = "idx_recurring_due", columnList = "active, next_due_date, id"))
+public class RecurringExpense {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Copied onto every occurrence
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExpenseCategory category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentMethod paymentMethod;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Frequency frequency;
+
+    // MONTHLY / YEARLY: day of the month (29–31 fall back to the month's last day)
+    private Integer dayOfMonth;
+
+    // WEEKLY: 1 = Monday … 7 = Sunday
+    private Integer dayOfWeek;
+
+    // YEARLY: 1–12
+    private Integer monthOfYear;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    // Optional last day of the series
+    private LocalDate endDate;
+
+    // First occurrence not materialized yet
+    @Column(nullable = false)
+    private LocalDate nextDueDate;
+
+    @Column(nullable = false)
+    private boolean active;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public enum Frequency {
+        WEEKLY,
+        MONTHLY,
+        YEARLY
+    }
+}
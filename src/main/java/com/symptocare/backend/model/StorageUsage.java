@@ -0,0 +1,47 @@
+package com.symptocare.backend.model;
+
+import com.symptocare.backend.model.FileEntry.FileCategory;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// Running totals of a user's uploads per category, kept in step with file_entries
+// so storage stats and quota checks don't have to scan every file
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "storage_usage",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "category"}))
+public class StorageUsage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private FileCategory category;
+
+    @Column(nullable = false)
+    private Long fileCount;
+
+    // Logical bytes (as uploaded, before dedup / compression)
+    @Column(nullable = false)
+    private Long totalBytes;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
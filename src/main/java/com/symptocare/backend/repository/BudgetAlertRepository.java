@@ -0,0 +1,22 @@
+package com.symptocare.backend.repository;
+
+import com.symptocare.backend.model.BudgetAlert;
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface BudgetAlertRepository extends JpaRepository<BudgetAlert, Long> {
+
+    // Alerts already sent for a month
+    List<BudgetAlert> findByUserAndAlertYearAndAlertMonth(User user, Integer alertYear, Integer alertMonth);
+
+    // Forget a month's alerts for a category — used when its budget changes
+    @Modifying
+    @Transactional
+    void deleteByUserAndCategoryAndAlertYearAndAlertMonth(
+            User user, ExpenseCategory category, Integer alertYear, Integer alertMonth);
+}
@@ -0,0 +1,16 @@
+package com.symptocare.backend.repository;
+
+import com.symptocare.backend.model.Budget;
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+
+    List<Budget> findByUser(User user);
+
+    Optional<Budget> findByUserAndCategory(User user, ExpenseCategory category);
+}
@@ -0,0 +1,136 @@
+package com.symptocare.backend.repository;
+
+import com.symptocare.backend.model.Expense;
+import com.symptocare.backend.model.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Plain JDBC batch inserts for bulk imports.
+// Hibernate can't batch inserts into IDENTITY tables (it needs each generated id back),
+// so ids are reserved from the table's sequence up front and inserted explicitly.
+@Repository
+@RequiredArgsConstructor
+public class BulkInsertRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Sets id (and createdAt / month / year) on each expense
+    public void insertExpenses(List<Expense> expenses) {
+        if (expenses.isEmpty()) return;
+
+        List<Long> ids = reserveIds("expenses", expenses.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < expenses.size(); i++) {
+            Expense expense = expenses.get(i);
+            expense.setId(ids.get(i));
+            expense.setCreatedAt(now);
+            expense.setExpenseMonth(expense.getExpenseDate().getMonthValue());
+            expense.setExpenseYear(expense.getExpenseDate().getYear());
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO expenses (id, user_id, amount, title, description, category, payment_method, " +
+                "expense_date, expense_month, expense_year, is_recurring, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                expenses, BATCH_SIZE, (ps, e) -> {
+                    ps.setLong(1, e.getId());
+                    ps.setLong(2, e.getUser().getId());
+                    ps.setBigDecimal(3, e.getAmount());
+                    ps.setString(4, e.getTitle());
+                    ps.setString(5, e.getDescription());
+                    ps.setString(6, e.getCategory().name());
+                    ps.setString(7, e.getPaymentMethod().name());
+                    ps.setDate(8, Date.valueOf(e.getExpenseDate()));
+                    ps.setInt(9, e.getExpenseMonth());
+                    ps.setInt(10, e.getExpenseYear());
+                    ps.setBoolean(11, e.isRecurring());
+                    ps.setTimestamp(12, Timestamp.valueOf(e.getCreatedAt()));
+                });
+    }
+
+    // Occurrences of recurring expenses — one already generated for its (series, period)
+    // is skipped, so re-running the job is harmless. Returns the number of rows written.
+    public int insertRecurringOccurrences(List<Expense> expenses) {
+        if (expenses.isEmpty()) return 0;
+
+        List<Long> ids = reserveIds("expenses", expenses.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < expenses.size(); i++) {
+            Expense expense = expenses.get(i);
+            expense.setId(ids.get(i));
+            expense.setCreatedAt(now);
+            expense.setExpenseMonth(expense.getExpenseDate().getMonthValue());
+            expense.setExpenseYear(expense.getExpenseDate().getYear());
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "INSERT INTO expenses (id, user_id, amount, title, description, category, payment_method, " +
+                "expense_date, expense_month, expense_year, is_recurring, created_at, " +
+                "recurrence_id, recurrence_period) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                "ON CONFLICT (recurrence_id, recurrence_period) DO NOTHING",
+                expenses, BATCH_SIZE, (ps, e) -> {
+                    ps.setLong(1, e.getId());
+                    ps.setLong(2, e.getUser().getId());
+                    ps.setBigDecimal(3, e.getAmount());
+                    ps.setString(4, e.getTitle());
+                    ps.setString(5, e.getDescription());
+                    ps.setString(6, e.getCategory().name());
+                    ps.setString(7, e.getPaymentMethod().name());
+                    ps.setDate(8, Date.valueOf(e.getExpenseDate()));
+                    ps.setInt(9, e.getExpenseMonth());
+                    ps.setInt(10, e.getExpenseYear());
+                    ps.setBoolean(11, e.isRecurring());
+                    ps.setTimestamp(12, Timestamp.valueOf(e.getCreatedAt()));
+                    ps.setLong(13, e.getRecurrenceId());
+                    ps.setString(14, e.getRecurrencePeriod());
+                });
+
+        // Rewritten batches report SUCCESS_NO_INFO (-2) — counted as written
+        int written = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) if (count != 0) written++;
+        }
+        return written;
+    }
+
+    // Sets id on each task
+    public void insertTasks(List<Task> tasks) {
+        if (tasks.isEmpty()) return;
+
+        List<Long> ids = reserveIds("tasks", tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId(ids.get(i));
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tasks (id, user_id, title, description, task_date, task_time, priority, " +
+                "status, notification_sent) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                tasks, BATCH_SIZE, (ps, t) -> {
+                    ps.setLong(1, t.getId());
+                    ps.setLong(2, t.getUser().getId());
+                    ps.setString(3, t.getTitle());
+                    ps.setString(4, t.getDescription());
+                    ps.setDate(5, Date.valueOf(t.getTaskDate()));
+                    ps.setTime(6, Time.valueOf(t.getTaskTime()));
+                    ps.setInt(7, t.getPriority());
+                    ps.setString(8, t.getStatus().name());
+                    ps.setBoolean(9, t.isNotificationSent());
+                });
+    }
+
+    private List<Long> reserveIds(String table, int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)",
+                Long.class, table, count);
+    }
+}
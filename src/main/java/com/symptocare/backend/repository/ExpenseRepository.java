@@ -4,12 +4,18 @@ import com.symptocare.backend.model.Expense;
 import com.symptocare.backend.model.Expense.ExpenseCategory;
 import com.symptocare.backend.model.Expense.PaymentMethod;
 import com.symptocare.backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
 
@@ -40,9 +46,18 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     List<Expense> findByUserAndIsRecurringOrderByExpenseDateDesc(
             User user, boolean isRecurring);
 
+    // Highest expense of a month / year (summaries)
+    Optional<Expense> findFirstByUserAndExpenseMonthAndExpenseYearOrderByAmountDesc(
+            User user, Integer month, Integer year);
+
+    Optional<Expense> findFirstByUserAndExpenseYearOrderByAmountDesc(User user, Integer year);
+
     // Security check
     Optional<Expense> findByIdAndUser(Long id, User user);
 
+    // Security check for bulk updates / deletes
+    List<Expense> findByUserAndIdIn(User user, Collection<Long> ids);
+
     // Total amount for a month/year
     @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e " +
            "WHERE e.user = :user AND e.expenseMonth = :month AND e.expenseYear = :year")
@@ -87,10 +102,71 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
             @Param("isRecurring") Boolean isRecurring,
             @Param("search") String search);
 
+    // Same filters as findWithFilters, read through a cursor for exports — call inside a
+    // read-only transaction and close the stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Expense e WHERE e.user = :user " +
+           "AND (:month IS NULL OR e.expenseMonth = :month) " +
+           "AND (:year IS NULL OR e.expenseYear = :year) " +
+           "AND (:category IS NULL OR e.category = :category) " +
+           "AND (:paymentMethod IS NULL OR e.paymentMethod = :paymentMethod) " +
+           "AND (:minAmount IS NULL OR e.amount >= :minAmount) " +
+           "AND (:maxAmount IS NULL OR e.amount <= :maxAmount) " +
+           "AND (:isRecurring IS NULL OR e.isRecurring = :isRecurring) " +
+           "AND (:search IS NULL OR LOWER(e.title) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "ORDER BY e.expenseDate DESC, e.id DESC")
+    Stream<Expense> streamWithFilters(
+            @Param("user") User user,
+            @Param("month") Integer month,
+            @Param("year") Integer year,
+            @Param("category") ExpenseCategory category,
+            @Param("paymentMethod") PaymentMethod paymentMethod,
+            @Param("minAmount") BigDecimal minAmount,
+            @Param("maxAmount") BigDecimal maxAmount,
+            @Param("isRecurring") Boolean isRecurring,
+            @Param("search") String search);
+
     // Distinct years for history dropdown
     @Query("SELECT DISTINCT e.expenseYear FROM Expense e WHERE e.user = :user ORDER BY e.expenseYear DESC")
     List<Integer> findDistinctYearsByUser(@Param("user") User user);
 
+    // (date, amount, title) of every expense — for statement import deduplication
+    @Query("SELECT e.expenseDate, e.amount, e.title FROM Expense e WHERE e.user = :user")
+    Stream<Object[]> streamDedupKeys(@Param("user") User user);
+
+    // (date, amount, category, title) in a date range — analytics reads these into primitive columns
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.expenseDate, e.amount, e.category, e.title FROM Expense e " +
+           "WHERE e.user = :user AND e.expenseDate BETWEEN :from AND :to")
+    Stream<Object[]> streamForAnalytics(
+            @Param("user") User user,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    // (date, amount, category) since a date, oldest first — replayed into a user's SpendingModel
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.expenseDate, e.amount, e.category FROM Expense e " +
+           "WHERE e.user = :user AND e.expenseDate >= :from " +
+           "ORDER BY e.expenseDate ASC, e.id ASC")
+    Stream<Object[]> streamForSpendingModel(
+            @Param("user") User user,
+            @Param("from") LocalDate from);
+
+    // Recent expenses, newest first — scored for anomalies
+    List<Expense> findByUserAndExpenseDateGreaterThanEqualOrderByExpenseDateDesc(User user, LocalDate from);
+
     // Count transactions for a month/year
     long countByUserAndExpenseMonthAndExpenseYear(User user, Integer month, Integer year);
+
+    // Count transactions for a year
+    long countByUserAndExpenseYear(User user, Integer year);
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.symptocare.backend.repository;
+
+import com.symptocare.backend.model.FileBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+
+    // Keyset page over all blobs (used by the storage sweeper)
+    List<FileBlob> findByHashGreaterThanOrderByHashAsc(String hash, Pageable pageable);
+
+    // Insert-or-increment on the hash primary key: creates the row with one reference, or adds a
+    // reference to an existing one, and returns the new refCount. The row stays locked until the
+    // caller's transaction commits, so concurrent adopts / releases of the hash — on any instance —
+    // wait for it instead of racing.
+    @Transactional
+    @Query(value = "INSERT INTO file_blobs (hash, size, stored_size, compressed, ref_count, created_at) " +
+            "VALUES (:hash, :size, :size, false, 1, now()) " +
+            "ON CONFLICT (hash) DO UPDATE SET ref_count = file_blobs.ref_count + 1 " +
+            "RETURNING ref_count", nativeQuery = true)
+    int insertOrIncrement(@Param("hash") String hash, @Param("size") long size);
+
+    // Placeholder row with no references, only if the hash has none — holds the row lock for
+    // the caller's transaction (used to delete orphaned content without racing a new upload)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO file_blobs (hash, size, ref_count, created_at) VALUES (:hash, 0, 0, now()) " +
+            "ON CONFLICT (hash) DO NOTHING", nativeQuery = true)
+    int insertPlaceholder(@Param("hash") String hash);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE FileBlob b SET b.storedSize = :storedSize, b.compressed = :compressed WHERE b.hash = :hash")
+    int updateStorage(@Param("hash") String hash, @Param("storedSize") long storedSize,
+                      @Param("compressed") boolean compressed);
+
+    // Only ever raises the count — returns 0 if it was already at least this high
+    @Modifying
+    @Transactional
+    @Query("UPDATE FileBlob b SET b.refCount = :refCount WHERE b.hash = :hash AND b.refCount < :refCount")
+    int raiseRefCount(@Param("hash") String hash, @Param("refCount") int refCount);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount - 1 WHERE b.hash = :hash")
+    int decrementRefCount(@Param("hash") String hash);
+
+    // Remove the blob row once nothing references it — returns 1 if it was removed
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FileBlob b WHERE b.hash = :hash AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+
+    // ─── Storage stats ─────────────────────────────────────────────────────────
+
+    @Query("SELECT COALESCE(SUM(b.size), 0) FROM FileBlob b")
+    long totalLogicalBytes();
+
+    @Query("SELECT COALESCE(SUM(COALESCE(b.storedSize, b.size)), 0) FROM FileBlob b")
+    long totalPhysicalBytes();
+
+    long countByCompressedTrue();
+}
@@ -3,10 +3,12 @@ package com.symptocare.backend.repository;
 import com.symptocare.backend.model.FileEntry;
 import com.symptocare.backend.model.FileEntry.FileCategory;
 import com.symptocare.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +25,21 @@ public interface FileRepository extends JpaRepository<FileEntry, Long> {
 
     Optional<FileEntry> findByStoredFileName(String storedFileName);
 
+    // Keyset page over all files (used by background jobs)
+    List<FileEntry> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Rows holding a reference to a blob: filePath is its key, or (early blob rows) an absolute
+    // path into the blob dir. Legacy per-user files that got the same hash on download don't count.
+    @Query("SELECT COUNT(f) FROM FileEntry f WHERE f.contentHash = :hash AND " +
+           "(f.filePath LIKE 'blobs/%' OR f.filePath LIKE CONCAT(:blobDir, '/%'))")
+    long countBlobReferences(@Param("hash") String hash, @Param("blobDir") String blobDir);
+
+    // Security check for bulk deletes
+    List<FileEntry> findByUserAndIdIn(User user, Collection<Long> ids);
+
+    // Another file with identical content whose PDF text was already extracted
+    Optional<FileEntry> findFirstByContentHashAndExtractedTextIsNotNull(String contentHash);
+
     // Search by original file name
     @Query("SELECT f FROM FileEntry f WHERE f.user = :user AND " +
            "LOWER(f.originalFileName) LIKE LOWER(CONCAT('%', :query, '%')) " +
@@ -35,6 +52,16 @@ public interface FileRepository extends JpaRepository<FileEntry, Long> {
 
     long countByUser(User user);
 
+    // Per-category count and size — only used to rebuild storage_usage
+    @Query("SELECT f.category, COUNT(f), COALESCE(SUM(f.fileSize), 0) FROM FileEntry f " +
+           "WHERE f.user = :user GROUP BY f.category")
+    List<Object[]> usageByCategory(@Param("user") User user);
+
+    // Users with files but no storage counters yet (uploaded before counters existed)
+    @Query("SELECT DISTINCT f.user FROM FileEntry f " +
+           "WHERE NOT EXISTS (SELECT u.id FROM StorageUsage u WHERE u.user = f.user)")
+    List<User> findUsersWithoutStorageUsage();
+
     // All files that have been used for chat (have extracted text)
     List<FileEntry> findByUserAndUsedForChatTrueOrderByUploadedAtDesc(User user);
 }
\ No newline at end of file
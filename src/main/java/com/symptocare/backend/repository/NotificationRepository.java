@@ -3,6 +3,7 @@ package com.symptocare.backend.repository;
 import com.symptocare.backend.model.Notification;
 import com.symptocare.backend.model.Notification.NotificationType;
 import com.symptocare.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -30,18 +31,18 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Modifying
     @Transactional
     @Query("UPDATE Notification n SET n.isRead = true WHERE n.user = :user AND n.isRead = false")
-    void markAllAsRead(@Param("user") User user);
+    int markAllAsRead(@Param("user") User user);
 
-    // Delete old read notifications older than given date
+    // Delete read notifications older than the given date — all users in one statement
     @Modifying
     @Transactional
-    @Query("DELETE FROM Notification n WHERE n.user = :user AND n.isRead = true AND n.createdAt < :before")
-    void deleteOldReadNotifications(@Param("user") User user, @Param("before") LocalDateTime before);
+    @Query("DELETE FROM Notification n WHERE n.isRead = true AND n.createdAt < :before")
+    int deleteReadBefore(@Param("before") LocalDateTime before);
 
     // Check if notification already sent for a task (avoid duplicates)
     boolean existsByUserAndReferenceIdAndType(User user, Long referenceId, NotificationType type);
 
-    // Latest 20 for bell icon dropdown
-    @Query("SELECT n FROM Notification n WHERE n.user = :user ORDER BY n.createdAt DESC")
-    List<Notification> findTop20ByUser(@Param("user") User user);
+    // Latest N for the bell icon dropdown — the Pageable puts the LIMIT in SQL
+    @Query("SELECT n FROM Notification n WHERE n.user = :user ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findLatestByUser(@Param("user") User user, Pageable pageable);
 }
\ No newline at end of file
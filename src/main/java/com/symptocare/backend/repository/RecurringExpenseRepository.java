@@ -0,0 +1,30 @@
+package com.symptocare.backend.repository;
+
+import com.symptocare.backend.model.RecurringExpense;
+import com.symptocare.backend.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Long> {
+
+    List<RecurringExpense> findByUserOrderByCreatedAtDesc(User user);
+
+    List<RecurringExpense> findByUserAndActiveTrue(User user);
+
+    // Security check
+    Optional<RecurringExpense> findByIdAndUser(Long id, User user);
+
+    // One keyset page of series with an occurrence due, across all users
+    @Query("SELECT r FROM RecurringExpense r JOIN FETCH r.user " +
+           "WHERE r.active = true AND r.nextDueDate <= :today AND r.id > :lastId ORDER BY r.id")
+    List<RecurringExpense> findDuePage(
+            @Param("today") LocalDate today,
+            @Param("lastId") Long lastId,
+            Pageable pageable);
+}
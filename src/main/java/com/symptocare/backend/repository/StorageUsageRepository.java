@@ -0,0 +1,40 @@
+package com.symptocare.backend.repository;
+
+import com.symptocare.backend.model.FileEntry.FileCategory;
+import com.symptocare.backend.model.StorageUsage;
+import com.symptocare.backend.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface StorageUsageRepository extends JpaRepository<StorageUsage, Long> {
+
+    List<StorageUsage> findByUser(User user);
+
+    // Atomic insert-or-add on the (user_id, category) unique constraint; in the caller's
+    // transaction, so the change commits (or rolls back) with the file row it counts
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO storage_usage (user_id, category, file_count, total_bytes, updated_at) " +
+            "VALUES (:userId, :category, :files, :bytes, now()) " +
+            "ON CONFLICT (user_id, category) DO UPDATE SET " +
+            "file_count = storage_usage.file_count + EXCLUDED.file_count, " +
+            "total_bytes = storage_usage.total_bytes + EXCLUDED.total_bytes, updated_at = now()",
+            nativeQuery = true)
+    int adjust(@Param("userId") Long userId, @Param("category") String category,
+               @Param("files") long files, @Param("bytes") long bytes);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StorageUsage u SET u.fileCount = :files, u.totalBytes = :bytes, " +
+           "u.updatedAt = CURRENT_TIMESTAMP WHERE u.user = :user AND u.category = :category")
+    int set(@Param("user") User user, @Param("category") FileCategory category,
+            @Param("files") long files, @Param("bytes") long bytes);
+
+    @Query("SELECT COALESCE(SUM(u.totalBytes), 0) FROM StorageUsage u WHERE u.user = :user")
+    long totalBytes(@Param("user") User user);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
@@ -19,6 +20,9 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     // Tasks for a specific date sorted by priority then time
     List<Task> findByUserAndTaskDateOrderByPriorityDescTaskTimeAsc(User user, LocalDate date);
 
+    // Security check for bulk updates / deletes
+    List<Task> findByUserAndIdIn(User user, Collection<Long> ids);
+
     // ─── Used by TaskScheduler - sendTaskReminders() ──────────────────────────
     // Find tasks due in the next minute that haven't sent notification yet
     @Query("SELECT t FROM Task t WHERE t.taskDate = :date " +
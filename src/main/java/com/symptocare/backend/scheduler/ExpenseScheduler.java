@@ -0,0 +1,20 @@
+package com.symptocare.backend.scheduler;
+
+import com.symptocare.backend.service.RecurringExpenseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ExpenseScheduler {
+
+    private final RecurringExpenseService recurringExpenseService;
+
+    // ─── Recurring Expenses ───────────────────────────────────────────────────
+    // Runs every night at 00:15 — creates today's (and any missed) recurring occurrences
+    @Scheduled(cron = "${expense.recurring.cron:0 15 0 * * *}")
+    public void materializeRecurringExpenses() {
+        recurringExpenseService.materializeDue();
+    }
+}
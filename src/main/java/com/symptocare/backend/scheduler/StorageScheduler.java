@@ -0,0 +1,54 @@
+package com.symptocare.backend.scheduler;
+
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.UserRepository;
+import com.symptocare.backend.service.StorageSweeper;
+import com.symptocare.backend.service.StorageUsageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StorageScheduler {
+
+    private final UserRepository userRepository;
+    private final StorageUsageService storageUsageService;
+    private final StorageSweeper storageSweeper;
+
+    @Value("${file.sweeper.enabled:true}")
+    private boolean sweeperEnabled;
+
+    // ─── Storage Usage Repair ─────────────────────────────────────────────────
+    // Runs every night at 3:30 AM — rebuilds per-user counters that drifted from file_entries
+    // (e.g. an upload whose counter update failed after the row was saved)
+    @Scheduled(cron = "${file.usage.repair-cron:0 30 3 * * *}")
+    public void repairStorageUsage() {
+        List<User> allUsers = userRepository.findAll();
+        int repaired = 0;
+
+        for (User user : allUsers) {
+            try {
+                if (storageUsageService.verify(user)) repaired++;
+            } catch (RuntimeException e) {
+                log.error("Storage usage check failed for user {}: {}", user.getEmail(), e.getMessage());
+            }
+        }
+
+        log.info("Storage usage check done → users: {} | repaired: {}", allUsers.size(), repaired);
+    }
+
+    // ─── Orphan / Consistency Sweep ───────────────────────────────────────────
+    // Runs every night at 4 AM — reconciles the upload dir and blobs with file_entries
+    // (report-only unless file.sweeper.dry-run=false)
+    @Scheduled(cron = "${file.sweeper.cron:0 0 4 * * *}")
+    public void sweepStorage() {
+        if (!sweeperEnabled) return;
+        storageSweeper.sweep();
+    }
+}
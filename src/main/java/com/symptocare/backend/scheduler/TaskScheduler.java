@@ -6,6 +6,7 @@ import com.symptocare.backend.model.Task.TaskStatus;
 import com.symptocare.backend.model.User;
 import com.symptocare.backend.repository.TaskRepository;
 import com.symptocare.backend.repository.UserRepository;
+import com.symptocare.backend.service.NotificationRetention;
 import com.symptocare.backend.service.NotificationService;
 import com.symptocare.backend.service.OpenAIService;
 import lombok.RequiredArgsConstructor;
@@ -15,7 +16,10 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 @RequiredArgsConstructor
@@ -25,6 +29,7 @@ public class TaskScheduler {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final NotificationRetention notificationRetention;
     private final OpenAIService openAIService;
 
     // ─── Task Reminder ────────────────────────────────────────────────────────
@@ -111,11 +116,15 @@ public class TaskScheduler {
 
     // ─── Morning Motivational Push ────────────────────────────────────────────
     // Runs every day at 8:00 AM
+    // Quotes are requested for all users first so OpenAIService can batch them,
+    // then each notification is pushed once its quote arrives (or its fallback, if the
+    // quote's batch hasn't answered groq.batch.timeout-ms after it was sent)
     @Scheduled(cron = "0 0 8 * * *")
     public void sendMorningMotivation() {
         log.info("Sending morning motivational notifications to all users");
 
         List<User> allUsers = userRepository.findAll();
+        Map<User, CompletableFuture<String>> messages = new LinkedHashMap<>();
 
         for (User user : allUsers) {
             try {
@@ -123,20 +132,27 @@ public class TaskScheduler {
                 long pendingCount = taskRepository
                         .countByUserAndTaskDateAndStatus(user, LocalDate.now(), TaskStatus.PENDING);
 
-                String message;
                 if (pendingCount > 0) {
-                    message = openAIService.getMotivationalQuote(
+                    messages.put(user, openAIService.getMotivationalQuoteAsync(
                             "starting my day with " + pendingCount + " tasks to complete"
-                    );
+                    ));
                 } else {
-                    message = "Good morning! 🌅 Aaj ka din ekdum fresh start hai. " +
-                            "Apne goals set karo aur din ko productive banao! 💪";
+                    messages.put(user, CompletableFuture.completedFuture(
+                            "Good morning! 🌅 Aaj ka din ekdum fresh start hai. " +
+                            "Apne goals set karo aur din ko productive banao! 💪"));
                 }
 
+            } catch (Exception e) {
+                log.error("Failed morning motivation for user {}: {}", user.getEmail(), e.getMessage());
+            }
+        }
+
+        messages.forEach((user, message) -> {
+            try {
                 notificationService.createAndPush(
                         user,
                         "🌅 Good Morning! Aaj ka plan ready hai?",
-                        message,
+                        message.join(),
                         NotificationType.MOTIVATIONAL,
                         null
                 );
@@ -144,7 +160,7 @@ public class TaskScheduler {
             } catch (Exception e) {
                 log.error("Failed morning motivation for user {}: {}", user.getEmail(), e.getMessage());
             }
-        }
+        });
     }
 
     // ─── Night Summary ────────────────────────────────────────────────────────
@@ -192,18 +208,15 @@ public class TaskScheduler {
         }
     }
 
-    // ─── Weekly Cleanup ───────────────────────────────────────────────────────
-    // Runs every Sunday at midnight — clean old read notifications
-    @Scheduled(cron = "0 0 0 * * SUN")
-    public void cleanOldNotifications() {
-        log.info("Running weekly notification cleanup");
-        List<User> allUsers = userRepository.findAll();
-        for (User user : allUsers) {
-            try {
-                notificationService.cleanOldNotifications(user);
-            } catch (Exception e) {
-                log.error("Cleanup failed for user {}: {}", user.getEmail(), e.getMessage());
-            }
+    // ─── Notification Retention ───────────────────────────────────────────────
+    // Runs every night at 2:30 AM — partitions ahead, drops expired months and purges
+    // old read notifications for all users at once
+    @Scheduled(cron = "${notification.retention.cron:0 30 2 * * *}")
+    public void maintainNotifications() {
+        try {
+            notificationRetention.maintain();
+        } catch (Exception e) {
+            log.error("Notification retention failed: {}", e.getMessage());
         }
     }
 }
\ No newline at end of file
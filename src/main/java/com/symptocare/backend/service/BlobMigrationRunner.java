@@ -0,0 +1,132 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.FileEntry;
+import com.symptocare.backend.repository.FileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+// One-off migration of per-user uploads (uploadDir/<userId>/<uuid>.ext) into the
+// content-addressed blob store. Run once with file.blob-migration.enabled=true;
+// it is idempotent, so re-running only picks up files not yet migrated.
+@Component
+@ConditionalOnProperty(name = "file.blob-migration.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class BlobMigrationRunner implements ApplicationRunner {
+
+    private static final int PAGE_SIZE = 200;
+
+    private final FileRepository fileRepository;
+    private final BlobService blobService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Blob migration started");
+
+        long migrated = 0;
+        long deduplicated = 0;
+        long missing = 0;
+        long bytesSaved = 0;
+        long lastId = 0;
+
+        while (true) {
+            List<FileEntry> page = fileRepository
+                    .findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, PAGE_SIZE));
+            if (page.isEmpty()) break;
+
+            for (FileEntry entry : page) {
+                lastId = entry.getId();
+                if (blobService.keyOf(entry.getFilePath()) != null) {
+                    // Early blob rows stored the absolute path — switch them to the key
+                    if (!entry.getFilePath().equals(blobService.keyOf(entry.getFilePath()))) {
+                        entry.setFilePath(blobService.keyOf(entry.getFilePath()));
+                        fileRepository.save(entry);
+                    }
+                    continue;
+                }
+
+                Path path = Paths.get(entry.getFilePath());
+
+                if (!Files.exists(path)) {
+                    missing++;
+                    log.warn("Blob migration: file {} missing on disk ({})", entry.getId(), path);
+                    continue;
+                }
+
+                Path copy = null;
+                try {
+                    long size = Files.size(path);
+                    String hash = sha256(path);
+
+                    // adopt() consumes its file, so it gets a copy: the original stays where the row
+                    // points until the row has been switched to the blob key
+                    copy = blobService.tempDir().resolve(UUID.randomUUID() + ".migrate");
+                    Files.copy(path, copy);
+                    boolean newBlob = blobService.adopt(copy, hash, size, entry.getFileType());
+                    copy = null;
+
+                    entry.setContentHash(hash);
+                    entry.setFilePath(blobService.storedKeyFor(hash));
+                    try {
+                        fileRepository.save(entry);
+                    } catch (RuntimeException e) {
+                        blobService.release(hash);
+                        throw e;
+                    }
+                    Files.deleteIfExists(path);
+
+                    migrated++;
+                    if (!newBlob) {
+                        deduplicated++;
+                        bytesSaved += size;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.error("Blob migration failed for file {}: {}", entry.getId(), e.getMessage());
+                    deleteQuietly(copy);
+                }
+            }
+        }
+
+        log.info("Blob migration finished → migrated: {} | deduplicated: {} | missing: {} | space saved: {} bytes",
+                migrated, deduplicated, missing, bytesSaved);
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Blob migration: could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private String sha256(Path path) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
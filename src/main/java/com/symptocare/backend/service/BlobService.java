@@ -0,0 +1,312 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.FileBlob;
+import com.symptocare.backend.model.FileEntry;
+import com.symptocare.backend.repository.FileBlobRepository;
+import com.symptocare.backend.storage.BlobStore;
+import com.symptocare.backend.storage.DeflateCodec;
+import com.symptocare.backend.storage.LocalFile;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+// Content-addressed blob storage shared by all users
+// Blobs are stored under the key blobs/ab/cd/<sha256> in the configured BlobStore and are
+// reference counted, so identical content is stored once and removed with its last file.
+// FileEntry.filePath holds the blob key; rows from before blobs hold an absolute local path.
+// Compressible content is stored deflated under "<key>.deflate" and inflated on read.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BlobService {
+
+    private static final String BLOB_DIR = "blobs";
+    private static final String TEMP_DIR = "tmp";
+    private static final String THUMBNAIL_DIR = "thumbnails";
+    private static final String COMPRESSED_SUFFIX = ".deflate";
+
+    // Formats that are mostly text / uncompressed structure (docx, xlsx, zip, media are already packed)
+    private static final List<String> COMPRESSIBLE_TYPES = List.of(
+            "text/", "application/pdf", "application/msword", "application/vnd.ms-excel",
+            "application/vnd.ms-powerpoint", "application/json", "application/xml",
+            "application/rtf", "image/svg+xml", "image/bmp");
+
+    private final FileBlobRepository fileBlobRepository;
+    private final BlobStore blobStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${file.compression.enabled:true}")
+    private boolean compressionEnabled;
+
+    // Smaller blobs aren't worth the CPU
+    @Value("${file.compression.min-size:4096}")
+    private long compressionMinSize;
+
+    // Compress only when a sample shrinks at least to this fraction of its size
+    @Value("${file.compression.max-ratio:0.85}")
+    private double compressionMaxRatio;
+
+    @Value("${file.compression.sample-bytes:65536}")
+    private int compressionSampleBytes;
+
+    // Local directory for in-progress uploads
+    public Path tempDir() throws IOException {
+        Path temp = Paths.get(uploadDir, TEMP_DIR);
+        Files.createDirectories(temp);
+        return temp;
+    }
+
+    public String keyFor(String hash) {
+        return BLOB_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+
+    // Key the content of this hash is actually stored under (plain or compressed)
+    public String storedKeyFor(String hash) {
+        return fileBlobRepository.findById(hash).map(this::storedKey).orElse(keyFor(hash));
+    }
+
+    public String storedKey(FileBlob blob) {
+        return Boolean.TRUE.equals(blob.getCompressed()) ? keyFor(blob.getHash()) + COMPRESSED_SUFFIX : keyFor(blob.getHash());
+    }
+
+    public String thumbnailKeyFor(String hash) {
+        return THUMBNAIL_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + ".jpg";
+    }
+
+    // Hash a blob or thumbnail key belongs to, e.g. blobs/ab/cd/<hash>.deflate → <hash>
+    public String hashOf(String key) {
+        String name = key.substring(key.lastIndexOf('/') + 1);
+        int dot = name.indexOf('.');
+        return dot >= 0 ? name.substring(0, dot) : name;
+    }
+
+    // Blob key for a stored filePath, or null for legacy per-user files
+    public String keyOf(String filePath) {
+        if (filePath.startsWith(BLOB_DIR + "/")) return filePath;
+
+        // Early blob rows stored the absolute local path
+        Path root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        if (path.startsWith(root.resolve(BLOB_DIR))) {
+            return root.relativize(path).toString().replace('\\', '/');
+        }
+        return null;
+    }
+
+    // Take ownership of a fully written temp file with this hash and add a reference.
+    // If the content is already stored the temp file is discarded.
+    // Returns true if this created a new blob (false = deduplicated)
+    // The reference is added first (insert-or-increment on the file_blobs primary key), which locks
+    // the row until this transaction commits: concurrent uploads and deletes of the same content,
+    // on any instance, wait here instead of racing. The lock is held while the content is stored.
+    @Transactional
+    public boolean adopt(Path tempFile, String hash, long size, String mimeType) throws IOException {
+        int refCount = fileBlobRepository.insertOrIncrement(hash, size);
+        Optional<FileBlob> existing = refCount > 1 ? fileBlobRepository.findById(hash) : Optional.empty();
+        if (existing.isPresent() && blobStore.exists(storedKey(existing.get()))) {
+            Files.deleteIfExists(tempFile);
+            log.debug("Deduplicated upload against blob {}", hash);
+            return false;
+        }
+
+        // A row whose content went missing is re-stored the way existing files expect it
+        boolean compress = existing.isPresent()
+                ? Boolean.TRUE.equals(existing.get().getCompressed())
+                : shouldCompress(tempFile, size, mimeType);
+
+        Path compressedFile = compress ? compress(tempFile) : null;
+        if (compressedFile != null && existing.isEmpty() && Files.size(compressedFile) >= size) {
+            // The sample was misleading — keep the original
+            Files.deleteIfExists(compressedFile);
+            compressedFile = null;
+        }
+
+        if (compressedFile != null) {
+            long storedSize = Files.size(compressedFile);
+            blobStore.put(keyFor(hash) + COMPRESSED_SUFFIX, compressedFile);
+            Files.deleteIfExists(tempFile);
+            if (existing.isEmpty()) fileBlobRepository.updateStorage(hash, storedSize, true);
+        } else {
+            blobStore.put(keyFor(hash), tempFile);
+        }
+        return true;
+    }
+
+    // Drop a reference; the blob goes away with its last reference
+    // The row stays locked until the content is gone, so an upload of the same content waits and
+    // then stores it afresh. Content that can't be deleted is left for the storage sweeper.
+    @Transactional
+    public void release(String hash) {
+        fileBlobRepository.decrementRefCount(hash);
+        if (fileBlobRepository.deleteIfUnreferenced(hash) > 0) {
+            deleteQuietly(keyFor(hash));
+            deleteQuietly(keyFor(hash) + COMPRESSED_SUFFIX);
+            deleteQuietly(thumbnailKeyFor(hash));
+            log.debug("Blob {} removed (no references left)", hash);
+        }
+    }
+
+    // ─── File content access ──────────────────────────────────────────────────
+
+    public boolean exists(FileEntry entry) throws IOException {
+        String key = keyOf(entry.getFilePath());
+        return key != null ? blobStore.exists(key) : Files.isReadable(Paths.get(entry.getFilePath()));
+    }
+
+    public InputStream open(FileEntry entry) throws IOException {
+        String key = keyOf(entry.getFilePath());
+        if (key == null) return Files.newInputStream(Paths.get(entry.getFilePath()));
+        return isCompressed(key) ? DeflateCodec.decompress(blobStore.open(key)) : blobStore.open(key);
+    }
+
+    public InputStream open(FileEntry entry, long start, long end) throws IOException {
+        String key = keyOf(entry.getFilePath());
+        if (key != null && isCompressed(key)) {
+            // Deflate isn't seekable — inflate up to the range (compressed files are documents, not media)
+            InputStream in = open(entry);
+            in.skipNBytes(start);
+            return new BoundedInputStream(in, end - start + 1);
+        }
+        if (key != null) return blobStore.open(key, start, end);
+
+        InputStream in = Files.newInputStream(Paths.get(entry.getFilePath()));
+        in.skipNBytes(start);
+        return new BoundedInputStream(in, end - start + 1);
+    }
+
+    // Local file for zero-copy serving, when the content is (or can be cached) on this node
+    // Compressed content has no usable local file — it is always streamed through the inflater
+    // Close the LocalFile once done reading, so a cache can evict it again
+    public Optional<LocalFile> localFile(FileEntry entry) throws IOException {
+        String key = keyOf(entry.getFilePath());
+        if (key != null && isCompressed(key)) return Optional.empty();
+        return key != null ? blobStore.localFile(key) : Optional.of(LocalFile.of(Paths.get(entry.getFilePath())));
+    }
+
+    // Logical (uploaded) vs physical (stored) bytes across all blobs, as storage.blobs.* gauges —
+    // global numbers, so they go to metrics rather than a user-facing endpoint
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("storage.blobs.count", fileBlobRepository, FileBlobRepository::count);
+        meterRegistry.gauge("storage.blobs.compressed", fileBlobRepository, FileBlobRepository::countByCompressedTrue);
+        meterRegistry.gauge("storage.blobs.logical-bytes", fileBlobRepository, FileBlobRepository::totalLogicalBytes);
+        meterRegistry.gauge("storage.blobs.physical-bytes", fileBlobRepository, FileBlobRepository::totalPhysicalBytes);
+    }
+
+    // ─── Thumbnails (stored next to the blob, keyed by the same hash) ─────────
+
+    public boolean thumbnailExists(String hash) throws IOException {
+        return blobStore.exists(thumbnailKeyFor(hash));
+    }
+
+    public InputStream openThumbnail(String hash) throws IOException {
+        return blobStore.open(thumbnailKeyFor(hash));
+    }
+
+    public void putThumbnail(String hash, Path image) throws IOException {
+        blobStore.put(thumbnailKeyFor(hash), image);
+    }
+
+    // ─── Consistency (used by StorageSweeper) ──────────────────────────────────
+
+    public Path uploadRoot() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    // Local blob directory — early blob rows hold absolute paths into it (see keyOf)
+    public Path blobRoot() {
+        return uploadRoot().resolve(BLOB_DIR);
+    }
+
+    // Remove a stored object whose blob has no row — left by a crash between put and save
+    // (or a thumbnail / other variant the row doesn't point at)
+    // With no row, a placeholder is inserted first so an upload of the same content waits until
+    // the object is gone; the placeholder is removed again in the same transaction.
+    @Transactional
+    public boolean deleteOrphan(String key) throws IOException {
+        String hash = hashOf(key);
+        if (fileBlobRepository.insertPlaceholder(hash) > 0) {
+            blobStore.delete(key);
+            fileBlobRepository.deleteIfUnreferenced(hash);
+            return true;
+        }
+
+        Optional<FileBlob> blob = fileBlobRepository.findById(hash);
+        boolean inUse = blob.isPresent()
+                && (key.startsWith(THUMBNAIL_DIR + "/") || storedKey(blob.get()).equals(key));
+        if (inUse) return false;
+        blobStore.delete(key);
+        return true;
+    }
+
+    // Raise a blob's refCount to the number of rows that actually use it.
+    // Only ever raises: lowering could race with an upload that has adopted the blob
+    // but not saved its row yet. Returns true if the count was changed.
+    public boolean raiseRefCount(String hash, long actualReferences) {
+        return fileBlobRepository.raiseRefCount(hash, (int) actualReferences) > 0;
+    }
+
+    // Remove the content of a deleted file
+    @Transactional
+    public void deleteContent(FileEntry entry) throws IOException {
+        if (keyOf(entry.getFilePath()) != null) {
+            release(entry.getContentHash());
+        } else {
+            Files.deleteIfExists(Paths.get(entry.getFilePath()));
+        }
+    }
+
+    // ─── Compression ──────────────────────────────────────────────────────────
+
+    private boolean isCompressed(String key) {
+        return key.endsWith(COMPRESSED_SUFFIX);
+    }
+
+    // By MIME type first, then by how well a sample of the content actually compresses
+    private boolean shouldCompress(Path file, long size, String mimeType) throws IOException {
+        if (!compressionEnabled || size < compressionMinSize || mimeType == null) return false;
+        String type = mimeType.toLowerCase();
+        if (COMPRESSIBLE_TYPES.stream().noneMatch(type::startsWith)) return false;
+
+        double ratio = DeflateCodec.sampleRatio(file, compressionSampleBytes, Deflater.BEST_SPEED);
+        log.debug("Compression sample ratio {} for {} ({} bytes)", String.format("%.2f", ratio), mimeType, size);
+        return ratio <= compressionMaxRatio;
+    }
+
+    private Path compress(Path file) throws IOException {
+        Path target = tempDir().resolve(UUID.randomUUID() + COMPRESSED_SUFFIX);
+        try {
+            DeflateCodec.compress(file, target, Deflater.BEST_SPEED);
+            return target;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            blobStore.delete(key);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not delete {} — left for the storage sweeper: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.Budget;
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.BudgetAlertRepository;
+import com.symptocare.backend.repository.BudgetRepository;
+import com.symptocare.backend.repository.UserRepository;
+import com.symptocare.backend.util.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-category monthly budgets; spending against them is tracked by BudgetTracker
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BudgetService {
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetAlertRepository budgetAlertRepository;
+    private final UserRepository userRepository;
+    private final BudgetTracker budgetTracker;
+
+    private User getUser(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    // Budgets with this month's (or the given month's) spending against them
+    public List<Map<String, Object>> getBudgets(String email, Integer month, Integer year) {
+        User user = getUser(email);
+        YearMonth period = month != null && year != null ? YearMonth.of(year, month) : YearMonth.now();
+        long[] spent = budgetTracker.spent(user, period);
+
+        List<Map<String, Object>> budgets = new ArrayList<>();
+        for (Budget budget : budgetRepository.findByUser(user)) {
+            long limit = Money.toPaise(budget.getAmount());
+            long used = spent[budget.getCategory().ordinal()];
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", budget.getId());
+            row.put("category", budget.getCategory());
+            row.put("amount", budget.getAmount());
+            row.put("spent", Money.toRupees(used));
+            row.put("remaining", Money.toRupees(limit - used));
+            row.put("percentUsed", Math.round(used * 1000.0 / limit) / 10.0);
+            row.put("month", period.getMonthValue());
+            row.put("year", period.getYear());
+            budgets.add(row);
+        }
+        return budgets;
+    }
+
+    // Create or change a category's budget. This month's alerts for it start over,
+    // so raising a budget that was already exceeded can alert again at the new level.
+    public Budget setBudget(String email, ExpenseCategory category, BigDecimal amount) {
+        User user = getUser(email);
+        Budget budget = budgetRepository.findByUserAndCategory(user, category)
+                .orElseGet(() -> Budget.builder().user(user).category(category).build());
+        budget.setAmount(amount);
+        Budget saved = budgetRepository.save(budget);
+
+        YearMonth now = YearMonth.now();
+        budgetAlertRepository.deleteByUserAndCategoryAndAlertYearAndAlertMonth(
+                user, category, now.getYear(), now.getMonthValue());
+        budgetTracker.invalidate(user);
+        budgetTracker.recheck(user, List.of(now));
+
+        log.info("Budget set → user: {} | {}: {}", email, category, Money.format(amount));
+        return saved;
+    }
+
+    public void deleteBudget(String email, ExpenseCategory category) {
+        User user = getUser(email);
+        Budget budget = budgetRepository.findByUserAndCategory(user, category)
+                .orElseThrow(() -> new RuntimeException("Budget not found"));
+        budgetRepository.delete(budget);
+        budgetTracker.invalidate(user);
+    }
+}
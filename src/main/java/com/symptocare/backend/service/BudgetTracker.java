@@ -0,0 +1,259 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.Budget;
+import com.symptocare.backend.model.BudgetAlert;
+import com.symptocare.backend.model.Expense;
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.model.Notification.NotificationType;
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.BudgetAlertRepository;
+import com.symptocare.backend.repository.BudgetRepository;
+import com.symptocare.backend.repository.ExpenseRepository;
+import com.symptocare.backend.util.Money;
+import com.symptocare.backend.util.Transactions;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Running per-category totals for each (user, month), kept in memory so a new or changed
+// expense is checked against its budget in O(1) instead of re-summing the month.
+// A month is loaded from the database on first use and reloaded after budget.tracker.ttl,
+// which bounds any drift. Each threshold alerts once per category per month: a bit in
+// memory, backed by a unique budget_alerts row.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BudgetTracker {
+
+    private static final ExpenseCategory[] CATEGORIES = ExpenseCategory.values();
+
+    private final ExpenseRepository expenseRepository;
+    private final BudgetRepository budgetRepository;
+    private final BudgetAlertRepository budgetAlertRepository;
+    private final NotificationService notificationService;
+    private final PlatformTransactionManager transactionManager;
+
+    // Percent of a budget that triggers an alert, e.g. 80,100
+    @Value("${budget.alert-thresholds:80,100}")
+    private int[] thresholds;
+
+    @Value("${budget.tracker.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${budget.tracker.max-entries:10000}")
+    private int maxEntries;
+
+    private record Key(long userId, YearMonth month) {}
+
+    // One user's month: paise spent and budget per category, and which thresholds have alerted
+    private static final class MonthState {
+        final long[] spent = new long[CATEGORIES.length];
+        final long[] budget = new long[CATEGORIES.length];   // 0 = no budget
+        final Long[] budgetIds = new Long[CATEGORIES.length];
+        final int[] alerted = new int[CATEGORIES.length];    // bit i → thresholds[i] sent
+        final long loadedAt = System.nanoTime();
+    }
+
+    // A threshold crossed by a change, sent once the state lock is released
+    private record Crossing(ExpenseCategory category, int threshold, long spent, long budget, Long budgetId) {}
+
+    private final Map<Key, MonthState> months = new ConcurrentHashMap<>();
+
+    // Own transactions: alerts may be sent from afterCommit, where the caller's is already over
+    private TransactionTemplate requiresNew;
+
+    @PostConstruct
+    public void init() {
+        thresholds = Arrays.stream(thresholds).filter(t -> t > 0).sorted().distinct().limit(31).toArray();
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // ─── Expense changes ──────────────────────────────────────────────────────
+    // Call after the change is written — a month loaded here already includes it.
+
+    public void created(User user, Expense expense) {
+        apply(user, YearMonth.from(expense.getExpenseDate()),
+                expense.getCategory(), Money.toPaise(expense.getAmount()), null, 0);
+    }
+
+    public void deleted(User user, Expense expense) {
+        apply(user, YearMonth.from(expense.getExpenseDate()),
+                expense.getCategory(), -Money.toPaise(expense.getAmount()), null, 0);
+    }
+
+    // An update moves the old amount out of its (category, month) and the new one in
+    public void updated(User user, ExpenseCategory oldCategory, YearMonth oldMonth, BigDecimal oldAmount,
+                        Expense expense) {
+        YearMonth month = YearMonth.from(expense.getExpenseDate());
+        long oldPaise = Money.toPaise(oldAmount);
+        if (month.equals(oldMonth)) {
+            // Same month — one step, so a freshly loaded month isn't adjusted twice
+            apply(user, month, oldCategory, -oldPaise, expense.getCategory(), Money.toPaise(expense.getAmount()));
+        } else {
+            apply(user, oldMonth, oldCategory, -oldPaise, null, 0);
+            created(user, expense);
+        }
+    }
+
+    // Bulk writes and imports: reload the touched months and alert on anything crossed,
+    // after the surrounding transaction commits (right away if there is none)
+    public void recheck(User user, Collection<YearMonth> touched) {
+        List<YearMonth> distinct = touched.stream().distinct().toList();
+        if (distinct.isEmpty()) return;
+
+        Runnable task = () -> requiresNew.executeWithoutResult(status -> {
+            for (YearMonth month : distinct) {
+                months.remove(new Key(user.getId(), month));
+                MonthState state = load(user, month);
+                List<Crossing> crossings = new ArrayList<>();
+                synchronized (state) {
+                    for (int c = 0; c < CATEGORIES.length; c++) collectCrossings(state, c, crossings);
+                }
+                months.put(new Key(user.getId(), month), state);
+                crossings.forEach(crossing -> sendAlert(user, month, crossing));
+            }
+        });
+
+        Transactions.afterCommit(task);
+    }
+
+    // Drop everything cached for a user — after their budgets change
+    public void invalidate(User user) {
+        months.keySet().removeIf(key -> key.userId() == user.getId());
+    }
+
+    // Paise spent per category in a month (indexed by ExpenseCategory ordinal)
+    public long[] spent(User user, YearMonth month) {
+        MonthState state = state(user, month).state();
+        synchronized (state) {
+            return state.spent.clone();
+        }
+    }
+
+    // ─── Internals ────────────────────────────────────────────────────────────
+
+    // Apply up to two per-category deltas to one month, then alert on anything newly crossed
+    private void apply(User user, YearMonth month, ExpenseCategory first, long firstDelta,
+                       ExpenseCategory second, long secondDelta) {
+        try {
+            Loaded loaded = state(user, month);
+            MonthState state = loaded.state();
+
+            List<Crossing> crossings = new ArrayList<>();
+            synchronized (state) {
+                if (!loaded.fresh()) {
+                    state.spent[first.ordinal()] += firstDelta;
+                    if (second != null) state.spent[second.ordinal()] += secondDelta;
+                }
+                collectCrossings(state, first.ordinal(), crossings);
+                if (second != null && second != first) collectCrossings(state, second.ordinal(), crossings);
+            }
+            crossings.forEach(crossing -> sendAlert(user, month, crossing));
+        } catch (Exception e) {
+            // Budget tracking must never fail the expense write itself
+            log.warn("Budget tracking failed for user {} — {}", user.getId(), e.getMessage());
+        }
+    }
+
+    private record Loaded(MonthState state, boolean fresh) {}
+
+    private Loaded state(User user, YearMonth month) {
+        Key key = new Key(user.getId(), month);
+        MonthState state = months.get(key);
+        if (state != null && System.nanoTime() - state.loadedAt < ttl.toNanos()) {
+            return new Loaded(state, false);
+        }
+
+        state = load(user, month);
+        if (months.size() >= maxEntries) evict();
+        months.put(key, state);
+        return new Loaded(state, true);
+    }
+
+    private MonthState load(User user, YearMonth month) {
+        MonthState state = new MonthState();
+        for (Object[] row : expenseRepository.categoryBreakdownByMonthYear(
+                user, month.getMonthValue(), month.getYear())) {
+            state.spent[((ExpenseCategory) row[0]).ordinal()] = Money.toPaise((BigDecimal) row[1]);
+        }
+        for (Budget budget : budgetRepository.findByUser(user)) {
+            state.budget[budget.getCategory().ordinal()] = Money.toPaise(budget.getAmount());
+            state.budgetIds[budget.getCategory().ordinal()] = budget.getId();
+        }
+        for (BudgetAlert alert : budgetAlertRepository.findByUserAndAlertYearAndAlertMonth(
+                user, month.getYear(), month.getMonthValue())) {
+            int index = Arrays.binarySearch(thresholds, alert.getThreshold());
+            if (index >= 0) state.alerted[alert.getCategory().ordinal()] |= 1 << index;
+        }
+        return state;
+    }
+
+    // Thresholds now reached that haven't alerted yet — marked as sent here, under the lock
+    private void collectCrossings(MonthState state, int c, List<Crossing> out) {
+        long budget = state.budget[c];
+        if (budget <= 0) return;
+        for (int i = 0; i < thresholds.length; i++) {
+            if ((state.alerted[c] & (1 << i)) != 0) continue;
+            if (state.spent[c] * 100 < budget * thresholds[i]) break;   // sorted — higher ones aren't reached either
+            state.alerted[c] |= 1 << i;
+            out.add(new Crossing(CATEGORIES[c], thresholds[i], state.spent[c], budget, state.budgetIds[c]));
+        }
+    }
+
+    // The budget_alerts row and the notification commit together; a duplicate row means
+    // this alert went out already (another instance, or before the month was reloaded)
+    private void sendAlert(User user, YearMonth month, Crossing crossing) {
+        String category = crossing.category().name().charAt(0)
+                + crossing.category().name().substring(1).toLowerCase(Locale.ROOT);
+        String period = month.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH) + " " + month.getYear();
+        String title = crossing.threshold() >= 100
+                ? category + " budget exceeded"
+                : category + " budget " + crossing.threshold() + "% used";
+        String message = "You've spent " + Money.format(crossing.spent()) + " of your "
+                + Money.format(crossing.budget()) + " " + category.toLowerCase(Locale.ROOT)
+                + " budget for " + period + ".";
+
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                budgetAlertRepository.saveAndFlush(BudgetAlert.builder()
+                        .user(user)
+                        .category(crossing.category())
+                        .alertYear(month.getYear())
+                        .alertMonth(month.getMonthValue())
+                        .threshold(crossing.threshold())
+                        .build());
+                notificationService.createAndPush(user, title, message,
+                        NotificationType.EXPENSE_ALERT, crossing.budgetId());
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Budget alert {} {}% {} already sent for user {}",
+                    crossing.category(), crossing.threshold(), month, user.getId());
+        }
+    }
+
+    // Expired months first; if that isn't enough, start over — every month reloads on demand
+    private void evict() {
+        long now = System.nanoTime();
+        months.values().removeIf(state -> now - state.loadedAt >= ttl.toNanos());
+        if (months.size() >= maxEntries) months.clear();
+    }
+}
@@ -0,0 +1,42 @@
+package com.symptocare.backend.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+// Bean validation for the items of a bulk request, one item at a time,
+// so a single bad row is reported instead of rejecting the whole request
+@Component
+@RequiredArgsConstructor
+public class BulkValidator {
+
+    private final Validator validator;
+
+    @Value("${bulk.max-items:10000}")
+    private int maxItems;
+
+    public void checkSize(Collection<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("No items to process");
+        }
+        if (items.size() > maxItems) {
+            throw new RuntimeException("Too many items — at most " + maxItems + " per request");
+        }
+    }
+
+    // Violations joined into one message, or null if the item is valid
+    public String violations(Object item) {
+        if (item == null) return "Item is empty";
+        var violations = validator.validate(item);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
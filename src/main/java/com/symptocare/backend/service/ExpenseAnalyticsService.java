@@ -0,0 +1,79 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.ExpenseRepository;
+import com.symptocare.backend.repository.UserRepository;
+import com.symptocare.backend.service.ExpenseAnalyzer.Granularity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Trends, rolling averages and category time series for a user's expenses.
+// Rows are streamed as scalars into ExpenseColumns (no entities), then ExpenseAnalyzer
+// computes everything in one pass over the primitive arrays.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseAnalyticsService {
+
+    private static final int MAX_RANGE_DAYS = 10 * 366;
+    private static final int MAX_TOP_MERCHANTS = 100;
+    private static final int MAX_ANOMALY_DAYS = 366;
+
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final SpendingInsights spendingInsights;
+
+    // Defaults: the last 12 months up to today, monthly series, top 10 merchants
+    @Transactional(readOnly = true)
+    public Map<String, Object> analyze(String email, LocalDate from, LocalDate to,
+                                       String granularity, int topMerchants) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1).minusMonths(11);
+        if (start.isAfter(end)) throw new RuntimeException("'from' must not be after 'to'");
+        if (ChronoUnit.DAYS.between(start, end) > MAX_RANGE_DAYS) {
+            throw new RuntimeException("Date range is limited to 10 years");
+        }
+
+        long began = System.nanoTime();
+        ExpenseColumns columns = new ExpenseColumns(1024);
+        try (Stream<Object[]> rows = expenseRepository.streamForAnalytics(
+                user, ExpenseAnalyzer.historyStart(start), end)) {
+            rows.forEach(row -> columns.add(
+                    (LocalDate) row[0], (BigDecimal) row[1], (ExpenseCategory) row[2], (String) row[3]));
+        }
+        long loaded = System.nanoTime();
+
+        Map<String, Object> result = ExpenseAnalyzer.analyze(columns, start, end, Granularity.of(granularity),
+                Math.min(Math.max(topMerchants, 0), MAX_TOP_MERCHANTS));
+
+        log.debug("Analytics for user {} → {} rows | load: {} ms | compute: {} ms", email, columns.size(),
+                (loaded - began) / 1_000_000, (System.nanoTime() - loaded) / 1_000_000);
+        return result;
+    }
+
+    // This month's end-of-month forecast per category, and unusual expenses of the last `days` days
+    public Map<String, Object> insights(String email, int days) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (days < 1 || days > MAX_ANOMALY_DAYS) throw new RuntimeException("days must be between 1 and 366");
+
+        LocalDate today = LocalDate.now();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("forecast", spendingInsights.forecast(user, today));
+        result.put("anomalies", spendingInsights.anomalies(user, today.minusDays(days - 1L)));
+        return result;
+    }
+}
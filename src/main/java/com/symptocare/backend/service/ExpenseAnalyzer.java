@@ -0,0 +1,245 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.util.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Expense analytics over ExpenseColumns in one pass:
+//  - a time series per category at the requested granularity (day / week / month)
+//  - monthly totals with rolling 3 / 6 / 12-month averages and month-over-month change
+//  - category change between the last two months, and top merchants
+// Every row is bucketed through day → bucket lookup tables and summed as paise into flat
+// long[] arrays; BigDecimal only appears when building the response.
+public final class ExpenseAnalyzer {
+
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        public static Granularity of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported granularity: " + value + " (use day, week or month)");
+            }
+        }
+    }
+
+    private static final ExpenseCategory[] CATEGORIES = ExpenseCategory.values();
+    private static final int C = CATEGORIES.length;
+    private static final int[] ROLLING_WINDOWS = {3, 6, 12};
+
+    private ExpenseAnalyzer() {}
+
+    // Rows needed for a range: 11 extra months so the first month has a full 12-month window
+    public static LocalDate historyStart(LocalDate from) {
+        return from.withDayOfMonth(1).minusMonths(ROLLING_WINDOWS[ROLLING_WINDOWS.length - 1] - 1);
+    }
+
+    public static Map<String, Object> analyze(ExpenseColumns columns, LocalDate from, LocalDate to,
+                                              Granularity granularity, int topMerchants) {
+        if (to.isBefore(from)) throw new RuntimeException("'from' must not be after 'to'");
+
+        LocalDate history = historyStart(from);
+        int historyDay = (int) history.toEpochDay();
+        int span = (int) ChronoUnit.DAYS.between(history, to) + 1;
+
+        // ─── Lookup tables: day offset → month index / series bucket ─────────
+        int[] monthOf = new int[span];
+        int[] bucketOf = new int[span];     // -1 for history days before 'from'
+        List<LocalDate> monthStarts = new ArrayList<>();
+        List<LocalDate> bucketStarts = new ArrayList<>();
+        int firstMonthInRange = -1;
+
+        LocalDate day = history;
+        for (int d = 0; d < span; d++, day = day.plusDays(1)) {
+            if (d == 0 || day.getDayOfMonth() == 1) monthStarts.add(day);
+            monthOf[d] = monthStarts.size() - 1;
+
+            if (day.isBefore(from)) {
+                bucketOf[d] = -1;
+                continue;
+            }
+            if (firstMonthInRange < 0) firstMonthInRange = monthOf[d];
+            LocalDate bucketStart = switch (granularity) {
+                case DAY -> day;
+                case WEEK -> day.minusDays(day.getDayOfWeek().getValue() - 1L);
+                case MONTH -> day.withDayOfMonth(1);
+            };
+            if (bucketStarts.isEmpty() || !bucketStarts.get(bucketStarts.size() - 1).equals(bucketStart)) {
+                bucketStarts.add(bucketStart);
+            }
+            bucketOf[d] = bucketStarts.size() - 1;
+        }
+
+        // ─── Single pass ─────────────────────────────────────────────────────
+        int n = columns.size();
+        int[] days = columns.days();
+        long[] paise = columns.paise();
+        byte[] categories = columns.categories();
+        int[] merchants = columns.merchants();
+
+        long[] series = new long[bucketStarts.size() * C];
+        long[] monthly = new long[monthStarts.size() * C];
+        long[] merchantTotals = new long[columns.merchantCount()];
+        int[] merchantCounts = new int[columns.merchantCount()];
+        long transactions = 0;
+
+        for (int i = 0; i < n; i++) {
+            int d = days[i] - historyDay;
+            if (d < 0 || d >= span) continue;
+            int c = categories[i];
+            long amount = paise[i];
+
+            monthly[monthOf[d] * C + c] += amount;
+            int b = bucketOf[d];
+            if (b < 0) continue;
+
+            series[b * C + c] += amount;
+            merchantTotals[merchants[i]] += amount;
+            merchantCounts[merchants[i]]++;
+            transactions++;
+        }
+
+        // ─── Response ────────────────────────────────────────────────────────
+        long[] categoryTotals = new long[C];
+        List<Map<String, Object>> seriesOut = new ArrayList<>(bucketStarts.size());
+        for (int b = 0; b < bucketStarts.size(); b++) {
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("period", bucketStarts.get(b).toString());
+            point.put("total", Money.toRupees(rowTotal(series, b)));
+            point.put("byCategory", byCategory(series, b));
+            seriesOut.add(point);
+            for (int c = 0; c < C; c++) categoryTotals[c] += series[b * C + c];
+        }
+
+        long total = 0;
+        Map<ExpenseCategory, BigDecimal> categoryTotalsOut = new EnumMap<>(ExpenseCategory.class);
+        for (int c = 0; c < C; c++) {
+            total += categoryTotals[c];
+            if (categoryTotals[c] != 0) categoryTotalsOut.put(CATEGORIES[c], Money.toRupees(categoryTotals[c]));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("from", from.toString());
+        result.put("to", to.toString());
+        result.put("granularity", granularity.name());
+        result.put("totalAmount", Money.toRupees(total));
+        result.put("transactions", transactions);
+        result.put("categoryTotals", categoryTotalsOut);
+        result.put("series", seriesOut);
+        result.put("months", months(monthly, monthStarts, firstMonthInRange));
+        result.put("categoryChange", categoryChange(monthly, monthStarts.size() - 1));
+        result.put("topMerchants", topMerchants(columns, merchantTotals, merchantCounts, topMerchants));
+        return result;
+    }
+
+    // Monthly totals in range, with trailing averages and change vs the month before
+    private static List<Map<String, Object>> months(long[] monthly, List<LocalDate> monthStarts, int firstInRange) {
+        int months = monthStarts.size();
+        long[] totals = new long[months];
+        int firstActive = -1;
+        for (int m = 0; m < months; m++) {
+            totals[m] = rowTotal(monthly, m);
+            if (firstActive < 0 && totals[m] != 0) firstActive = m;
+        }
+
+        // Prefix sums → any window total in O(1)
+        long[] prefix = new long[months + 1];
+        for (int m = 0; m < months; m++) prefix[m + 1] = prefix[m] + totals[m];
+
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (int m = firstInRange; m < months; m++) {
+            Map<String, Object> month = new LinkedHashMap<>();
+            month.put("month", monthStarts.get(m).toString().substring(0, 7));
+            month.put("total", Money.toRupees(totals[m]));
+
+            for (int window : ROLLING_WINDOWS) {
+                int start = m - window + 1;
+                // No average until the user has spending history covering the whole window
+                boolean covered = firstActive >= 0 && start >= firstActive;
+                month.put("rolling" + window, covered
+                        ? Money.toRupees(Math.round((prefix[m + 1] - prefix[start]) / (double) window))
+                        : null);
+            }
+
+            long previous = m > 0 ? totals[m - 1] : 0;
+            month.put("change", m > 0 ? Money.toRupees(totals[m] - previous) : null);
+            month.put("changePercent", percent(totals[m] - previous, previous));
+            out.add(month);
+        }
+        return out;
+    }
+
+    // Per category: last month in range vs the month before
+    private static Map<ExpenseCategory, Map<String, Object>> categoryChange(long[] monthly, int last) {
+        Map<ExpenseCategory, Map<String, Object>> out = new EnumMap<>(ExpenseCategory.class);
+        if (last < 1) return out;
+        for (int c = 0; c < C; c++) {
+            long current = monthly[last * C + c];
+            long previous = monthly[(last - 1) * C + c];
+            if (current == 0 && previous == 0) continue;
+
+            Map<String, Object> change = new LinkedHashMap<>();
+            change.put("current", Money.toRupees(current));
+            change.put("previous", Money.toRupees(previous));
+            change.put("change", Money.toRupees(current - previous));
+            change.put("changePercent", percent(current - previous, previous));
+            out.put(CATEGORIES[c], change);
+        }
+        return out;
+    }
+
+    // Top N merchants by amount — a bounded min-heap rather than sorting every merchant
+    private static List<Map<String, Object>> topMerchants(ExpenseColumns columns, long[] totals, int[] counts, int limit) {
+        if (limit <= 0) return List.of();
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, Comparator.comparingLong(id -> totals[id]));
+        for (int id = 0; id < totals.length; id++) {
+            if (counts[id] == 0) continue;
+            heap.add(id);
+            if (heap.size() > limit) heap.poll();
+        }
+
+        List<Integer> ids = new ArrayList<>(heap);
+        ids.sort(Comparator.comparingLong((Integer id) -> totals[id]).reversed());
+        List<Map<String, Object>> out = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            Map<String, Object> merchant = new LinkedHashMap<>();
+            merchant.put("merchant", columns.merchantName(id));
+            merchant.put("total", Money.toRupees(totals[id]));
+            merchant.put("transactions", counts[id]);
+            out.add(merchant);
+        }
+        return out;
+    }
+
+    private static long rowTotal(long[] matrix, int row) {
+        long sum = 0;
+        for (int c = 0; c < C; c++) sum += matrix[row * C + c];
+        return sum;
+    }
+
+    private static Map<ExpenseCategory, BigDecimal> byCategory(long[] matrix, int row) {
+        Map<ExpenseCategory, BigDecimal> out = new EnumMap<>(ExpenseCategory.class);
+        for (int c = 0; c < C; c++) {
+            if (matrix[row * C + c] != 0) out.put(CATEGORIES[c], Money.toRupees(matrix[row * C + c]));
+        }
+        return out;
+    }
+
+    // Change as a percentage to one decimal; null when there's nothing to compare against
+    private static Double percent(long change, long base) {
+        if (base == 0) return null;
+        return Math.round(change * 1000.0 / base) / 10.0;
+    }
+}
@@ -0,0 +1,82 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.model.Expense.PaymentMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Rule-based category / payment method guess from a bank statement narration,
+// e.g. "UPI/SWIGGY/4521..." → FOOD, UPI. Keywords follow the ExpenseCategory comments.
+// Whole words only, so "OLA" matches but "COCA COLA" doesn't.
+@Component
+public class ExpenseCategorizer {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^a-z0-9]+");
+
+    // Checked in order — the first category with a matching keyword wins
+    private static final Map<ExpenseCategory, Set<String>> CATEGORY_KEYWORDS = new LinkedHashMap<>();
+    static {
+        CATEGORY_KEYWORDS.put(ExpenseCategory.RENT, Set.of(
+                "rent", "nobroker", "nestaway", "landlord", "hostel"));
+        CATEGORY_KEYWORDS.put(ExpenseCategory.SAVINGS, Set.of(
+                "sip", "mutual", "mf", "zerodha", "groww", "upstox", "fd", "ppf", "nps", "rd", "investment"));
+        CATEGORY_KEYWORDS.put(ExpenseCategory.FOOD, Set.of(
+                "swiggy", "zomato", "restaurant", "cafe", "dominos", "pizza", "mcdonalds", "kfc",
+                "bigbasket", "blinkit", "zepto", "grofers", "dmart", "grocery", "groceries", "eatsure", "food"));
+        CATEGORY_KEYWORDS.put(ExpenseCategory.TRANSPORT, Set.of(
+                "ola", "uber", "rapido", "fuel", "petrol", "diesel", "hpcl", "bpcl", "iocl", "indianoil",
+                "irctc", "metro", "auto", "fastag", "redbus", "parking", "toll"));
+        CATEGORY_KEYWORDS.put(ExpenseCategory.ENTERTAINMENT, Set.of(
+                "netflix", "hotstar", "prime", "spotify", "bookmyshow", "pvr", "inox", "movie",
+                "sonyliv", "zee5", "jiocinema", "steam", "playstation", "gaming"));
+        CATEGORY_KEYWORDS.put(ExpenseCategory.SHOPPING, Set.of(
+                "amazon", "flipkart", "myntra", "ajio", "meesho", "nykaa", "tatacliq", "snapdeal",
+                "decathlon", "ikea", "croma", "reliance", "lifestyle", "shopping"));
+        CATEGORY_KEYWORDS.put(ExpenseCategory.HEALTH, Set.of(
+                "pharmacy", "apollo", "medplus", "1mg", "pharmeasy", "netmeds", "hospital", "clinic",
+                "doctor", "diagnostics", "lab", "gym", "cult", "cultfit", "medical", "medicine"));
+        CATEGORY_KEYWORDS.put(ExpenseCategory.UTILITIES, Set.of(
+                "electricity", "bescom", "tneb", "mseb", "bses", "airtel", "jio", "vodafone", "vi", "bsnl",
+                "broadband", "recharge", "dth", "tatasky", "water", "gas", "indane", "bharatgas", "bill"));
+        CATEGORY_KEYWORDS.put(ExpenseCategory.EDUCATION, Set.of(
+                "udemy", "coursera", "byjus", "unacademy", "school", "college", "university", "tuition",
+                "fees", "books", "exam"));
+    }
+
+    private static final Map<PaymentMethod, Set<String>> PAYMENT_KEYWORDS = new LinkedHashMap<>();
+    static {
+        PAYMENT_KEYWORDS.put(PaymentMethod.UPI, Set.of("upi", "gpay", "phonepe", "paytm", "bhim"));
+        PAYMENT_KEYWORDS.put(PaymentMethod.NET_BANKING, Set.of("neft", "imps", "rtgs", "netbanking", "ib", "nach", "ecs"));
+        PAYMENT_KEYWORDS.put(PaymentMethod.CREDIT_CARD, Set.of("cc", "credit"));
+        PAYMENT_KEYWORDS.put(PaymentMethod.DEBIT_CARD, Set.of("pos", "debit", "card", "ecom"));
+        PAYMENT_KEYWORDS.put(PaymentMethod.CASH, Set.of("atm", "cash", "atw", "nfs"));
+    }
+
+    public ExpenseCategory categorize(String narration) {
+        return firstMatch(CATEGORY_KEYWORDS, words(narration), ExpenseCategory.OTHER);
+    }
+
+    public PaymentMethod paymentMethod(String narration) {
+        return firstMatch(PAYMENT_KEYWORDS, words(narration), PaymentMethod.OTHER);
+    }
+
+    private <T> T firstMatch(Map<T, Set<String>> rules, List<String> words, T fallback) {
+        for (Map.Entry<T, Set<String>> rule : rules.entrySet()) {
+            for (String word : words) {
+                if (rule.getValue().contains(word)) return rule.getKey();
+            }
+        }
+        return fallback;
+    }
+
+    private List<String> words(String text) {
+        if (text == null) return List.of();
+        return List.of(NON_WORD.split(text.toLowerCase(Locale.ROOT)));
+    }
+}
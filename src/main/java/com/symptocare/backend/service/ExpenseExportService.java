@@ -0,0 +1,280 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.dto.ExpenseFilterRequest;
+import com.symptocare.backend.model.Expense;
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.ExpenseRepository;
+import com.symptocare.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+// Expense export (CSV / NDJSON / XLSX) written straight to the response.
+// Rows come from a read-only cursor and each entity is detached once written, so
+// memory stays flat however many expenses the user has. XLSX uses SXSSF, which keeps
+// a small window of rows in memory and flushes the rest to a temp file.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseExportService {
+
+    private static final String[] HEADER = {
+            "id", "date", "title", "description", "category", "paymentMethod", "amount", "recurring", "createdAt"};
+    private static final int XLSX_WINDOW = 100;            // rows kept in memory by SXSSF
+    private static final int XLSX_MAX_ROWS = 1_048_576;    // Excel's per-sheet limit
+
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        public final String contentType;
+        public final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static ExportFormat of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported export format: " + value + " (use csv, ndjson or xlsx)");
+            }
+        }
+    }
+
+    // One output format — rows arrive in order, one at a time
+    private interface RowWriter {
+        void write(Expense expense) throws IOException;
+        void finish() throws IOException;
+        default void discard() {}
+    }
+
+    // Write the user's expenses matching the filter; returns the number of rows written
+    @Transactional(readOnly = true)
+    public long export(String email, ExpenseFilterRequest filter, ExportFormat format, OutputStream out)
+            throws IOException {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        long rows = 0;
+        try (Stream<Expense> expenses = expenseRepository.streamWithFilters(
+                user,
+                filter.getMonth(),
+                filter.getYear(),
+                filter.getCategory(),
+                filter.getPaymentMethod(),
+                filter.getMinAmount(),
+                filter.getMaxAmount(),
+                filter.getIsRecurring(),
+                filter.getSearch())) {
+
+            RowWriter writer = switch (format) {
+                case CSV -> csvWriter(out);
+                case NDJSON -> ndjsonWriter(out);
+                case XLSX -> xlsxWriter(out);
+            };
+            try {
+                for (Expense expense : (Iterable<Expense>) expenses::iterator) {
+                    writer.write(expense);
+                    // Drop it from the persistence context — otherwise every row stays referenced
+                    entityManager.detach(expense);
+                    rows++;
+                }
+                writer.finish();
+            } catch (IOException | RuntimeException e) {
+                // A truncated download is better than one that looks complete
+                writer.discard();
+                throw e;
+            }
+        }
+
+        log.info("Exported {} expenses as {} for user: {}", rows, format, email);
+        return rows;
+    }
+
+    // ─── CSV ──────────────────────────────────────────────────────────────────
+
+    private RowWriter csvWriter(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(String.join(",", HEADER));
+        writer.write("\r\n");
+
+        return new RowWriter() {
+            @Override
+            public void write(Expense e) throws IOException {
+                writer.write(String.valueOf(e.getId()));
+                writer.write(',');
+                writer.write(String.valueOf(e.getExpenseDate()));
+                writer.write(',');
+                writer.write(csv(e.getTitle()));
+                writer.write(',');
+                writer.write(csv(e.getDescription()));
+                writer.write(',');
+                writer.write(e.getCategory().name());
+                writer.write(',');
+                writer.write(e.getPaymentMethod().name());
+                writer.write(',');
+                writer.write(e.getAmount().toPlainString());
+                writer.write(',');
+                writer.write(String.valueOf(e.isRecurring()));
+                writer.write(',');
+                writer.write(String.valueOf(e.getCreatedAt()));
+                writer.write("\r\n");
+            }
+
+            @Override
+            public void finish() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    // Quote when needed; a leading =, +, - or @ is prefixed with ' so spreadsheets don't run it as a formula
+    private String csv(String value) {
+        if (value == null || value.isEmpty()) return "";
+        if ("=+-@".indexOf(value.charAt(0)) >= 0) value = "'" + value;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    // ─── NDJSON ───────────────────────────────────────────────────────────────
+
+    private RowWriter ndjsonWriter(OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+
+        return new RowWriter() {
+            @Override
+            public void write(Expense e) throws IOException {
+                writer.write("{\"id\":" + e.getId());
+                writer.write(",\"date\":\"" + e.getExpenseDate() + "\"");
+                writer.write(",\"title\":" + json(e.getTitle()));
+                writer.write(",\"description\":" + json(e.getDescription()));
+                writer.write(",\"category\":\"" + e.getCategory() + "\"");
+                writer.write(",\"paymentMethod\":\"" + e.getPaymentMethod() + "\"");
+                writer.write(",\"amount\":" + e.getAmount().toPlainString());
+                writer.write(",\"recurring\":" + e.isRecurring());
+                writer.write(",\"createdAt\":\"" + e.getCreatedAt() + "\"}\n");
+            }
+
+            @Override
+            public void finish() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    private String json(String value) {
+        if (value == null) return "null";
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    // ─── XLSX ─────────────────────────────────────────────────────────────────
+
+    private RowWriter xlsxWriter(OutputStream out) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_WINDOW);
+        workbook.setCompressTempFiles(true);
+
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+        CellStyle timestampStyle = workbook.createCellStyle();
+        timestampStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+        CellStyle amountStyle = workbook.createCellStyle();
+        amountStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("#,##0.00"));
+
+        return new RowWriter() {
+            SXSSFSheet sheet;
+            int rowIndex;
+
+            @Override
+            public void write(Expense e) {
+                if (sheet == null || rowIndex == XLSX_MAX_ROWS) newSheet();
+                Row row = sheet.createRow(rowIndex++);
+
+                row.createCell(0).setCellValue(e.getId());
+                Cell date = row.createCell(1);
+                date.setCellValue(e.getExpenseDate());
+                date.setCellStyle(dateStyle);
+                row.createCell(2).setCellValue(e.getTitle());
+                if (e.getDescription() != null) row.createCell(3).setCellValue(e.getDescription());
+                row.createCell(4).setCellValue(e.getCategory().name());
+                row.createCell(5).setCellValue(e.getPaymentMethod().name());
+                Cell amount = row.createCell(6);
+                amount.setCellValue(e.getAmount().doubleValue());
+                amount.setCellStyle(amountStyle);
+                row.createCell(7).setCellValue(e.isRecurring());
+                Cell createdAt = row.createCell(8);
+                createdAt.setCellValue(e.getCreatedAt());
+                createdAt.setCellStyle(timestampStyle);
+            }
+
+            private void newSheet() {
+                sheet = workbook.createSheet(sheet == null ? "Expenses" : "Expenses " + (workbook.getNumberOfSheets() + 1));
+                rowIndex = 0;
+                Row header = sheet.createRow(rowIndex++);
+                for (int i = 0; i < HEADER.length; i++) header.createCell(i).setCellValue(HEADER[i]);
+                sheet.createFreezePane(0, 1);
+            }
+
+            @Override
+            public void finish() throws IOException {
+                try {
+                    if (sheet == null) newSheet();   // header-only file rather than an empty workbook
+                    workbook.write(out);
+                } finally {
+                    discard();
+                }
+            }
+
+            // Removes the temp files backing flushed rows
+            @Override
+            public void discard() {
+                workbook.dispose();
+                try {
+                    workbook.close();
+                } catch (IOException e) {
+                    log.debug("Failed to close export workbook — {}", e.getMessage());
+                }
+            }
+        };
+    }
+}
@@ -4,20 +4,30 @@ import com.symptocare.backend.dto.ExpenseFilterRequest;
 import com.symptocare.backend.dto.ExpenseRequest;
 import com.symptocare.backend.dto.ExpenseResponse;
 import com.symptocare.backend.dto.ExpenseSummaryResponse;
+import com.symptocare.backend.dto.ExpenseUpdateRequest;
+import com.symptocare.backend.dto.BulkResult;
 import com.symptocare.backend.model.Expense;
 import com.symptocare.backend.model.Expense.ExpenseCategory;
 import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.BulkInsertRepository;
 import com.symptocare.backend.repository.ExpenseRepository;
 import com.symptocare.backend.repository.UserRepository;
+import com.symptocare.backend.service.ResourceVersions.Domain;
+import com.symptocare.backend.util.Money;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +36,12 @@ public class ExpenseService {
 
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
+    private final BulkInsertRepository bulkInsertRepository;
+    private final BulkValidator bulkValidator;
+    private final BudgetTracker budgetTracker;
+    private final SpendingInsights spendingInsights;
+    private final ResourceVersions resourceVersions;
+    private final RecurringExpenseService recurringExpenseService;
 
     private User getUser(String email) {
         return userRepository.findByEmail(email)
@@ -47,7 +63,11 @@ public class ExpenseService {
                 .isRecurring(request.isRecurring())
                 .build();
 
-        return ExpenseResponse.from(expenseRepository.save(expense));
+        Expense saved = expenseRepository.save(expense);
+        budgetTracker.created(user, saved);
+        spendingInsights.created(user, saved);
+        resourceVersions.bump(email, Domain.EXPENSES);
+        return ExpenseResponse.from(saved);
     }
 
     // Get all expenses
@@ -104,21 +124,18 @@ public class ExpenseService {
             ExpenseCategory cat = (ExpenseCategory) row[0];
             BigDecimal catTotal = (BigDecimal) row[1];
             breakdown.put(cat, catTotal);
-            breakdownFormatted.put(cat, "₹" + String.format("%,.2f", catTotal));
+            breakdownFormatted.put(cat, Money.format(catTotal));
         }
 
-        // Get highest expense this month
-        List<Expense> monthExpenses = expenseRepository
-                .findByUserAndExpenseMonthAndExpenseYearOrderByExpenseDateDesc(user, month, year);
-
-        ExpenseResponse highest = monthExpenses.stream()
-                .max((a, b) -> a.getAmount().compareTo(b.getAmount()))
+        // Highest expense this month — picked by the database, not by loading the month
+        ExpenseResponse highest = expenseRepository
+                .findFirstByUserAndExpenseMonthAndExpenseYearOrderByAmountDesc(user, month, year)
                 .map(ExpenseResponse::from)
                 .orElse(null);
 
         ExpenseSummaryResponse summary = new ExpenseSummaryResponse();
         summary.setTotalAmount(total);
-        summary.setTotalFormatted("₹" + String.format("%,.2f", total));
+        summary.setTotalFormatted(Money.format(total));
         summary.setTotalTransactions(count);
         summary.setCategoryBreakdown(breakdown);
         summary.setCategoryBreakdownFormatted(breakdownFormatted);
@@ -135,19 +152,16 @@ public class ExpenseService {
 
         BigDecimal total = expenseRepository.sumByUserAndYear(user, year);
 
-        List<Expense> yearExpenses = expenseRepository
-                .findByUserAndExpenseYearOrderByExpenseDateDesc(user, year);
-
-        long count = yearExpenses.size();
+        long count = expenseRepository.countByUserAndExpenseYear(user, year);
 
-        ExpenseResponse highest = yearExpenses.stream()
-                .max((a, b) -> a.getAmount().compareTo(b.getAmount()))
+        ExpenseResponse highest = expenseRepository
+                .findFirstByUserAndExpenseYearOrderByAmountDesc(user, year)
                 .map(ExpenseResponse::from)
                 .orElse(null);
 
         ExpenseSummaryResponse summary = new ExpenseSummaryResponse();
         summary.setTotalAmount(total);
-        summary.setTotalFormatted("₹" + String.format("%,.2f", total));
+        summary.setTotalFormatted(Money.format(total));
         summary.setTotalTransactions(count);
         summary.setHighestExpense(highest);
         summary.setYear(year);
@@ -167,6 +181,10 @@ public class ExpenseService {
         Expense expense = expenseRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
 
+        ExpenseCategory oldCategory = expense.getCategory();
+        YearMonth oldMonth = YearMonth.from(expense.getExpenseDate());
+        BigDecimal oldAmount = expense.getAmount();
+
         expense.setAmount(request.getAmount());
         expense.setTitle(request.getTitle());
         expense.setDescription(request.getDescription());
@@ -179,7 +197,11 @@ public class ExpenseService {
         expense.setExpenseMonth(request.getExpenseDate().getMonthValue());
         expense.setExpenseYear(request.getExpenseDate().getYear());
 
-        return ExpenseResponse.from(expenseRepository.save(expense));
+        Expense saved = expenseRepository.save(expense);
+        budgetTracker.updated(user, oldCategory, oldMonth, oldAmount, saved);
+        spendingInsights.invalidate(user);
+        resourceVersions.bump(email, Domain.EXPENSES);
+        return ExpenseResponse.from(saved);
     }
 
     // Delete expense
@@ -188,6 +210,128 @@ public class ExpenseService {
         Expense expense = expenseRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
         expenseRepository.delete(expense);
+        budgetTracker.deleted(user, expense);
+        spendingInsights.invalidate(user);
+        resourceVersions.bump(email, Domain.EXPENSES);
+    }
+
+    // ─── Bulk operations ──────────────────────────────────────────────────────
+    // Each item is validated on its own; valid items are written in one transaction
+    // with JDBC batching, invalid ones are reported in the result.
+
+    // Create many expenses (e.g. a bank statement import)
+    @Transactional
+    public BulkResult bulkCreate(String email, List<ExpenseRequest> requests) {
+        bulkValidator.checkSize(requests);
+        User user = getUser(email);
+        BulkResult result = new BulkResult(requests.size());
+
+        List<Expense> expenses = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String error = bulkValidator.violations(requests.get(i));
+            if (error != null) {
+                result.error(i, null, error);
+                continue;
+            }
+            ExpenseRequest request = requests.get(i);
+            expenses.add(Expense.builder()
+                    .user(user)
+                    .amount(request.getAmount())
+                    .title(request.getTitle())
+                    .description(request.getDescription())
+                    .category(request.getCategory())
+                    .paymentMethod(request.getPaymentMethod())
+                    .expenseDate(request.getExpenseDate())
+                    .isRecurring(request.isRecurring())
+                    .build());
+            indexes.add(i);
+        }
+
+        bulkInsertRepository.insertExpenses(expenses);
+        for (int i = 0; i < expenses.size(); i++) {
+            result.ok(indexes.get(i), expenses.get(i).getId());
+        }
+        budgetTracker.recheck(user, months(expenses));
+        spendingInsights.invalidate(user);
+        resourceVersions.bump(email, Domain.EXPENSES);
+        return result;
+    }
+
+    // Update many expenses — the ownership check is one query for all ids
+    @Transactional
+    public BulkResult bulkUpdate(String email, List<ExpenseUpdateRequest> requests) {
+        bulkValidator.checkSize(requests);
+        User user = getUser(email);
+        BulkResult result = new BulkResult(requests.size());
+
+        List<Long> ids = requests.stream().filter(r -> r != null && r.getId() != null)
+                .map(ExpenseUpdateRequest::getId).toList();
+        Map<Long, Expense> owned = expenseRepository.findByUserAndIdIn(user, ids).stream()
+                .collect(Collectors.toMap(Expense::getId, Function.identity()));
+
+        List<Expense> changed = new ArrayList<>();
+        List<YearMonth> touched = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ExpenseUpdateRequest request = requests.get(i);
+            String error = bulkValidator.violations(request);
+            if (error != null) {
+                result.error(i, request != null ? request.getId() : null, error);
+                continue;
+            }
+            Expense expense = owned.get(request.getId());
+            if (expense == null) {
+                result.error(i, request.getId(), "Expense not found");
+                continue;
+            }
+
+            touched.add(YearMonth.from(expense.getExpenseDate()));
+            expense.setAmount(request.getAmount());
+            expense.setTitle(request.getTitle());
+            expense.setDescription(request.getDescription());
+            expense.setCategory(request.getCategory());
+            expense.setPaymentMethod(request.getPaymentMethod());
+            expense.setExpenseDate(request.getExpenseDate());
+            expense.setRecurring(request.isRecurring());
+            expense.setExpenseMonth(request.getExpenseDate().getMonthValue());
+            expense.setExpenseYear(request.getExpenseDate().getYear());
+            changed.add(expense);
+            result.ok(i, expense.getId());
+        }
+
+        // Flushed as batched UPDATEs (hibernate.jdbc.batch_size)
+        expenseRepository.saveAll(changed);
+        touched.addAll(months(changed));
+        budgetTracker.recheck(user, touched);
+        spendingInsights.invalidate(user);
+        resourceVersions.bump(email, Domain.EXPENSES);
+        return result;
+    }
+
+    // Delete many expenses with a single DELETE ... WHERE id IN (...)
+    @Transactional
+    public BulkResult bulkDelete(String email, List<Long> ids) {
+        bulkValidator.checkSize(ids);
+        User user = getUser(email);
+        BulkResult result = new BulkResult(ids.size());
+
+        Map<Long, Expense> owned = expenseRepository.findByUserAndIdIn(user, ids).stream()
+                .collect(Collectors.toMap(Expense::getId, Function.identity()));
+
+        for (int i = 0; i < ids.size(); i++) {
+            if (owned.containsKey(ids.get(i))) result.ok(i, ids.get(i));
+            else result.error(i, ids.get(i), "Expense not found");
+        }
+
+        expenseRepository.deleteAllByIdInBatch(owned.keySet());
+        budgetTracker.recheck(user, months(owned.values()));
+        spendingInsights.invalidate(user);
+        resourceVersions.bump(email, Domain.EXPENSES);
+        return result;
+    }
+
+    private List<YearMonth> months(Collection<Expense> expenses) {
+        return expenses.stream().map(e -> YearMonth.from(e.getExpenseDate())).distinct().toList();
     }
 
     // Quick stats for current month
@@ -204,8 +348,16 @@ public class ExpenseService {
         stats.put("month", month);
         stats.put("year", year);
         stats.put("total", total);
-        stats.put("totalFormatted", "₹" + String.format("%,.2f", total));
+        stats.put("totalFormatted", Money.format(total));
         stats.put("totalTransactions", count);
+
+        // Recurring expenses still to come this month, and the month total including them
+        long upcoming = recurringExpenseService.upcomingThisMonth(user, now);
+        long projected = Money.toPaise(total) + upcoming;
+        stats.put("upcomingRecurring", Money.toRupees(upcoming));
+        stats.put("upcomingRecurringFormatted", Money.format(upcoming));
+        stats.put("projectedTotal", Money.toRupees(projected));
+        stats.put("projectedTotalFormatted", Money.format(projected));
         return stats;
     }
 }
\ No newline at end of file
@@ -1,32 +1,41 @@
 package com.symptocare.backend.service;
 
+import com.symptocare.backend.dto.BulkResult;
 import com.symptocare.backend.model.FileEntry;
 import com.symptocare.backend.model.FileEntry.FileCategory;
+import com.symptocare.backend.model.StorageUsage;
 import com.symptocare.backend.model.User;
 import com.symptocare.backend.repository.FileRepository;
 import com.symptocare.backend.repository.UserRepository;
+import com.symptocare.backend.storage.LocalFile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
-import java.io.File;
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.pdfbox.Loader;  // 🆕 add this
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
 
 @Service
 @RequiredArgsConstructor
@@ -35,71 +44,158 @@ public class FileService {
 
     private final FileRepository fileRepository;
     private final UserRepository userRepository;
+    private final PdfChatSessionStore chatSessionStore;
+    private final PdfAnswerCache pdfAnswerCache;
+    private final BlobService blobService;
+    private final ThumbnailService thumbnailService;
+    private final StorageUsageService storageUsageService;
+    private final BulkValidator bulkValidator;
+
+    private static final int UPLOAD_BUFFER_SIZE = 64 * 1024;
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
 
     @Value("${file.upload-dir}")
     private String uploadDir;
 
+    @Value("${file.max-upload-size:50MB}")
+    private DataSize maxUploadSize;
+
+    // Total storage allowed per user
+    @Value("${file.user-quota:1GB}")
+    private DataSize userQuota;
+
     private User getUser(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    // Upload file
+    // Upload file (multipart — already buffered by the servlet container)
     public FileEntry upload(String email, MultipartFile file, String description) throws IOException {
         User user = getUser(email);
+        checkQuota(user, file.getSize());
+        try (InputStream in = file.getInputStream()) {
+            return store(user, in, file.getOriginalFilename(), file.getContentType(), description);
+        }
+    }
+
+    // Upload file from a raw request body, written once straight to its final location
+    public FileEntry uploadStream(String email, InputStream body, long contentLength,
+                                  String originalFileName, String mimeType,
+                                  String description) throws IOException {
+        User user = getUser(email);
 
-        // Create user-specific upload directory
-        Path userUploadPath = Paths.get(uploadDir, String.valueOf(user.getId()));
-        Files.createDirectories(userUploadPath);
+        // Reject early when the client announces a size we would refuse anyway
+        if (contentLength > maxUploadSize.toBytes()) {
+            throw new RuntimeException("File exceeds maximum size of " + formatSize(maxUploadSize.toBytes()));
+        }
+        if (contentLength > 0) checkQuota(user, contentLength);
 
-        // Generate unique stored file name
-        String originalFileName = file.getOriginalFilename();
-        String extension = getExtension(originalFileName);
-        String storedFileName = UUID.randomUUID().toString() + "." + extension;
-        Path targetPath = userUploadPath.resolve(storedFileName);
+        return store(user, body, originalFileName, mimeType, description);
+    }
 
-        // Save file to disk
-        Files.copy(file.getInputStream(), targetPath, StandardCopyOption.REPLACE_EXISTING);
+    // Cheap up-front check against the usage counters, before any bytes are read
+    private void checkQuota(User user, long incomingBytes) {
+        if (storageUsageService.totalBytes(user) + incomingBytes > userQuota.toBytes()) {
+            throw new RuntimeException("Storage quota exceeded");
+        }
+    }
+
+    // Stream to a temp file through a bounded buffer, hashing and counting on the fly,
+    // enforcing size and quota mid-stream, then hand it to the content-addressed blob store
+    private FileEntry store(User user, InputStream in, String originalFileName,
+                            String mimeType, String description) throws IOException {
+
+        // Generate unique stored file name — only the UUID and a vetted extension, since the
+        // original name comes straight from the client (a query parameter on raw uploads)
+        String id = UUID.randomUUID().toString();
+        String storedFileName = id + "." + getExtension(originalFileName);
+        Path partPath = blobService.tempDir().resolve(id + ".part");
+
+        long remainingQuota = userQuota.toBytes() - storageUsageService.totalBytes(user);
+        long limit = Math.min(maxUploadSize.toBytes(), remainingQuota);
+
+        MessageDigest digest = sha256();
+        long size = 0;
+        byte[] buffer = new byte[UPLOAD_BUFFER_SIZE];
+
+        try (OutputStream out = Files.newOutputStream(partPath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                size += read;
+                if (size > limit) {
+                    throw new RuntimeException(size > maxUploadSize.toBytes()
+                            ? "File exceeds maximum size of " + formatSize(maxUploadSize.toBytes())
+                            : "Storage quota exceeded");
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partPath);
+            throw e;
+        }
+
+        // Identical content already stored (by anyone) is kept only once
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        if (mimeType == null || mimeType.isBlank()) mimeType = "application/octet-stream";
+        boolean newBlob = blobService.adopt(partPath, contentHash, size, mimeType);
 
         // Determine category from MIME type
-        String mimeType = file.getContentType();
         FileCategory category = detectCategory(mimeType);
 
-        // Format file size
-        String sizeFormatted = formatSize(file.getSize());
-
         // Build and save FileEntry
         FileEntry entry = FileEntry.builder()
                 .user(user)
-                .originalFileName(originalFileName)
+                .originalFileName(originalFileName != null ? originalFileName : storedFileName)
                 .storedFileName(storedFileName)
-                .filePath(targetPath.toString())
+                .filePath(blobService.storedKeyFor(contentHash))
                 .fileType(mimeType)
-                .fileSize(file.getSize())
-                .fileSizeFormatted(sizeFormatted)
+                .fileSize(size)
+                .contentHash(contentHash)
+                .fileSizeFormatted(formatSize(size))
                 .category(category)
                 .description(description)
                 .build();
 
-        FileEntry saved = fileRepository.save(entry);
-        log.info("File uploaded: {} for user: {}", storedFileName, email);
+        // The row and the user's storage counters are written in one transaction
+        FileEntry saved;
+        try {
+            saved = storageUsageService.saveFile(entry);
+        } catch (RuntimeException e) {
+            // Don't keep a blob reference without a row
+            blobService.release(contentHash);
+            throw e;
+        }
+        log.info("File uploaded: {} ({}, {}) for user: {}", storedFileName, formatSize(size),
+                newBlob ? "new blob" : "deduplicated", user.getEmail());
+
+        // Previews are rendered in the background
+        thumbnailService.submit(saved);
         return saved;
     }
 
-    // Download file as Resource
-    public Resource download(String email, Long fileId) throws MalformedURLException {
+    // Resolve a file for download — checks it is on disk and has a content hash for ETags
+    public FileEntry download(String email, Long fileId) throws IOException {
         User user = getUser(email);
         FileEntry entry = fileRepository.findByIdAndUser(fileId, user)
                 .orElseThrow(() -> new RuntimeException("File not found"));
 
-        Path filePath = Paths.get(entry.getFilePath());
-        Resource resource = new UrlResource(filePath.toUri());
+        if (!blobService.exists(entry)) {
+            throw new RuntimeException("File not found in storage");
+        }
 
-        if (!resource.exists()) {
-            throw new RuntimeException("File not found on disk");
+        // Files uploaded before hashes were recorded get one on first download
+        if (entry.getContentHash() == null) {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(blobService.open(entry), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            entry.setContentHash(HexFormat.of().formatHex(digest.digest()));
+            fileRepository.save(entry);
         }
 
-        return resource;
+        return entry;
     }
 
     // Get all files for user
@@ -132,15 +228,72 @@ public class FileService {
         FileEntry entry = fileRepository.findByIdAndUser(fileId, user)
                 .orElseThrow(() -> new RuntimeException("File not found"));
 
-        // Delete from disk
-        Path filePath = Paths.get(entry.getFilePath());
-        Files.deleteIfExists(filePath);
-
-        // Delete from DB
-        fileRepository.delete(entry);
+        remove(entry);
         log.info("File deleted: {} for user: {}", entry.getStoredFileName(), email);
     }
 
+    // Upload several files in one request — each file succeeds or fails on its own
+    public BulkResult bulkUpload(String email, List<MultipartFile> files, String description) {
+        bulkValidator.checkSize(files);
+        User user = getUser(email);
+        BulkResult result = new BulkResult(files.size());
+
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            try (InputStream in = file.getInputStream()) {
+                checkQuota(user, file.getSize());
+                FileEntry saved = store(user, in, file.getOriginalFilename(), file.getContentType(), description);
+                result.ok(i, saved.getId());
+            } catch (IOException | RuntimeException e) {
+                result.error(i, null, e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    // Delete several files — ownership is checked with one query for all ids
+    public BulkResult bulkDelete(String email, List<Long> ids) {
+        bulkValidator.checkSize(ids);
+        User user = getUser(email);
+        BulkResult result = new BulkResult(ids.size());
+
+        Map<Long, FileEntry> owned = fileRepository.findByUserAndIdIn(user, ids).stream()
+                .collect(Collectors.toMap(FileEntry::getId, entry -> entry));
+
+        for (int i = 0; i < ids.size(); i++) {
+            FileEntry entry = owned.remove(ids.get(i));
+            if (entry == null) {
+                result.error(i, ids.get(i), "File not found");
+                continue;
+            }
+            try {
+                remove(entry);
+                result.ok(i, entry.getId());
+            } catch (IOException | RuntimeException e) {
+                result.error(i, entry.getId(), e.getMessage());
+            }
+        }
+        log.info("Bulk delete: {} of {} files deleted for user: {}", result.getSucceeded(), ids.size(), email);
+        return result;
+    }
+
+    // Drop a row whose content is gone from storage (found by the storage sweeper)
+    public void removeMissing(FileEntry entry) throws IOException {
+        remove(entry);
+        log.warn("Removed file {} ({}) — content missing from storage", entry.getId(), entry.getStoredFileName());
+    }
+
+    // Row first, then content: a failure in between leaves an unreferenced blob
+    // for the sweeper rather than a row pointing at nothing
+    private void remove(FileEntry entry) throws IOException {
+        storageUsageService.deleteFile(entry);
+        chatSessionStore.invalidateFile(entry.getId());
+        pdfAnswerCache.invalidateFile(entry.getId());
+
+        // Shared blobs only go away with their last reference
+        blobService.deleteContent(entry);
+    }
+
     // Extract text from PDF and cache it
    // Extract text from PDF and cache it
 public String extractPdfText(String email, Long fileId) throws IOException {
@@ -158,9 +311,24 @@ public String extractPdfText(String email, Long fileId) throws IOException {
         return entry.getExtractedText();
     }
 
-    // Extract text using PDFBox 3.x API
-    File pdfFile = Paths.get(entry.getFilePath()).toFile();
-    try (PDDocument document = Loader.loadPDF(pdfFile)) {  // ✅ fixed
+    // Reuse text already extracted for identical content (same blob)
+    if (entry.getContentHash() != null) {
+        Optional<FileEntry> twin = fileRepository
+                .findFirstByContentHashAndExtractedTextIsNotNull(entry.getContentHash());
+        if (twin.isPresent()) {
+            entry.setExtractedText(twin.get().getExtractedText());
+            entry.setUsedForChat(true);
+            fileRepository.save(entry);
+            log.info("Reused PDF text of identical file {} for file: {}", twin.get().getId(), fileId);
+            return entry.getExtractedText();
+        }
+    }
+
+    // Extract text using PDFBox 3.x API — from the local file, or streamed from remote storage
+    try (LocalFile localFile = blobService.localFile(entry).orElse(null);
+         PDDocument document = localFile != null
+            ? Loader.loadPDF(localFile.path().toFile())
+            : Loader.loadPDF(new RandomAccessReadBuffer(blobService.open(entry)))) {
         PDFTextStripper stripper = new PDFTextStripper();
         String extractedText = stripper.getText(document);
 
@@ -177,16 +345,41 @@ public String extractPdfText(String email, Long fileId) throws IOException {
     // Storage stats
     public Map<String, Object> getStorageStats(String email) {
         User user = getUser(email);
-        Long totalBytes = fileRepository.totalStorageUsed(user);
-        long totalFiles = fileRepository.countByUser(user);
+        Map<FileCategory, StorageUsage> usage = storageUsageService.getUsage(user);
+        long totalBytes = usage.values().stream().mapToLong(StorageUsage::getTotalBytes).sum();
+        long totalFiles = usage.values().stream().mapToLong(StorageUsage::getFileCount).sum();
+
+        Map<String, Object> byCategory = new HashMap<>();
+        usage.forEach((category, row) -> byCategory.put(category.name(), Map.of(
+                "files", row.getFileCount(),
+                "bytes", row.getTotalBytes(),
+                "formatted", formatSize(row.getTotalBytes()))));
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalFiles", totalFiles);
         stats.put("totalBytes", totalBytes);
         stats.put("totalFormatted", formatSize(totalBytes));
+        stats.put("quotaBytes", userQuota.toBytes());
+        stats.put("remainingBytes", Math.max(0, userQuota.toBytes() - totalBytes));
+        stats.put("byCategory", byCategory);
         return stats;
     }
 
+    // Thumbnail for an image / PDF, or empty if not (yet) available
+    public Optional<InputStream> openThumbnail(FileEntry entry) throws IOException {
+        return thumbnailService.open(entry);
+    }
+
+    // Local file for zero-copy downloads, if the content is available on this node (close when done)
+    public Optional<LocalFile> localFile(FileEntry entry) throws IOException {
+        return blobService.localFile(entry);
+    }
+
+    // Stream bytes start..end (inclusive) of a file's content
+    public InputStream openContent(FileEntry entry, long start, long end) throws IOException {
+        return blobService.open(entry, start, end);
+    }
+
     // Get file entry (for internal use by PdfChatService)
     public FileEntry getFileEntry(String email, Long fileId) {
         User user = getUser(email);
@@ -196,9 +389,19 @@ public String extractPdfText(String email, Long fileId) throws IOException {
 
     // --- Helpers ---
 
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Anything but a short alphanumeric extension (e.g. "x./../../etc/foo") counts as none
     private String getExtension(String fileName) {
         if (fileName == null || !fileName.contains(".")) return "bin";
-        return fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase();
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? extension : "bin";
     }
 
     private FileCategory detectCategory(String mimeType) {
@@ -0,0 +1,255 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.repository.NotificationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Retention for the notifications table, which on PostgreSQL is range-partitioned by month
+// on created_at (notifications_pYYYY_MM, plus a default partition as a safety net):
+//  - on startup, a plain table (as created by Hibernate) is converted once, rows included
+//  - partitions are created notification.partitions.months-ahead months in advance, nightly;
+//    rows that already landed in the default partition are moved into their month's partition
+//  - partitions entirely older than notification.retention.months are detached and dropped,
+//    read or unread — no row-by-row DELETE, no bloat
+//  - read notifications older than notification.purge.read-after go in one DELETE for all users
+// Partition DDL runs under an advisory lock, so concurrent instances don't race each other.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationRetention implements ApplicationRunner {
+
+    private static final String TABLE = "notifications";
+    private static final Pattern PARTITION = Pattern.compile("notifications_p(\\d{4})_(\\d{2})");
+    private static final long LOCK_KEY = 0x6e6f74696673L;   // "notifs" in ASCII
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationRepository notificationRepository;
+    private final RecentNotifications recentNotifications;
+    private final UnreadCounter unreadCounter;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.partitions.enabled:true}")
+    private boolean partitionsEnabled;
+
+    @Value("${notification.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    // Whole months kept; 0 keeps every partition
+    @Value("${notification.retention.months:6}")
+    private int retentionMonths;
+
+    @Value("${notification.purge.read-after:30d}")
+    private Duration readAfter;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ─── Startup ──────────────────────────────────────────────────────────────
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!partitioningApplies()) return;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, LOCK_KEY);
+                if (!"p".equals(relkind())) convert();
+                createAhead();
+            });
+        } catch (RuntimeException e) {
+            // The plain table keeps working — retention then falls back to the DELETE purge
+            log.error("Notification partitioning setup failed: {}", e.getMessage());
+        }
+    }
+
+    // ─── Nightly maintenance ──────────────────────────────────────────────────
+
+    public void maintain() {
+        long start = System.nanoTime();
+        int partitionsDropped = 0;
+        long rowsDropped = 0;
+
+        if (partitioningApplies()) {
+            try {
+                long[] dropped = transactionTemplate.execute(status -> {
+                    Boolean locked = jdbcTemplate.queryForObject(
+                            "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+                    if (!Boolean.TRUE.equals(locked) || !"p".equals(relkind())) return new long[2];
+                    createAhead();
+                    return dropExpired();
+                });
+                partitionsDropped = (int) dropped[0];
+                rowsDropped = dropped[1];
+            } catch (RuntimeException e) {
+                log.error("Notification partition maintenance failed: {}", e.getMessage());
+            }
+        }
+
+        int purged = notificationRepository.deleteReadBefore(LocalDateTime.now().minus(readAfter));
+
+        // Cached feeds / counts may include removed rows
+        if (purged > 0 || rowsDropped > 0) recentNotifications.clear();
+        if (rowsDropped > 0) unreadCounter.clear();
+
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.counter("notifications.retention.purged").increment(purged);
+        meterRegistry.counter("notifications.retention.dropped").increment(rowsDropped);
+        meterRegistry.counter("notifications.retention.partitions.dropped").increment(partitionsDropped);
+        meterRegistry.timer("notifications.retention.duration").record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Notification retention done → read purged: {} | partitions dropped: {} ({} rows) | {} ms",
+                purged, partitionsDropped, rowsDropped, elapsed / 1_000_000);
+    }
+
+    // ─── Partitions ───────────────────────────────────────────────────────────
+
+    // PostgreSQL only — elsewhere the table stays plain and only the DELETE purge runs
+    private boolean partitioningApplies() {
+        if (!partitionsEnabled) return false;
+        String product = jdbcTemplate.execute((ConnectionCallback<String>)
+                connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    // 'p' partitioned, 'r' plain table, null if missing
+    private String relkind() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)", String.class, TABLE);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+
+    // Plain table → partitioned, in the caller's transaction: rename, create the partitioned
+    // table with the same columns, copy, drop the old one, then restore keys, indexes and FKs.
+    // The primary key becomes (id, created_at) — PostgreSQL requires the partition key in it.
+    private void convert() {
+        if (relkind() == null) return;
+        long started = System.nanoTime();
+
+        List<Map<String, Object>> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT conname, pg_get_constraintdef(oid) AS def FROM pg_constraint " +
+                "WHERE conrelid = to_regclass(?) AND contype = 'f'", TABLE);
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT pg_get_indexdef(i.indexrelid) FROM pg_index i " +
+                "WHERE i.indrelid = to_regclass(?) AND NOT i.indisprimary", String.class, TABLE);
+
+        jdbcTemplate.execute("ALTER TABLE notifications RENAME TO notifications_legacy");
+        jdbcTemplate.execute("CREATE TABLE notifications (LIKE notifications_legacy " +
+                "INCLUDING DEFAULTS INCLUDING IDENTITY INCLUDING CONSTRAINTS) PARTITION BY RANGE (created_at)");
+
+        LocalDateTime oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM notifications_legacy", LocalDateTime.class);
+        YearMonth month = oldest != null ? YearMonth.from(oldest) : YearMonth.now();
+        for (; !month.isAfter(YearMonth.now()); month = month.plusMonths(1)) createPartition(month);
+        jdbcTemplate.execute("CREATE TABLE notifications_default PARTITION OF notifications DEFAULT");
+
+        int rows = jdbcTemplate.update(
+                "INSERT INTO notifications OVERRIDING SYSTEM VALUE SELECT * FROM notifications_legacy");
+        jdbcTemplate.execute("DROP TABLE notifications_legacy");
+
+        jdbcTemplate.execute("ALTER TABLE notifications ADD PRIMARY KEY (id, created_at)");
+        indexes.forEach(jdbcTemplate::execute);
+        for (Map<String, Object> foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE notifications ADD CONSTRAINT \"" + foreignKey.get("conname")
+                    + "\" " + foreignKey.get("def"));
+        }
+        jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('notifications', 'id'), " +
+                "COALESCE(MAX(id), 0) + 1, false) FROM notifications", Long.class);
+
+        log.info("Notifications converted to monthly partitions → rows: {} | {} ms",
+                rows, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void createAhead() {
+        YearMonth now = YearMonth.now();
+        // Past months that landed in the default partition (maintenance didn't run in time)
+        // get their partition too, so retention can drop them
+        if (exists(TABLE + "_default")) {
+            List<LocalDateTime> stranded = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT date_trunc('month', created_at) FROM notifications_default " +
+                    "WHERE created_at < ?", LocalDateTime.class, now.atDay(1).atStartOfDay());
+            stranded.forEach(month -> createPartition(YearMonth.from(month)));
+        }
+        for (int i = 0; i <= monthsAhead; i++) createPartition(now.plusMonths(i));
+    }
+
+    // A month's rows go to the default partition until the month has its own, and PostgreSQL
+    // refuses a new partition whose range the default still holds rows for. So with rows there,
+    // the partition is built as a plain table, the rows are moved into it and it is attached —
+    // all in the caller's transaction, with writes to the default blocked meanwhile.
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        if (exists(partition)) return;
+        String range = "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+
+        Boolean stranded = exists(TABLE + "_default") && jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM notifications_default WHERE created_at >= ? AND created_at < ?)",
+                Boolean.class, month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+        if (!Boolean.TRUE.equals(stranded)) {
+            jdbcTemplate.execute("CREATE TABLE " + partition + " PARTITION OF notifications " + range);
+            return;
+        }
+
+        jdbcTemplate.execute("LOCK TABLE notifications_default IN SHARE ROW EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE notifications INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM notifications_default " +
+                "WHERE created_at >= ? AND created_at < ? RETURNING *) INSERT INTO " + partition + " SELECT * FROM moved",
+                month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+        jdbcTemplate.execute("ALTER TABLE notifications ATTACH PARTITION " + partition + " " + range);
+        log.info("Created notification partition {} with {} rows moved from the default partition", partition, moved);
+    }
+
+    private boolean exists(String table) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+    }
+
+    // {partitions dropped, rows they held}
+    private long[] dropExpired() {
+        if (retentionMonths <= 0) return new long[2];
+        YearMonth keepFrom = YearMonth.now().minusMonths(retentionMonths);
+
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname::text FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass(?)", String.class, TABLE);
+        long[] dropped = new long[2];
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION.matcher(partition);
+            if (!matcher.matches()) continue;
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.isBefore(keepFrom)) continue;
+
+            Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partition, Long.class);
+            jdbcTemplate.execute("ALTER TABLE notifications DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            dropped[0]++;
+            dropped[1] += rows != null ? rows : 0;
+            log.info("Dropped notification partition {} ({} rows)", partition, rows);
+        }
+        return dropped;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("notifications_p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+}
@@ -1,17 +1,21 @@
 package com.symptocare.backend.service;
 
+import com.symptocare.backend.config.WebSocketFlowControl;
+import com.symptocare.backend.dto.NotificationResponse;
 import com.symptocare.backend.model.Notification;
 import com.symptocare.backend.model.Notification.NotificationType;
 import com.symptocare.backend.model.User;
 import com.symptocare.backend.repository.NotificationRepository;
 import com.symptocare.backend.repository.UserRepository;
+import com.symptocare.backend.service.ResourceVersions.Domain;
+import com.symptocare.backend.util.Transactions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,6 +25,9 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final ResourceVersions resourceVersions;
+    private final UnreadCounter unreadCounter;
+    private final RecentNotifications recentNotifications;
 
     // Optional — won't crash if WebSocket is not configured
     @Autowired(required = false)
@@ -28,9 +35,15 @@ public class NotificationService {
 
     // Manual constructor without SimpMessagingTemplate
     public NotificationService(NotificationRepository notificationRepository,
-                                UserRepository userRepository) {
+                                UserRepository userRepository,
+                                ResourceVersions resourceVersions,
+                                UnreadCounter unreadCounter,
+                                RecentNotifications recentNotifications) {
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
+        this.resourceVersions = resourceVersions;
+        this.unreadCounter = unreadCounter;
+        this.recentNotifications = recentNotifications;
     }
 
     private User getUser(String email) {
@@ -54,9 +67,13 @@ public class NotificationService {
                 .build();
 
         Notification saved = notificationRepository.save(notification);
+        resourceVersions.bump(user.getEmail(), Domain.NOTIFICATIONS);
 
-        // Only push via WebSocket if it is available
-        pushToUser(user.getEmail(), saved);
+        // Count and push once committed — a client reacting to the push must find the row
+        Transactions.afterCommit(() -> {
+            recentNotifications.created(user.getEmail(), NotificationResponse.from(saved));
+            pushToUser(user.getEmail(), saved, unreadCounter.add(user, 1));
+        });
 
         log.info("Notification created → user: {} | type: {} | title: {}",
                 user.getEmail(), type, title);
@@ -64,7 +81,7 @@ public class NotificationService {
         return saved;
     }
 
-    private void pushToUser(String email, Notification notification) {
+    private void pushToUser(String email, Notification notification, long unreadCount) {
         // Guard — if WebSocket not configured just skip silently
         if (messagingTemplate == null) {
             log.debug("WebSocket not configured — skipping push for user: {}", email);
@@ -76,6 +93,8 @@ public class NotificationService {
                     email,
                     "/queue/notifications",
                     Map.of(
+                            "event", "CREATED",
+                            "unreadCount", unreadCount,
                             "id", notification.getId(),
                             "title", notification.getTitle(),
                             "message", notification.getMessage(),
@@ -92,6 +111,27 @@ public class NotificationService {
         }
     }
 
+    // Read / delete events on the same destination, so the client keeps its badge and feed
+    // in sync without polling. id is null for READ_ALL.
+    private void pushChange(String email, String event, Long id, long delta, long unreadCount) {
+        if (messagingTemplate == null) return;
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("event", event);
+        payload.put("id", id);
+        payload.put("delta", delta);
+        payload.put("unreadCount", unreadCount);
+        // Carries the absolute count, so a slow client's queued event for the same notification
+        // (or an earlier READ_ALL) can be replaced by this one
+        Map<String, Object> headers = Map.of(WebSocketFlowControl.COALESCE_KEY,
+                id != null ? "notification-" + id : "notifications-" + event);
+        try {
+            messagingTemplate.convertAndSendToUser(email, "/queue/notifications", payload, headers);
+        } catch (Exception e) {
+            log.warn("WebSocket push failed for user: {} — {}", email, e.getMessage());
+        }
+    }
+
     // ─── Read Operations ──────────────────────────────────────────────────────
 
     public List<Notification> getAll(String email) {
@@ -104,14 +144,18 @@ public class NotificationService {
         return notificationRepository.findByUserAndIsReadFalseOrderByCreatedAtDesc(user);
     }
 
-    public List<Notification> getLatest(String email) {
-        User user = getUser(email);
-        return notificationRepository.findTop20ByUser(user);
+    // Served from RecentNotifications; the database is only asked when the feed isn't cached
+    public List<NotificationResponse> getLatest(String email) {
+        List<NotificationResponse> cached = recentNotifications.cached(email);
+        if (cached != null) return cached;
+        return recentNotifications.latest(getUser(email));
     }
 
+    // From the in-memory counter; the database is only asked on first use / after its TTL
     public long getUnreadCount(String email) {
-        User user = getUser(email);
-        return notificationRepository.countByUserAndIsReadFalse(user);
+        Long cached = unreadCounter.cached(email);
+        if (cached != null) return cached;
+        return unreadCounter.get(getUser(email));
     }
 
     // ─── Used by TaskScheduler ────────────────────────────────────────────────
@@ -134,13 +178,28 @@ public class NotificationService {
             throw new RuntimeException("Unauthorized");
         }
 
+        boolean wasUnread = !notification.isRead();
         notification.setRead(true);
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        resourceVersions.bump(email, Domain.NOTIFICATIONS);
+        if (wasUnread) {
+            Transactions.afterCommit(() -> {
+                recentNotifications.invalidate(email);
+                pushChange(email, "READ", id, -1, unreadCounter.add(user, -1));
+            });
+        }
+        return saved;
     }
 
     public void markAllAsRead(String email) {
         User user = getUser(email);
-        notificationRepository.markAllAsRead(user);
+        int marked = notificationRepository.markAllAsRead(user);
+        resourceVersions.bump(email, Domain.NOTIFICATIONS);
+        Transactions.afterCommit(() -> {
+            unreadCounter.reset(user);
+            recentNotifications.invalidate(email);
+            pushChange(email, "READ_ALL", null, -marked, 0);
+        });
         log.info("All notifications marked as read for user: {}", email);
     }
 
@@ -155,12 +214,12 @@ public class NotificationService {
             throw new RuntimeException("Unauthorized");
         }
 
+        long delta = notification.isRead() ? 0 : -1;
         notificationRepository.delete(notification);
-    }
-
-    public void cleanOldNotifications(User user) {
-        LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
-        notificationRepository.deleteOldReadNotifications(user, oneMonthAgo);
-        log.info("Old notifications cleaned for user: {}", user.getEmail());
+        resourceVersions.bump(email, Domain.NOTIFICATIONS);
+        Transactions.afterCommit(() -> {
+            recentNotifications.invalidate(email);
+            pushChange(email, "DELETED", id, delta, unreadCounter.add(user, delta));
+        });
     }
 }
\ No newline at end of file
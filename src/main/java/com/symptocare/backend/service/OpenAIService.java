@@ -1,5 +1,7 @@
 package com.symptocare.backend.service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,25 +9,116 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OpenAIService {
 
+    private static final Pattern NON_ASCII = Pattern.compile("[^\\x00-\\x7F]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int MAX_COMPLETION_TOKENS = 512;
+
+    private static final String PDF_SYSTEM_PROMPT =
+            "You are a helpful AI assistant. " +
+            "Answer only using the provided document. " +
+            "If the answer is not found, say you don't know.";
+
+    // Context windows of the Groq models we use; unknown models fall back to the smallest
+    private static final Map<String, Integer> CONTEXT_WINDOWS = Map.of(
+            "llama-3.3-70b-versatile", 131_072,
+            "llama-3.1-8b-instant", 131_072,
+            "mixtral-8x7b-32768", 32_768,
+            "gemma2-9b-it", 8_192
+    );
+    private static final int DEFAULT_CONTEXT_WINDOW = 8_192;
+
+    private static final String MOTIVATION_SYSTEM_PROMPT =
+            "You are ApnaDost, a friendly Indian mentor. " +
+            "Give a short motivational message in 1-2 sentences. " +
+            "Be warm and encouraging.";
+
+    // Completion tokens allowed per quote in a batched request
+    private static final int QUOTE_TOKENS = 80;
+    private static final Pattern NUMBERED_LINE = Pattern.compile("^\\s*(\\d+)[.)]\\s*(.+)$");
+
+    private record PendingQuote(String taskTitle, CompletableFuture<String> result) {}
+
+    private final List<PendingQuote> pendingQuotes = new ArrayList<>();
+
+    // Bumped each time pendingQuotes is drained; a flush timer only fires for the batch it was set for
+    private long quoteBatchGeneration;
+    private ScheduledFuture<?> quoteFlushTimer;
+
+    // Only fires batch windows; the completions themselves run on quoteSenders
+    private final ScheduledExecutorService quoteTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "quote-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Each batch is one blocking completion, so a burst of batches is sent side by side
+    private ExecutorService quoteSenders;
+
     private final WebClient groqWebClient;
+    private final TokenCounter tokenCounter;
 
     @Value("${groq.model}")
     private String model;
 
+    // A completion that hasn't returned by then fails, so a stuck call can't hold a quote sender
+    @Value("${groq.request-timeout-ms:60000}")
+    private long requestTimeoutMs;
+
+    // How long to collect quote requests before sending one batched completion
+    @Value("${groq.batch.window-ms:200}")
+    private long quoteBatchWindowMs;
+
+    @Value("${groq.batch.max-size:25}")
+    private int quoteBatchMaxSize;
+
+    // A quote not generated within this time after its batch is sent completes with the fallback message
+    @Value("${groq.batch.timeout-ms:30000}")
+    private long quoteTimeoutMs;
+
+    // Batched completions in flight at once
+    @Value("${groq.batch.senders:4}")
+    private int quoteSenderThreads;
+
+    // Upper bound on prompt size regardless of context window (keeps latency and quota in check)
+    @Value("${chat.prompt.max-tokens:6000}")
+    private int promptMaxTokens;
+
+    // Share of the budget left unused, since TokenCounter only estimates real token counts
+    @Value("${chat.prompt.safety-margin:0.15}")
+    private double promptSafetyMargin;
+
+    // Tokens kept free for conversation history and the question when packing the document
+    @Value("${chat.prompt.history-reserve-tokens:1500}")
+    private int historyReserveTokens;
+
     public String chat(List<Map<String, String>> messages) {
+        return chat(messages, MAX_COMPLETION_TOKENS);
+    }
+
+    public String chat(List<Map<String, String>> messages, int maxTokens) {
         try {
 
             Map<String, Object> body = new HashMap<>();
             body.put("model", model);
             body.put("messages", messages);
-            body.put("max_tokens", 512);
+            body.put("max_tokens", maxTokens);
             body.put("temperature", 0.5);
 
             Map response = groqWebClient.post()
@@ -39,7 +132,7 @@ public class OpenAIService {
                                         return Mono.error(new RuntimeException(errorBody));
                                     }))
                     .bodyToMono(Map.class)
-                    .block();
+                    .block(Duration.ofMillis(requestTimeoutMs));
 
             if (response == null || !response.containsKey("choices")) {
                 throw new RuntimeException("Invalid response from Groq: " + response);
@@ -64,10 +157,7 @@ public class OpenAIService {
 
             Map<String, String> systemMsg = new HashMap<>();
             systemMsg.put("role", "system");
-            systemMsg.put("content",
-                    "You are ApnaDost, a friendly Indian mentor. " +
-                    "Give a short motivational message in 1-2 sentences. " +
-                    "Be warm and encouraging.");
+            systemMsg.put("content", MOTIVATION_SYSTEM_PROMPT);
             messages.add(systemMsg);
 
             Map<String, String> userMsg = new HashMap<>();
@@ -79,44 +169,208 @@ public class OpenAIService {
             return chat(messages);
 
         } catch (Exception e) {
-            return "Chalo " + taskTitle + " complete karte hain! You've got this! 💪";
+            return fallbackQuote(taskTitle);
+        }
+    }
+
+    // ─── Quote Batching ───────────────────────────────────────────────────────
+    // Scheduler jobs ask for many quotes at once — collect them for a short window
+    // and ask for N numbered quotes in a single completion
+
+    public CompletableFuture<String> getMotivationalQuoteAsync(String taskTitle) {
+        PendingQuote pending = new PendingQuote(taskTitle, new CompletableFuture<>());
+        List<PendingQuote> fullBatch = null;
+
+        synchronized (pendingQuotes) {
+            pendingQuotes.add(pending);
+            if (pendingQuotes.size() >= quoteBatchMaxSize) {
+                fullBatch = drainPendingQuotes();
+            } else if (pendingQuotes.size() == 1) {
+                long generation = quoteBatchGeneration;
+                quoteFlushTimer = quoteTimer.schedule(() -> flushPendingQuotes(generation),
+                        quoteBatchWindowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (fullBatch != null) {
+            send(fullBatch);
+        }
+        return pending.result();
+    }
+
+    private void flushPendingQuotes(long generation) {
+        List<PendingQuote> batch;
+        synchronized (pendingQuotes) {
+            // The batch this timer was set for already went out full; a newer one has its own timer
+            if (generation != quoteBatchGeneration) return;
+            batch = drainPendingQuotes();
+        }
+        if (!batch.isEmpty()) send(batch);
+    }
+
+    private void flushPendingQuotes() {
+        List<PendingQuote> batch;
+        synchronized (pendingQuotes) {
+            batch = drainPendingQuotes();
         }
+        if (!batch.isEmpty()) send(batch);
+    }
+
+    private void send(List<PendingQuote> batch) {
+        quoteSenders.execute(() -> sendQuoteBatch(batch));
+    }
+
+    // Callers hold the pendingQuotes lock
+    private List<PendingQuote> drainPendingQuotes() {
+        List<PendingQuote> batch = new ArrayList<>(pendingQuotes);
+        pendingQuotes.clear();
+        quoteBatchGeneration++;
+        if (quoteFlushTimer != null) {
+            quoteFlushTimer.cancel(false);
+            quoteFlushTimer = null;
+        }
+        return batch;
+    }
+
+    private void sendQuoteBatch(List<PendingQuote> batch) {
+        // The wait starts now rather than when the quote was asked for: time spent queued
+        // behind other batches shouldn't use it up
+        for (PendingQuote pending : batch) {
+            pending.result().completeOnTimeout(fallbackQuote(pending.taskTitle()), quoteTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        if (batch.size() == 1) {
+            PendingQuote only = batch.get(0);
+            only.result().complete(getMotivationalQuote(only.taskTitle()));
+            return;
+        }
+
+        String[] quotes = new String[batch.size()];
+        try {
+            StringBuilder tasks = new StringBuilder();
+            for (int i = 0; i < batch.size(); i++) {
+                tasks.append(i + 1).append(". ").append(batch.get(i).taskTitle()).append('\n');
+            }
+
+            List<Map<String, String>> messages = List.of(
+                    Map.of("role", "system", "content", MOTIVATION_SYSTEM_PROMPT +
+                            " You will get a numbered list of tasks. Reply with exactly one message per task, " +
+                            "one per line, numbered the same way (e.g. \"1. ...\"). No other text."),
+                    Map.of("role", "user", "content", "My tasks are:\n" + tasks)
+            );
+
+            String reply = chat(messages, QUOTE_TOKENS * batch.size());
+
+            for (String line : reply.split("\n")) {
+                Matcher m = NUMBERED_LINE.matcher(line);
+                if (!m.matches()) continue;
+                int index = Integer.parseInt(m.group(1)) - 1;
+                if (index >= 0 && index < quotes.length && quotes[index] == null) {
+                    quotes[index] = m.group(2).trim();
+                }
+            }
+            log.info("Generated {} motivational quotes in one completion", batch.size());
+
+        } catch (Exception e) {
+            log.warn("Batched quote request failed for {} tasks: {}", batch.size(), e.getMessage());
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingQuote pending = batch.get(i);
+            pending.result().complete(quotes[i] != null && !quotes[i].isEmpty()
+                    ? quotes[i] : fallbackQuote(pending.taskTitle()));
+        }
+    }
+
+    private String fallbackQuote(String taskTitle) {
+        return "Chalo " + taskTitle + " complete karte hain! You've got this! 💪";
+    }
+
+    @PostConstruct
+    public void startQuoteSenders() {
+        quoteSenders = Executors.newFixedThreadPool(quoteSenderThreads, r -> {
+            Thread thread = new Thread(r, "quote-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdownQuoteBatcher() {
+        quoteTimer.shutdownNow();
+        flushPendingQuotes();
+        quoteSenders.shutdown();
+    }
+
+    // Prompt token budget for the configured model, in counted (estimated) tokens
+    public int promptBudget() {
+        int window = CONTEXT_WINDOWS.getOrDefault(model, DEFAULT_CONTEXT_WINDOW);
+        int budget = Math.min(window - MAX_COMPLETION_TOKENS, promptMaxTokens);
+        return (int) (budget * (1 - promptSafetyMargin));
     }
 
     public String askAboutPdf(String pdfText,
                               String userQuestion,
                               List<Map<String, String>> history) {
+        List<Map<String, String>> prefix = buildPdfPrefix(pdfText);
+
+        // Keep the newest history messages that fit next to the document and question
+        int available = promptBudget() - countMessages(prefix) - tokenCounter.countMessage(userQuestion);
+        LinkedList<Map<String, String>> packed = new LinkedList<>();
+        if (history != null) {
+            for (int i = history.size() - 1; i >= 0; i--) {
+                String content = history.get(i).get("content");
+                int tokens = tokenCounter.countMessage(content);
+                if (tokens > available) break;
+                available -= tokens;
+                packed.addFirst(history.get(i));
+            }
+        }
+        return askWithPdfPrefix(prefix, userQuestion, packed);
+    }
+
+    // Clean the document once and build the system + document messages,
+    // packing as much of the document as fits the model's token budget.
+    // The result is immutable so it can be cached and reused across questions
+    public List<Map<String, String>> buildPdfPrefix(String pdfText) {
 
         if (pdfText == null || pdfText.trim().isEmpty()) {
             throw new RuntimeException("PDF text is empty");
         }
 
-        String cleanedText = pdfText
-                .replaceAll("[^\\x00-\\x7F]", "")
-                .replaceAll("\\s+", " ")
+        String cleanedText = WHITESPACE.matcher(NON_ASCII.matcher(pdfText).replaceAll(""))
+                .replaceAll(" ")
                 .trim();
 
-        int maxCharacters = 4000;
+        int documentBudget = promptBudget()
+                - tokenCounter.countMessage(PDF_SYSTEM_PROMPT)
+                - tokenCounter.countMessage("Document:\n")
+                - historyReserveTokens;
+
+        cleanedText = tokenCounter.truncate(cleanedText, Math.max(documentBudget, 0));
 
-        if (cleanedText.length() > maxCharacters) {
-            cleanedText = cleanedText.substring(0, maxCharacters);
+        return List.of(
+                Map.of("role", "system",
+                        "content", PDF_SYSTEM_PROMPT),
+                Map.of("role", "user",
+                        "content", "Document:\n" + cleanedText)
+        );
+    }
+
+    public int countMessages(List<Map<String, String>> messages) {
+        int tokens = 0;
+        for (Map<String, String> message : messages) {
+            tokens += tokenCounter.countMessage(message.get("content"));
         }
+        return tokens;
+    }
+
+    // History is expected to be already packed to the budget by the caller
+    public String askWithPdfPrefix(List<Map<String, String>> prefix,
+                                   String userQuestion,
+                                   List<Map<String, String>> history) {
 
-        List<Map<String, String>> messages = new ArrayList<>();
-
-        Map<String, String> systemMsg = new HashMap<>();
-        systemMsg.put("role", "system");
-        systemMsg.put("content",
-                "You are a helpful AI assistant. " +
-                "Answer only using the provided document. " +
-                "If the answer is not found, say you don't know.");
-        messages.add(systemMsg);
-
-        Map<String, String> documentMsg = new HashMap<>();
-        documentMsg.put("role", "user");
-        documentMsg.put("content",
-                "Document:\n" + cleanedText);
-        messages.add(documentMsg);
+        List<Map<String, String>> messages = new ArrayList<>(prefix);
 
         if (history != null) {
             for (Map<String, String> msg : history) {
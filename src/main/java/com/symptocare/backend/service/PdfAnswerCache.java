@@ -0,0 +1,165 @@
+package com.symptocare.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Answer cache for repeated PDF questions
+// Keyed by (fileId, document hash, normalized question) with LRU eviction,
+// plus optional fuzzy matching on token-set similarity within the same document.
+// Hit/miss counts and saved tokens are exported as chat.answer-cache.* metrics.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PdfAnswerCache {
+
+    private static final Pattern PUNCTUATION = Pattern.compile("[^a-z0-9\\s]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Filler words that don't change what is being asked
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "is", "are", "was", "of", "this", "that", "in", "on",
+            "for", "to", "me", "please", "can", "you", "it", "document", "pdf", "file");
+
+    @Value("${chat.answer-cache.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${chat.answer-cache.fuzzy-enabled:true}")
+    private boolean fuzzyEnabled;
+
+    @Value("${chat.answer-cache.fuzzy-threshold:0.8}")
+    private double fuzzyThreshold;
+
+    private final MeterRegistry meterRegistry;
+
+    private Counter hits;
+    private Counter fuzzyHits;
+    private Counter misses;
+    private Counter savedTokens;
+
+    private record Entry(String docKey, Set<String> tokens, String answer, long tokenCost) {}
+
+    // Secondary index: document → its cache entries, used for fuzzy lookups and invalidation.
+    // Fuzzy lookups read candidates from here: a get() on the access-ordered map would mark
+    // every scanned candidate as recently used and defeat the LRU order.
+    private final Map<String, Map<String, Entry>> entriesByDocument = new HashMap<>();
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() <= maxEntries) return false;
+            unindex(eldest.getKey(), eldest.getValue().docKey());
+            return true;
+        }
+    };
+
+    @PostConstruct
+    public void init() {
+        hits = meterRegistry.counter("chat.answer-cache.hits");
+        fuzzyHits = meterRegistry.counter("chat.answer-cache.fuzzy-hits");
+        misses = meterRegistry.counter("chat.answer-cache.misses");
+        savedTokens = meterRegistry.counter("chat.answer-cache.saved-tokens");
+        meterRegistry.gaugeMapSize("chat.answer-cache.entries", List.of(), entries);
+    }
+
+    // Cached answer for this question about this exact document content, or null
+    public synchronized String lookup(Long fileId, String documentHash, String question) {
+        String docKey = docKey(fileId, documentHash);
+        String normalized = normalize(question);
+
+        Entry exact = entries.get(docKey + "|" + normalized);
+        if (exact != null) {
+            hits.increment();
+            savedTokens.increment(exact.tokenCost());
+            return exact.answer();
+        }
+
+        if (fuzzyEnabled) {
+            Set<String> tokens = tokenize(normalized);
+            Map<String, Entry> candidates = entriesByDocument.get(docKey);
+            if (candidates != null && !tokens.isEmpty()) {
+                for (Map.Entry<String, Entry> candidate : candidates.entrySet()) {
+                    if (similarity(tokens, candidate.getValue().tokens()) >= fuzzyThreshold) {
+                        // Only the hit counts as a use
+                        Entry hit = entries.get(candidate.getKey());
+                        fuzzyHits.increment();
+                        savedTokens.increment(hit.tokenCost());
+                        return hit.answer();
+                    }
+                }
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    public synchronized void put(Long fileId, String documentHash, String question,
+                                 String answer, long tokenCost) {
+        String docKey = docKey(fileId, documentHash);
+        String normalized = normalize(question);
+        String key = docKey + "|" + normalized;
+
+        Entry entry = new Entry(docKey, tokenize(normalized), answer, tokenCost);
+        entries.put(key, entry);
+        entriesByDocument.computeIfAbsent(docKey, k -> new HashMap<>()).put(key, entry);
+    }
+
+    // Drop every cached answer for a file (e.g. when the file is deleted)
+    public synchronized void invalidateFile(Long fileId) {
+        String prefix = fileId + ":";
+        entriesByDocument.entrySet().removeIf(doc -> {
+            if (!doc.getKey().startsWith(prefix)) return false;
+            doc.getValue().keySet().forEach(entries::remove);
+            return true;
+        });
+    }
+
+    // --- Helpers ---
+
+    private void unindex(String key, String docKey) {
+        Map<String, Entry> documentEntries = entriesByDocument.get(docKey);
+        if (documentEntries == null) return;
+        documentEntries.remove(key);
+        if (documentEntries.isEmpty()) entriesByDocument.remove(docKey);
+    }
+
+    private String docKey(Long fileId, String documentHash) {
+        return fileId + ":" + documentHash;
+    }
+
+    private String normalize(String question) {
+        String lower = PUNCTUATION.matcher(question.toLowerCase()).replaceAll(" ");
+        return WHITESPACE.matcher(lower).replaceAll(" ").trim();
+    }
+
+    private Set<String> tokenize(String normalized) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : normalized.split(" ")) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    // Jaccard similarity of two token sets
+    private double similarity(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) return 0.0;
+        int common = 0;
+        for (String token : a) {
+            if (b.contains(token)) common++;
+        }
+        return (double) common / (a.size() + b.size() - common);
+    }
+}
@@ -7,7 +7,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -18,45 +17,105 @@ public class PdfChatService {
 
     private final FileService fileService;
     private final OpenAIService openAIService;
+    private final PdfChatSessionStore sessionStore;
+    private final PdfAnswerCache answerCache;
+    private final TokenCounter tokenCounter;
 
     public Map<String, Object> chat(String email, ChatRequest request) throws IOException {
 
-        // 1. Validate the file belongs to user and is a PDF
+        // 1. Reuse the live server-side session if the client sent a matching one
+        PdfChatSessionStore.Session session =
+                sessionStore.find(email, request.getFileId(), request.getSessionId());
+
+        if (session == null) {
+            session = startSession(email, request);
+        }
+
+        // 2. Serve repeated questions about the same document from the answer cache. Only
+        //    questions asked without history qualify — a follow-up ("and page 3?") depends
+        //    on the conversation, so neither its lookup nor its answer goes through the cache
+        boolean standalone = !session.hasHistory();
+        String answer = standalone ? answerCache.lookup(
+                request.getFileId(), session.getDocumentHash(), request.getQuestion()) : null;
+        boolean cached = answer != null;
+
+        // 3. Otherwise ask Groq AI with the cached prompt prefix and rolling history
+        if (!cached) {
+            // Pack the newest history that fits next to the prefix and question
+            int historyBudget = openAIService.promptBudget()
+                    - session.getPrefixTokens()
+                    - tokenCounter.countMessage(request.getQuestion());
+            List<Map<String, String>> history = session.historyWithin(historyBudget);
+
+            answer = openAIService.askWithPdfPrefix(
+                    session.getPromptPrefix(), request.getQuestion(), history);
+
+            // Only answers grounded on the document alone are reusable across conversations
+            if (standalone) {
+                answerCache.put(request.getFileId(), session.getDocumentHash(), request.getQuestion(),
+                        answer, session.getPrefixTokens()
+                                + tokenCounter.countMessage(request.getQuestion())
+                                + tokenCounter.count(answer));
+            }
+        }
+
+        sessionStore.recordExchange(session, request.getQuestion(), answer);
+
+        log.info("PDF chat completed for file: {} by user: {} (cached: {})",
+                request.getFileId(), email, cached);
+
+        // 4. Return question + answer + file info + session to continue with
+        return Map.of(
+                "fileId", request.getFileId(),
+                "fileName", session.getFileName(),
+                "question", request.getQuestion(),
+                "answer", answer,
+                "cached", cached,
+                "sessionId", session.getSessionId()
+        );
+    }
+
+    // Validate the file, prepare the prompt prefix once and seed history from the request
+    private PdfChatSessionStore.Session startSession(String email, ChatRequest request) throws IOException {
+
+        // Validate the file belongs to user and is a PDF
         FileEntry fileEntry = fileService.getFileEntry(email, request.getFileId());
 
         if (!fileEntry.getFileType().contains("pdf")) {
             throw new RuntimeException("Only PDF files are supported for chat");
         }
 
-        // 2. Extract (or fetch cached) PDF text
-        String pdfText = fileService.extractPdfText(email, request.getFileId());
+        // Reuse the cleaned document of an expired conversation, else extract (or fetch cached) text
+        List<Map<String, String>> prefix = sessionStore.cachedPrefix(email, request.getFileId());
+
+        if (prefix == null) {
+            String pdfText = fileService.extractPdfText(email, request.getFileId());
 
-        if (pdfText == null || pdfText.trim().isEmpty()) {
-            throw new RuntimeException("Could not extract text from PDF. " +
-                    "The PDF might be scanned/image-based.");
+            if (pdfText == null || pdfText.trim().isEmpty()) {
+                throw new RuntimeException("Could not extract text from PDF. " +
+                        "The PDF might be scanned/image-based.");
+            }
+            prefix = openAIService.buildPdfPrefix(pdfText);
         }
 
-        // 3. Build conversation history for context
-        List<Map<String, String>> history = new ArrayList<>();
+        PdfChatSessionStore.Session session = sessionStore.start(
+                email, request.getFileId(), fileEntry.getOriginalFileName(), prefix);
+
+        // Older clients still send history — seed the session with it (packed by tokens per call)
         if (request.getHistory() != null && !request.getHistory().isEmpty()) {
-            // Only keep last 6 messages to avoid token overflow
-            List<Map<String, String>> fullHistory = request.getHistory();
-            int startIndex = Math.max(0, fullHistory.size() - 6);
-            history = fullHistory.subList(startIndex, fullHistory.size());
+            for (Map<String, String> msg : request.getHistory()) {
+                if (msg.get("role") != null && msg.get("content") != null) {
+                    sessionStore.appendHistory(session, msg.get("role"), msg.get("content"));
+                }
+            }
         }
 
-        // 4. Ask Groq AI with PDF context
-        String answer = openAIService.askAboutPdf(pdfText, request.getQuestion(), history);
-
-        log.info("PDF chat completed for file: {} by user: {}", request.getFileId(), email);
+        return session;
+    }
 
-        // 5. Return question + answer + file info
-        return Map.of(
-                "fileId", request.getFileId(),
-                "fileName", fileEntry.getOriginalFileName(),
-                "question", request.getQuestion(),
-                "answer", answer
-        );
+    // End a server-side session early (e.g. user closed the chat)
+    public void endSession(String email, String sessionId) {
+        sessionStore.end(email, sessionId);
     }
 
     // Just extract text without chatting (prep for chat)
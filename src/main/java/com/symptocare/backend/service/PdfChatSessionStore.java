@@ -0,0 +1,201 @@
+package com.symptocare.backend.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Server-side PDF chat sessions keyed by (user, fileId)
+// Keeps the prepared prompt prefix and a rolling history so clients only send the new question
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PdfChatSessionStore {
+
+    private final TokenCounter tokenCounter;
+
+    @Value("${chat.session.max-sessions:1000}")
+    private int maxSessions;
+
+    @Value("${chat.session.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    // Upper bound on stored messages; what is actually sent is packed by token budget
+    @Value("${chat.session.max-history:20}")
+    private int maxHistory;
+
+    // Access-ordered so the eldest entry is always the least recently used session
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+    // A history message with its token count, so packing never re-tokenizes
+    private record Turn(Map<String, String> message, int tokens) {}
+
+    @Getter
+    public static class Session {
+        private final String sessionId;
+        private final String email;
+        private final Long fileId;
+        private final String fileName;
+        private final List<Map<String, String>> promptPrefix;
+        // Hash of the prepared document content — identifies the exact text answers were based on
+        private final String documentHash;
+        // Token count of the prefix, computed once when the session starts
+        private final int prefixTokens;
+        @Getter(AccessLevel.NONE)
+        private final Deque<Turn> history = new ArrayDeque<>();
+        private volatile long lastAccess;
+
+        private Session(String email, Long fileId, String fileName,
+                        List<Map<String, String>> promptPrefix, int prefixTokens) {
+            this.sessionId = UUID.randomUUID().toString();
+            this.email = email;
+            this.fileId = fileId;
+            this.fileName = fileName;
+            this.promptPrefix = promptPrefix;
+            this.documentHash = hash(promptPrefix);
+            this.prefixTokens = prefixTokens;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        public synchronized boolean hasHistory() {
+            return !history.isEmpty();
+        }
+
+        // Newest messages whose stored token counts fit in the budget, oldest first
+        public synchronized List<Map<String, String>> historyWithin(int tokenBudget) {
+            ArrayList<Map<String, String>> packed = new ArrayList<>();
+            int used = 0;
+            Iterator<Turn> newestFirst = history.descendingIterator();
+            while (newestFirst.hasNext()) {
+                Turn turn = newestFirst.next();
+                if (used + turn.tokens() > tokenBudget) break;
+                used += turn.tokens();
+                packed.add(turn.message());
+            }
+            Collections.reverse(packed);
+            return packed;
+        }
+
+        private synchronized void append(Turn turn, int limit) {
+            history.addLast(turn);
+            while (history.size() > limit) {
+                history.removeFirst();
+            }
+        }
+    }
+
+    // Return the live session if the client's sessionId still matches, otherwise null
+    public synchronized Session find(String email, Long fileId, String sessionId) {
+        if (sessionId == null) return null;
+        String key = key(email, fileId);
+        Session session = sessions.get(key);
+        if (session == null) return null;
+
+        if (isExpired(session)) {
+            sessions.remove(key);
+            return null;
+        }
+        if (!session.getSessionId().equals(sessionId)) return null;
+
+        session.lastAccess = System.currentTimeMillis();
+        return session;
+    }
+
+    // Start a fresh conversation for (user, fileId), reusing the prepared prefix if one exists
+    public synchronized Session start(String email, Long fileId, String fileName,
+                                      List<Map<String, String>> promptPrefix) {
+        evictExpired();
+
+        int prefixTokens = 0;
+        for (Map<String, String> message : promptPrefix) {
+            prefixTokens += tokenCounter.countMessage(message.get("content"));
+        }
+
+        Session session = new Session(email, fileId, fileName, promptPrefix, prefixTokens);
+        sessions.put(key(email, fileId), session);
+
+        while (sessions.size() > maxSessions) {
+            Iterator<Session> eldest = sessions.values().iterator();
+            Session evicted = eldest.next();
+            eldest.remove();
+            log.debug("Evicted PDF chat session {} (capacity)", evicted.getSessionId());
+        }
+        return session;
+    }
+
+    // Prefix of an existing (possibly stale-id) session for this user and file, if still alive
+    public synchronized List<Map<String, String>> cachedPrefix(String email, Long fileId) {
+        Session session = sessions.get(key(email, fileId));
+        if (session == null || isExpired(session)) return null;
+        return session.getPromptPrefix();
+    }
+
+    public void appendHistory(Session session, String role, String content) {
+        session.append(turn(role, content), maxHistory);
+    }
+
+    public void recordExchange(Session session, String question, String answer) {
+        session.append(turn("user", question), maxHistory);
+        session.append(turn("assistant", answer), maxHistory);
+        session.lastAccess = System.currentTimeMillis();
+    }
+
+    // Drop every session for a file (e.g. when the file is deleted)
+    public synchronized void invalidateFile(Long fileId) {
+        sessions.values().removeIf(s -> s.getFileId().equals(fileId));
+    }
+
+    public synchronized void end(String email, String sessionId) {
+        sessions.values().removeIf(s -> s.getEmail().equals(email) && s.getSessionId().equals(sessionId));
+    }
+
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    // --- Helpers ---
+
+    private Turn turn(String role, String content) {
+        return new Turn(Map.of("role", role, "content", content), tokenCounter.countMessage(content));
+    }
+
+    private void evictExpired() {
+        sessions.values().removeIf(this::isExpired);
+    }
+
+    private boolean isExpired(Session session) {
+        return System.currentTimeMillis() - session.lastAccess > ttlMinutes * 60_000L;
+    }
+
+    private static String hash(List<Map<String, String>> prefix) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map<String, String> message : prefix) {
+                digest.update(message.get("content").getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String key(String email, Long fileId) {
+        return email + ":" + fileId;
+    }
+}
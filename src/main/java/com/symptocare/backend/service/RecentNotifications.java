@@ -0,0 +1,163 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.dto.NotificationResponse;
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// The latest notifications per user for the bell dropdown, in a fixed-size ring so an active
+// user's feed never touches the database. New notifications are added as they are created;
+// a read or delete drops the user's ring and the next request reloads it.
+// Rings are kept for at most notification.recent.max-users users, least recently used out first.
+// Single instance only: another instance's reads and deletes never drop these rings. With the
+// broker relay on (the multi-instance setup) nothing is cached and every feed is a query.
+@Component
+@RequiredArgsConstructor
+public class RecentNotifications {
+
+    private final NotificationRepository notificationRepository;
+
+    @Value("${notification.recent.size:20}")
+    private int size;
+
+    @Value("${notification.recent.max-users:10000}")
+    private int maxUsers;
+
+    @Value("${websocket.broker.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    // Newest at head - 1. Until `loaded`, it only collects what was created while the
+    // database read was running; load() merges those in.
+    private static final class Ring {
+        final NotificationResponse[] items;
+        int head;
+        int count;
+        boolean loaded;
+
+        Ring(int size) {
+            items = new NotificationResponse[size];
+        }
+
+        void add(NotificationResponse item) {
+            items[head] = item;
+            head = (head + 1) % items.length;
+            if (count < items.length) count++;
+        }
+
+        List<NotificationResponse> newestFirst() {
+            List<NotificationResponse> out = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) out.add(items[Math.floorMod(head - i, items.length)]);
+            return out;
+        }
+    }
+
+    // Access-ordered: iteration starts at the least recently used user
+    private final Map<String, Ring> rings = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Ring> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    // The feed if it is cached — no user lookup needed
+    public List<NotificationResponse> cached(String email) {
+        if (relayEnabled) return null;
+        Ring ring;
+        synchronized (rings) {
+            ring = rings.get(email);
+        }
+        if (ring == null) return null;
+        synchronized (ring) {
+            return ring.loaded ? ring.newestFirst() : null;
+        }
+    }
+
+    public List<NotificationResponse> latest(User user) {
+        if (relayEnabled) return query(user);
+        Ring ring;
+        synchronized (rings) {
+            ring = rings.get(user.getEmail());
+            if (ring == null) {
+                ring = new Ring(size);
+                rings.put(user.getEmail(), ring);
+            }
+        }
+        synchronized (ring) {
+            if (ring.loaded) return ring.newestFirst();
+        }
+        return load(user, ring);
+    }
+
+    // Call after the notification is committed
+    public void created(String email, NotificationResponse item) {
+        Ring ring;
+        synchronized (rings) {
+            ring = rings.get(email);
+        }
+        // Not cached — the next read loads it from the database
+        if (ring == null) return;
+        synchronized (ring) {
+            ring.add(item);
+        }
+    }
+
+    public void invalidate(String email) {
+        synchronized (rings) {
+            rings.remove(email);
+        }
+    }
+
+    // After bulk deletes — every feed reloads on demand
+    public void clear() {
+        synchronized (rings) {
+            rings.clear();
+        }
+    }
+
+    // Database rows plus anything created meanwhile, newest first. An invalidation during
+    // the read removes this ring from the map, so its rows are never served again.
+    private List<NotificationResponse> load(User user, Ring ring) {
+        List<NotificationResponse> rows = query(user);
+
+        synchronized (ring) {
+            if (ring.loaded) return ring.newestFirst();
+
+            List<NotificationResponse> merged = new ArrayList<>(rows);
+            Set<Long> ids = new HashSet<>();
+            rows.forEach(row -> ids.add(row.getId()));
+            for (NotificationResponse item : ring.newestFirst()) {
+                if (ids.add(item.getId())) merged.add(item);
+            }
+            merged.sort(Comparator.comparing(NotificationResponse::getCreatedAt)
+                    .thenComparing(NotificationResponse::getId).reversed());
+            List<NotificationResponse> latest = merged.subList(0, Math.min(size, merged.size()));
+
+            ring.head = 0;
+            ring.count = 0;
+            List<NotificationResponse> oldestFirst = new ArrayList<>(latest);
+            Collections.reverse(oldestFirst);
+            oldestFirst.forEach(ring::add);
+            ring.loaded = true;
+            return List.copyOf(latest);
+        }
+    }
+
+    private List<NotificationResponse> query(User user) {
+        return notificationRepository
+                .findLatestByUser(user, PageRequest.of(0, size)).stream()
+                .map(NotificationResponse::from)
+                .toList();
+    }
+}
@@ -0,0 +1,59 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.RecurringExpense;
+import com.symptocare.backend.model.RecurringExpense.Frequency;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+
+// Occurrence dates of a RecurringExpense.
+// Days that don't exist in a month (31st, Feb 29) fall on the month's last day.
+public final class RecurrenceSchedule {
+
+    private RecurrenceSchedule() {}
+
+    // First occurrence on or after a date
+    public static LocalDate firstOnOrAfter(RecurringExpense series, LocalDate from) {
+        return switch (series.getFrequency()) {
+            case WEEKLY -> from.with(TemporalAdjusters.nextOrSame(DayOfWeek.of(series.getDayOfWeek())));
+            case MONTHLY -> {
+                LocalDate candidate = dayIn(YearMonth.from(from), series.getDayOfMonth());
+                yield candidate.isBefore(from)
+                        ? dayIn(YearMonth.from(from).plusMonths(1), series.getDayOfMonth())
+                        : candidate;
+            }
+            case YEARLY -> {
+                LocalDate candidate = dayIn(YearMonth.of(from.getYear(), series.getMonthOfYear()), series.getDayOfMonth());
+                yield candidate.isBefore(from)
+                        ? dayIn(YearMonth.of(from.getYear() + 1, series.getMonthOfYear()), series.getDayOfMonth())
+                        : candidate;
+            }
+        };
+    }
+
+    // The occurrence after this one
+    public static LocalDate nextAfter(RecurringExpense series, LocalDate occurrence) {
+        return switch (series.getFrequency()) {
+            case WEEKLY -> occurrence.plusWeeks(1);
+            case MONTHLY -> dayIn(YearMonth.from(occurrence).plusMonths(1), series.getDayOfMonth());
+            case YEARLY -> dayIn(YearMonth.from(occurrence).plusYears(1), series.getDayOfMonth());
+        };
+    }
+
+    // Identifies an occurrence within its series: "2025-03", "2025-W12" or "2025"
+    public static String periodKey(Frequency frequency, LocalDate occurrence) {
+        return switch (frequency) {
+            case WEEKLY -> String.format("%d-W%02d",
+                    occurrence.get(IsoFields.WEEK_BASED_YEAR), occurrence.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            case MONTHLY -> YearMonth.from(occurrence).toString();
+            case YEARLY -> String.valueOf(occurrence.getYear());
+        };
+    }
+
+    private static LocalDate dayIn(YearMonth month, int dayOfMonth) {
+        return month.atDay(Math.min(dayOfMonth, month.lengthOfMonth()));
+    }
+}
@@ -0,0 +1,237 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.dto.RecurringExpenseRequest;
+import com.symptocare.backend.model.Expense;
+import com.symptocare.backend.model.RecurringExpense;
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.BulkInsertRepository;
+import com.symptocare.backend.repository.RecurringExpenseRepository;
+import com.symptocare.backend.repository.UserRepository;
+import com.symptocare.backend.service.ResourceVersions.Domain;
+import com.symptocare.backend.util.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Recurring expenses: the series themselves, and the job that turns due occurrences into
+// expenses. The job walks due series in keyset pages (all users), writes each page's
+// occurrences with one batched insert in one transaction, and stops after max-runtime —
+// whatever is left is still due on the next run. Occurrences are unique per
+// (series, period), so a page retried after a crash writes nothing twice.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecurringExpenseService {
+
+    private static final int PAGE_SIZE = 500;
+    // Occurrences per series per run — a long-overdue weekly series catches up over several runs
+    private static final int MAX_CATCH_UP = 60;
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final UserRepository userRepository;
+    private final BulkInsertRepository bulkInsertRepository;
+    private final BudgetTracker budgetTracker;
+    private final SpendingInsights spendingInsights;
+    private final ResourceVersions resourceVersions;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${expense.recurring.max-runtime:5m}")
+    private Duration maxRuntime;
+
+    private User getUser(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    // ─── Series ───────────────────────────────────────────────────────────────
+
+    // Anything already due (start date today or earlier) is materialized right away
+    public Map<String, Object> create(String email, RecurringExpenseRequest request) {
+        User user = getUser(email);
+        LocalDate start = request.getStartDate() != null ? request.getStartDate() : LocalDate.now();
+        if (request.getEndDate() != null && request.getEndDate().isBefore(start)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+
+        RecurringExpense series = RecurringExpense.builder()
+                .user(user)
+                .amount(request.getAmount())
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .category(request.getCategory())
+                .paymentMethod(request.getPaymentMethod())
+                .frequency(request.getFrequency())
+                .dayOfMonth(request.getDayOfMonth() != null ? request.getDayOfMonth() : start.getDayOfMonth())
+                .dayOfWeek(request.getDayOfWeek() != null ? request.getDayOfWeek() : start.getDayOfWeek().getValue())
+                .monthOfYear(request.getMonthOfYear() != null ? request.getMonthOfYear() : start.getMonthValue())
+                .startDate(start)
+                .endDate(request.getEndDate())
+                .active(true)
+                .build();
+        series.setNextDueDate(RecurrenceSchedule.firstOnOrAfter(series, start));
+        if (request.getEndDate() != null && series.getNextDueDate().isAfter(request.getEndDate())) {
+            throw new RuntimeException("No occurrence falls between start and end date");
+        }
+        RecurringExpense saved = recurringExpenseRepository.save(series);
+        // Upcoming recurring spend is part of the current month's stats
+        resourceVersions.bump(email, Domain.EXPENSES);
+
+        if (!saved.getNextDueDate().isAfter(LocalDate.now())) {
+            materializePage(List.of(saved), LocalDate.now());
+        }
+        return toMap(saved);
+    }
+
+    public List<Map<String, Object>> getAll(String email) {
+        User user = getUser(email);
+        return recurringExpenseRepository.findByUserOrderByCreatedAtDesc(user).stream()
+                .map(this::toMap)
+                .toList();
+    }
+
+    // Stops future occurrences; ones already generated stay as normal expenses
+    public void cancel(String email, Long id) {
+        User user = getUser(email);
+        RecurringExpense series = recurringExpenseRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new RuntimeException("Recurring expense not found"));
+        series.setActive(false);
+        recurringExpenseRepository.save(series);
+        resourceVersions.bump(email, Domain.EXPENSES);
+    }
+
+    // Paise of this month's occurrences not materialized yet — still to come, or due
+    // but waiting for the next job run
+    public long upcomingThisMonth(User user, LocalDate today) {
+        YearMonth month = YearMonth.from(today);
+        LocalDate monthEnd = month.atEndOfMonth();
+        long paise = 0;
+        for (RecurringExpense series : recurringExpenseRepository.findByUserAndActiveTrue(user)) {
+            long amount = Money.toPaise(series.getAmount());
+            LocalDate due = series.getNextDueDate().isBefore(month.atDay(1))
+                    ? RecurrenceSchedule.firstOnOrAfter(series, month.atDay(1))
+                    : series.getNextDueDate();
+            for (; !due.isAfter(monthEnd); due = RecurrenceSchedule.nextAfter(series, due)) {
+                if (series.getEndDate() != null && due.isAfter(series.getEndDate())) break;
+                paise += amount;
+            }
+        }
+        return paise;
+    }
+
+    // ─── Materialization job ──────────────────────────────────────────────────
+
+    public void materializeDue() {
+        LocalDate today = LocalDate.now();
+        long deadline = System.nanoTime() + maxRuntime.toNanos();
+        long lastId = 0;
+        int series = 0;
+        int written = 0;
+        boolean finished = false;
+
+        while (System.nanoTime() < deadline) {
+            List<RecurringExpense> page = recurringExpenseRepository
+                    .findDuePage(today, lastId, PageRequest.of(0, PAGE_SIZE));
+            if (page.isEmpty()) {
+                finished = true;
+                break;
+            }
+
+            try {
+                written += materializePage(page, today);
+            } catch (RuntimeException e) {
+                log.error("Recurring expenses page after id {} failed: {}", lastId, e.getMessage());
+            }
+            series += page.size();
+            lastId = page.get(page.size() - 1).getId();
+        }
+
+        if (!finished) {
+            log.warn("Recurring expense run hit its {} limit after id {} — continuing next run", maxRuntime, lastId);
+        }
+        log.info("Recurring expenses done → series: {} | occurrences written: {}", series, written);
+    }
+
+    // Due occurrences of a page in one transaction: batched insert + advanced nextDueDate
+    private int materializePage(List<RecurringExpense> page, LocalDate today) {
+        List<Expense> occurrences = new ArrayList<>();
+        Map<Long, User> users = new HashMap<>();
+        Map<Long, Set<YearMonth>> months = new HashMap<>();
+
+        for (RecurringExpense series : page) {
+            LocalDate due = series.getNextDueDate();
+            int generated = 0;
+            while (!due.isAfter(today) && generated < MAX_CATCH_UP) {
+                if (series.getEndDate() != null && due.isAfter(series.getEndDate())) break;
+                occurrences.add(occurrence(series, due));
+                users.put(series.getUser().getId(), series.getUser());
+                months.computeIfAbsent(series.getUser().getId(), id -> new HashSet<>()).add(YearMonth.from(due));
+                generated++;
+                due = RecurrenceSchedule.nextAfter(series, due);
+            }
+            series.setNextDueDate(due);
+            if (series.getEndDate() != null && due.isAfter(series.getEndDate())) series.setActive(false);
+        }
+
+        Integer written = transactionTemplate.execute(status -> {
+            int count = bulkInsertRepository.insertRecurringOccurrences(occurrences);
+            recurringExpenseRepository.saveAll(page);
+            return count;
+        });
+
+        // Budget alerts for the months that just received expenses
+        users.forEach((id, user) -> {
+            budgetTracker.recheck(user, months.get(id));
+            spendingInsights.invalidate(user);
+            resourceVersions.bump(user.getEmail(), Domain.EXPENSES);
+        });
+        return written != null ? written : 0;
+    }
+
+    private Expense occurrence(RecurringExpense series, LocalDate date) {
+        return Expense.builder()
+                .user(series.getUser())
+                .amount(series.getAmount())
+                .title(series.getTitle())
+                .description(series.getDescription())
+                .category(series.getCategory())
+                .paymentMethod(series.getPaymentMethod())
+                .expenseDate(date)
+                .isRecurring(true)
+                .recurrenceId(series.getId())
+                .recurrencePeriod(RecurrenceSchedule.periodKey(series.getFrequency(), date))
+                .build();
+    }
+
+    private Map<String, Object> toMap(RecurringExpense series) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", series.getId());
+        map.put("title", series.getTitle());
+        map.put("amount", series.getAmount());
+        map.put("amountFormatted", Money.format(series.getAmount()));
+        map.put("category", series.getCategory());
+        map.put("paymentMethod", series.getPaymentMethod());
+        map.put("frequency", series.getFrequency());
+        map.put("dayOfMonth", series.getDayOfMonth());
+        map.put("dayOfWeek", series.getDayOfWeek());
+        map.put("monthOfYear", series.getMonthOfYear());
+        map.put("startDate", series.getStartDate());
+        map.put("endDate", series.getEndDate());
+        map.put("nextDueDate", series.getNextDueDate());
+        map.put("active", series.isActive());
+        return map;
+    }
+}
@@ -0,0 +1,59 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.util.Transactions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Per-user, per-domain version counters behind the ETags of the polled dashboard endpoints.
+// Every write to a domain bumps the user's counter, so a request whose If-None-Match still
+// matches can be answered 304 without touching the database.
+// The ETag also carries this process's epoch — counters restart at 0, so tags from before a
+// restart never match — and today's date, for endpoints whose answer changes with the day
+// ("today's tasks", "this month").
+// Single instance only: the counters live in this JVM and only see writes made through it.
+// Behind a load balancer, a write handled by another instance would leave this one's counter
+// unchanged and a poll landing here would get a stale 304 — so with the broker relay on
+// (the multi-instance setup) there are no ETags and every poll is answered from the database.
+@Component
+public class ResourceVersions {
+
+    public enum Domain { EXPENSES, TASKS, NOTIFICATIONS }
+
+    private static final Domain[] DOMAINS = Domain.values();
+
+    @Value("${websocket.broker.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    // Keyed by email — what the controllers have without a lookup
+    private final Map<String, AtomicLongArray> versions = new ConcurrentHashMap<>();
+
+    // After the surrounding transaction commits (right away if there is none): bumping earlier
+    // would let a concurrent read tag the old rows with the new version
+    public void bump(String email, Domain domain) {
+        Transactions.afterCommit(() -> increment(email, domain));
+    }
+
+    // Weak, since the body is rebuilt on every 200 and may differ in insignificant ways.
+    // Null with the relay on: checkNotModified(null) never matches and eTag(null) sets no header.
+    public String etag(String email, Domain domain) {
+        if (relayEnabled) return null;
+        AtomicLongArray counters = versions.get(email);
+        long version = counters != null ? counters.get(domain.ordinal()) : 0;
+        return "W/\"" + domain.name().toLowerCase(Locale.ROOT) + "-" + epoch + "-" + version
+                + "-" + LocalDate.now().toEpochDay() + "\"";
+    }
+
+    private void increment(String email, Domain domain) {
+        versions.computeIfAbsent(email, key -> new AtomicLongArray(DOMAINS.length))
+                .incrementAndGet(domain.ordinal());
+    }
+}
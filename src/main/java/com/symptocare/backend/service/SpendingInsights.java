@@ -0,0 +1,259 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.Expense;
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.model.Notification.NotificationType;
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.ExpenseRepository;
+import com.symptocare.backend.util.Money;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// End-of-month forecasts and anomaly scores per category, from a SpendingModel per user.
+// A model is replayed from the last 13 months of expenses on first use and then fed each new
+// expense as it is created; edits, deletes and bulk writes drop it so it reloads, and
+// expense.insights.ttl bounds how long any model lives.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SpendingInsights {
+
+    private static final ExpenseCategory[] CATEGORIES = ExpenseCategory.values();
+
+    private final ExpenseRepository expenseRepository;
+    private final NotificationService notificationService;
+    private final PlatformTransactionManager transactionManager;
+
+    // Amounts per category the median / MAD are taken over
+    @Value("${expense.insights.window:64}")
+    private int window;
+
+    @Value("${expense.insights.ttl:30m}")
+    private Duration ttl;
+
+    @Value("${expense.insights.max-entries:5000}")
+    private int maxEntries;
+
+    // Weight of the latest completed month in the EWMA
+    @Value("${expense.forecast.alpha:0.3}")
+    private double alpha;
+
+    // Modified z-score above which an expense counts as unusual (3.5 is the usual cut-off)
+    @Value("${expense.anomaly.threshold:3.5}")
+    private double threshold;
+
+    // No verdicts until a category has this many amounts to compare against
+    @Value("${expense.anomaly.min-samples:10}")
+    private int minSamples;
+
+    @Value("${expense.anomaly.notify:true}")
+    private boolean notify;
+
+    private static final class Entry {
+        final SpendingModel model;
+        final long loadedAt = System.nanoTime();
+
+        Entry(SpendingModel model) {
+            this.model = model;
+        }
+    }
+
+    private final Map<Long, Entry> models = new ConcurrentHashMap<>();
+
+    // Streaming the history needs an open connection, also when called outside a transaction
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    public void init() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    // ─── Expense changes ──────────────────────────────────────────────────────
+
+    // Score the new expense against the user's usual spend in its category, then add it.
+    // Call after it is written — a model loaded here already includes it, and robust
+    // statistics barely move for one extra amount.
+    public void created(User user, Expense expense) {
+        try {
+            Loaded loaded = model(user);
+            SpendingModel model = loaded.entry().model;
+            int c = expense.getCategory().ordinal();
+            long paise = Money.toPaise(expense.getAmount());
+
+            double score;
+            long median;
+            synchronized (model) {
+                score = model.samples(c) >= minSamples ? model.score(c, paise) : Double.NaN;
+                median = model.median(c);
+                if (!loaded.fresh()) model.add(monthIndex(expense.getExpenseDate()), c, paise);
+            }
+            if (notify && score >= threshold) sendAlert(user, expense, median);
+        } catch (Exception e) {
+            // Insights must never fail the expense write itself
+            log.warn("Spending insights failed for user {} — {}", user.getId(), e.getMessage());
+        }
+    }
+
+    // Anything other than a single new expense: rebuild from the database on next use
+    public void invalidate(User user) {
+        models.remove(user.getId());
+    }
+
+    // ─── Queries ──────────────────────────────────────────────────────────────
+
+    // Per category: spent so far this month, the EWMA and seasonal-naive baselines, and the
+    // forecast — spent so far plus the baseline's share for the days left. Without history
+    // the month-to-date run rate is extrapolated instead.
+    public Map<String, Object> forecast(User user, LocalDate today) {
+        SpendingModel model = model(user).entry().model;
+        YearMonth month = YearMonth.from(today);
+        int current = monthIndex(today);
+        double remaining = 1 - today.getDayOfMonth() / (double) month.lengthOfMonth();
+
+        List<Map<String, Object>> categories = new ArrayList<>();
+        long totalSpent = 0;
+        long totalForecast = 0;
+        synchronized (model) {
+            for (int c = 0; c < CATEGORIES.length; c++) {
+                long spent = model.monthTotal(current, c);
+                long ewma = model.ewma(current, c, alpha);
+                long seasonal = model.seasonalNaive(current, c);
+                if (spent == 0 && ewma == 0 && seasonal < 0) continue;
+
+                String method;
+                long baseline;
+                if (ewma > 0 && seasonal >= 0) {
+                    method = "EWMA_SEASONAL";
+                    baseline = (ewma + seasonal) / 2;
+                } else if (ewma > 0) {
+                    method = "EWMA";
+                    baseline = ewma;
+                } else {
+                    method = "RUN_RATE";
+                    baseline = Math.round(spent / (1 - remaining));
+                }
+                long forecast = spent + Math.round(baseline * remaining);
+
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("category", CATEGORIES[c]);
+                row.put("spent", Money.toRupees(spent));
+                row.put("ewma", ewma > 0 ? Money.toRupees(ewma) : null);
+                row.put("seasonalNaive", seasonal >= 0 ? Money.toRupees(seasonal) : null);
+                row.put("forecast", Money.toRupees(forecast));
+                row.put("forecastFormatted", Money.format(forecast));
+                row.put("method", method);
+                categories.add(row);
+                totalSpent += spent;
+                totalForecast += forecast;
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("month", month.toString());
+        result.put("daysElapsed", today.getDayOfMonth());
+        result.put("daysInMonth", month.lengthOfMonth());
+        result.put("spent", Money.toRupees(totalSpent));
+        result.put("forecast", Money.toRupees(totalForecast));
+        result.put("forecastFormatted", Money.format(totalForecast));
+        result.put("categories", categories);
+        return result;
+    }
+
+    // Expenses since a date scoring above the threshold in their category, newest first
+    public List<Map<String, Object>> anomalies(User user, LocalDate since) {
+        SpendingModel model = model(user).entry().model;
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Expense expense : expenseRepository.findByUserAndExpenseDateGreaterThanEqualOrderByExpenseDateDesc(user, since)) {
+            int c = expense.getCategory().ordinal();
+            double score;
+            long median;
+            synchronized (model) {
+                if (model.samples(c) < minSamples) continue;
+                score = model.score(c, Money.toPaise(expense.getAmount()));
+                median = model.median(c);
+            }
+            if (!(score >= threshold)) continue;
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", expense.getId());
+            row.put("title", expense.getTitle());
+            row.put("amount", expense.getAmount());
+            row.put("amountFormatted", Money.format(expense.getAmount()));
+            row.put("category", expense.getCategory());
+            row.put("expenseDate", expense.getExpenseDate());
+            row.put("score", Math.round(score * 10) / 10.0);
+            row.put("typicalAmount", Money.toRupees(median));
+            out.add(row);
+        }
+        return out;
+    }
+
+    // ─── Internals ────────────────────────────────────────────────────────────
+
+    private record Loaded(Entry entry, boolean fresh) {}
+
+    private Loaded model(User user) {
+        Entry entry = models.get(user.getId());
+        if (entry != null && System.nanoTime() - entry.loadedAt < ttl.toNanos()) {
+            return new Loaded(entry, false);
+        }
+
+        entry = new Entry(load(user));
+        if (models.size() >= maxEntries) evict();
+        models.put(user.getId(), entry);
+        return new Loaded(entry, true);
+    }
+
+    // Replays 12 full months plus this one, oldest first, so each window ends up holding
+    // the category's most recent amounts
+    private SpendingModel load(User user) {
+        SpendingModel model = new SpendingModel(window);
+        LocalDate from = LocalDate.now().withDayOfMonth(1).minusMonths(12);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = expenseRepository.streamForSpendingModel(user, from)) {
+                rows.forEach(row -> model.add(monthIndex((LocalDate) row[0]),
+                        ((ExpenseCategory) row[2]).ordinal(), Money.toPaise((BigDecimal) row[1])));
+            }
+        });
+        return model;
+    }
+
+    private static int monthIndex(LocalDate date) {
+        return SpendingModel.monthIndex(date.getYear(), date.getMonthValue());
+    }
+
+    private void sendAlert(User user, Expense expense, long median) {
+        String category = expense.getCategory().name().charAt(0)
+                + expense.getCategory().name().substring(1).toLowerCase(Locale.ROOT);
+        String message = Money.format(expense.getAmount()) + " for \"" + expense.getTitle()
+                + "\" is well above your usual " + category.toLowerCase(Locale.ROOT)
+                + " spend of around " + Money.format(median) + ".";
+        notificationService.createAndPush(user, "Unusual " + category.toLowerCase(Locale.ROOT) + " expense",
+                message, NotificationType.EXPENSE_ALERT, expense.getId());
+    }
+
+    // Expired models first; if that isn't enough, start over — every model reloads on demand
+    private void evict() {
+        long now = System.nanoTime();
+        models.values().removeIf(entry -> now - entry.loadedAt >= ttl.toNanos());
+        if (models.size() >= maxEntries) models.clear();
+    }
+}
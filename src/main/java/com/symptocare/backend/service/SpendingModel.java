@@ -0,0 +1,158 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+
+import java.util.Arrays;
+
+// One user's spending statistics per category, updated one expense at a time:
+//  - the last `window` amounts, kept sorted → median and MAD for a robust z-score
+//  - totals of the last 13 months → EWMA and seasonal-naive (same month last year) forecasts
+// An insert is a binary search plus an array shift within the window; nothing is re-read.
+// Not thread-safe — callers synchronize on the instance.
+public final class SpendingModel {
+
+    private static final int C = ExpenseCategory.values().length;
+    private static final int MONTHS = 13;   // this month + 12 before, for the seasonal lag
+    // Scales MAD to a standard deviation for normally distributed data
+    private static final double MAD_SCALE = 0.6745;
+
+    private final int window;
+    // Per category, allocated on its first amount: ascending values (first count[c] used),
+    // and the same values in insertion order — which decides what to evict
+    private final long[][] sorted = new long[C][];
+    private final long[][] ring = new long[C][];
+    private final int[] count = new int[C];
+    private final int[] head = new int[C];
+
+    private final int[] monthKey = new int[MONTHS];        // month index held by each slot
+    private final long[][] monthTotals = new long[MONTHS][C];
+
+    public SpendingModel(int window) {
+        this.window = window;
+        Arrays.fill(monthKey, Integer.MIN_VALUE);
+    }
+
+    // Months as a single int (year * 12 + month - 1), so consecutive months differ by 1
+    public static int monthIndex(int year, int month) {
+        return year * 12 + month - 1;
+    }
+
+    public void add(int monthIndex, int category, long paise) {
+        int slot = Math.floorMod(monthIndex, MONTHS);
+        if (monthKey[slot] < monthIndex) {
+            // Slot held a month 13+ ago — reuse it
+            monthKey[slot] = monthIndex;
+            Arrays.fill(monthTotals[slot], 0);
+        }
+        // An amount older than every tracked month still counts towards the window
+        if (monthKey[slot] == monthIndex) monthTotals[slot][category] += paise;
+
+        if (sorted[category] == null) {
+            sorted[category] = new long[window];
+            ring[category] = new long[window];
+        }
+        long[] values = sorted[category];
+        int n = count[category];
+        if (n == window) {
+            // Evict the oldest amount
+            long oldest = ring[category][head[category]];
+            int at = Arrays.binarySearch(values, 0, n, oldest);
+            System.arraycopy(values, at + 1, values, at, n - at - 1);
+            n--;
+        }
+        int at = Arrays.binarySearch(values, 0, n, paise);
+        if (at < 0) at = -at - 1;
+        System.arraycopy(values, at, values, at + 1, n - at);
+        values[at] = paise;
+        count[category] = n + 1;
+
+        ring[category][head[category]] = paise;
+        head[category] = (head[category] + 1) % window;
+    }
+
+    public int samples(int category) {
+        return count[category];
+    }
+
+    public long median(int category) {
+        long[] values = sorted[category];
+        int n = count[category];
+        if (n == 0) return 0;
+        return (n & 1) == 1 ? values[n / 2] : (values[n / 2 - 1] + values[n / 2]) / 2;
+    }
+
+    // Modified z-score of an amount against the category's window: 0.6745 · (x − median) / MAD.
+    // NaN while there is no spread to compare against (fewer than 2 amounts, or all equal).
+    public double score(int category, long paise) {
+        int n = count[category];
+        if (n < 2) return Double.NaN;
+        long median = median(category);
+        long mad = mad(category, median);
+        if (mad == 0) return Double.NaN;
+        return MAD_SCALE * (paise - median) / mad;
+    }
+
+    // Median absolute deviation without sorting: deviations grow outward from the median
+    // on both sides, so merging the two runs finds the middle one in O(n / 2)
+    private long mad(int category, long median) {
+        long[] values = sorted[category];
+        int n = count[category];
+        int right = lowerBound(values, n, median);
+        int left = right - 1;
+
+        int target = (n - 1) / 2;   // lower median of the deviations
+        long previous = 0;
+        for (int i = 0; i <= target + ((n & 1) == 0 ? 1 : 0); i++) {
+            long deviation;
+            if (left < 0) {
+                deviation = values[right++] - median;
+            } else if (right >= n) {
+                deviation = median - values[left--];
+            } else if (median - values[left] <= values[right] - median) {
+                deviation = median - values[left--];
+            } else {
+                deviation = values[right++] - median;
+            }
+            if (i == target && (n & 1) == 1) return deviation;
+            if (i == target) previous = deviation;
+            if (i == target + 1) return (previous + deviation) / 2;
+        }
+        return previous;
+    }
+
+    private static int lowerBound(long[] values, int n, long key) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    public long monthTotal(int monthIndex, int category) {
+        int slot = Math.floorMod(monthIndex, MONTHS);
+        return monthKey[slot] == monthIndex ? monthTotals[slot][category] : 0;
+    }
+
+    // EWMA of the completed months before `monthIndex`, oldest first, starting at the first
+    // month with any spending in the category; 0 when there is no history
+    public long ewma(int monthIndex, int category, double alpha) {
+        double average = Double.NaN;
+        for (int m = monthIndex - (MONTHS - 1); m < monthIndex; m++) {
+            long total = monthTotal(m, category);
+            if (Double.isNaN(average)) {
+                if (total != 0) average = total;
+            } else {
+                average = alpha * total + (1 - alpha) * average;
+            }
+        }
+        return Double.isNaN(average) ? 0 : Math.round(average);
+    }
+
+    // The same month last year, or -1 if nothing was spent then
+    public long seasonalNaive(int monthIndex, int category) {
+        long total = monthTotal(monthIndex - 12, category);
+        return total != 0 ? total : -1;
+    }
+}
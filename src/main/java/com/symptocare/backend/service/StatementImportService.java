@@ -0,0 +1,311 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.Expense;
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.BulkInsertRepository;
+import com.symptocare.backend.repository.ExpenseRepository;
+import com.symptocare.backend.repository.UserRepository;
+import com.symptocare.backend.service.ResourceVersions.Domain;
+import com.symptocare.backend.service.StatementParser.CsvLayout;
+import com.symptocare.backend.service.StatementParser.Format;
+import com.symptocare.backend.service.StatementParser.RawRecord;
+import com.symptocare.backend.service.StatementParser.RecordReader;
+import com.symptocare.backend.service.StatementParser.Row;
+import com.symptocare.backend.util.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+// Bank statement import (CSV / OFX) into expenses
+// The file is read as a stream: records are cut sequentially, parsed in parallel chunks
+// (at most chunks-in-flight at a time), then deduplicated and inserted in batches —
+// memory stays bounded however many rows the file has. Progress goes to the user over
+// WebSocket at /user/queue/import-progress.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatementImportService {
+
+    private static final int CHUNK_SIZE = 1000;   // records per parse task
+    private static final int BATCH_SIZE = 1000;   // rows per insert transaction
+    private static final int MAX_REPORTED_ERRORS = 50;
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final BulkInsertRepository bulkInsertRepository;
+    private final StatementParser statementParser;
+    private final ExpenseCategorizer expenseCategorizer;
+    private final TransactionTemplate transactionTemplate;
+    private final BudgetTracker budgetTracker;
+    private final SpendingInsights spendingInsights;
+    private final ResourceVersions resourceVersions;
+
+    // Optional — won't crash if WebSocket is not configured
+    @Autowired(required = false)
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${expense.import.parse-threads:2}")
+    private int parseThreads;
+
+    // Parsed chunks waiting to be written — bounds memory on large files
+    @Value("${expense.import.chunks-in-flight:4}")
+    private int chunksInFlight;
+
+    private ExecutorService parsePool;
+
+    @PostConstruct
+    public void startParsers() {
+        parsePool = Executors.newFixedThreadPool(parseThreads, r -> {
+            Thread thread = new Thread(r, "statement-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsePool.shutdownNow();
+    }
+
+    // Progress of one import, also the final report
+    private static class ImportState {
+        final String importId = UUID.randomUUID().toString();
+        final String email;
+        Format format;
+        long rowsRead;
+        long imported;
+        long duplicates;
+        long skippedCredits;
+        long failed;
+        final List<String> errors = new ArrayList<>();
+        final List<Expense> batch = new ArrayList<>(BATCH_SIZE);
+        final Set<YearMonth> months = new HashSet<>();
+
+        ImportState(String email) {
+            this.email = email;
+        }
+
+        Map<String, Object> toMap(boolean done) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("importId", importId);
+            map.put("format", format != null ? format.name() : null);
+            map.put("rowsRead", rowsRead);
+            map.put("imported", imported);
+            map.put("duplicates", duplicates);
+            map.put("skippedCredits", skippedCredits);
+            map.put("failed", failed);
+            map.put("done", done);
+            if (done) map.put("errors", errors);
+            return map;
+        }
+    }
+
+    public Map<String, Object> importStatement(String email, MultipartFile file,
+                                               boolean positiveDebits) throws IOException {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        ImportState state = new ImportState(email);
+        Map<Long, Integer> existing = existingKeys(user);
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8), 64 * 1024)) {
+
+            reader.mark(8192);
+            String firstLine = stripBom(reader.readLine());
+            reader.reset();
+            state.format = statementParser.detect(file.getOriginalFilename(), firstLine);
+
+            RecordReader records;
+            CsvLayout layout = null;
+            if (state.format == Format.CSV) {
+                records = statementParser.csvRecords(reader);
+                RawRecord header = records.next();
+                if (header == null) throw new RuntimeException("Statement is empty");
+                layout = statementParser.csvLayout(stripBom(header.text()), positiveDebits);
+            } else {
+                records = statementParser.ofxRecords(reader);
+            }
+
+            CsvLayout csvLayout = layout;
+            Deque<Future<List<Row>>> inFlight = new ArrayDeque<>();
+            List<RawRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+            RawRecord record;
+
+            while ((record = records.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() < CHUNK_SIZE) continue;
+
+                inFlight.add(submit(chunk, csvLayout));
+                chunk = new ArrayList<>(CHUNK_SIZE);
+                if (inFlight.size() >= chunksInFlight) {
+                    write(user, state, existing, await(inFlight.poll()));
+                }
+            }
+            if (!chunk.isEmpty()) inFlight.add(submit(chunk, csvLayout));
+            while (!inFlight.isEmpty()) {
+                write(user, state, existing, await(inFlight.poll()));
+            }
+            flush(state);
+        } finally {
+            // Budget alerts for whatever was imported, even if the import stopped early
+            budgetTracker.recheck(user, state.months);
+            spendingInsights.invalidate(user);
+            resourceVersions.bump(user.getEmail(), Domain.EXPENSES);
+        }
+
+        Map<String, Object> report = state.toMap(true);
+        pushProgress(state, report);
+        log.info("Statement import {} for user {} → read: {} | imported: {} | duplicates: {} | failed: {}",
+                state.importId, email, state.rowsRead, state.imported, state.duplicates, state.failed);
+        return report;
+    }
+
+    // ─── Pipeline ─────────────────────────────────────────────────────────────
+
+    private Future<List<Row>> submit(List<RawRecord> chunk, CsvLayout layout) {
+        return parsePool.submit(() -> {
+            List<Row> rows = new ArrayList<>(chunk.size());
+            for (RawRecord raw : chunk) {
+                rows.add(layout != null ? statementParser.parseCsv(raw, layout) : statementParser.parseOfx(raw));
+            }
+            return rows;
+        });
+    }
+
+    private List<Row> await(Future<List<Row>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Import interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Statement parsing failed: " + e.getCause().getMessage());
+        }
+    }
+
+    // A row is a duplicate while the user still has an unmatched expense with the same key.
+    // Each existing expense matches one row, so repeats within the file (two identical coffees
+    // on the same day) are all imported, and re-importing the file imports none of them.
+    // Chunks are written in file order, so deduplication is deterministic
+    private void write(User user, ImportState state, Map<Long, Integer> existing, List<Row> rows) {
+        for (Row row : rows) {
+            state.rowsRead++;
+            if (row == null) {
+                state.skippedCredits++;
+                continue;
+            }
+            if (row.error() != null) {
+                state.failed++;
+                if (state.errors.size() < MAX_REPORTED_ERRORS) {
+                    state.errors.add("Line " + row.line() + ": " + row.error());
+                }
+                continue;
+            }
+
+            String title = row.title().length() > MAX_TITLE_LENGTH
+                    ? row.title().substring(0, MAX_TITLE_LENGTH) : row.title();
+            long key = dedupKey(row.date(), row.amount(), title);
+            Integer unmatched = existing.remove(key);
+            if (unmatched != null) {
+                if (unmatched > 1) existing.put(key, unmatched - 1);
+                state.duplicates++;
+                continue;
+            }
+
+            state.batch.add(Expense.builder()
+                    .user(user)
+                    .amount(row.amount())
+                    .title(title)
+                    .category(expenseCategorizer.categorize(row.title()))
+                    .paymentMethod(expenseCategorizer.paymentMethod(row.title()))
+                    .expenseDate(row.date())
+                    .isRecurring(false)
+                    .build());
+            if (state.batch.size() >= BATCH_SIZE) flush(state);
+        }
+    }
+
+    // One transaction per batch — an interrupted import keeps what it wrote, and a
+    // re-run skips those rows as duplicates
+    private void flush(ImportState state) {
+        if (state.batch.isEmpty()) return;
+        transactionTemplate.executeWithoutResult(status -> bulkInsertRepository.insertExpenses(state.batch));
+        state.imported += state.batch.size();
+        state.batch.forEach(expense -> state.months.add(YearMonth.from(expense.getExpenseDate())));
+        state.batch.clear();
+        pushProgress(state, state.toMap(false));
+    }
+
+    private void pushProgress(ImportState state, Map<String, Object> progress) {
+        if (messagingTemplate == null) return;
+        try {
+            messagingTemplate.convertAndSendToUser(state.email, "/queue/import-progress", progress);
+        } catch (Exception e) {
+            log.debug("Import progress push failed for user: {} — {}", state.email, e.getMessage());
+        }
+    }
+
+    // ─── Deduplication ────────────────────────────────────────────────────────
+
+    // 64-bit keys of the user's existing expenses → how many expenses have each,
+    // streamed rather than loaded as entities
+    private Map<Long, Integer> existingKeys(User user) {
+        Map<Long, Integer> keys = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = expenseRepository.streamDedupKeys(user)) {
+                rows.forEach(row -> keys.merge(
+                        dedupKey((LocalDate) row[0], (BigDecimal) row[1], (String) row[2]), 1, Integer::sum));
+            }
+        });
+        return keys;
+    }
+
+    // (date, amount, title) → FNV-1a 64; amounts compare as paise, titles case-insensitively
+    private long dedupKey(LocalDate date, BigDecimal amount, String title) {
+        long hash = 0xcbf29ce484222325L;
+        hash = (hash ^ date.toEpochDay()) * 0x100000001b3L;
+        hash = (hash ^ Money.toPaise(amount)) * 0x100000001b3L;
+        String key = title.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private String stripBom(String text) {
+        return text != null && text.startsWith("\uFEFF") ? text.substring(1) : text;
+    }
+}
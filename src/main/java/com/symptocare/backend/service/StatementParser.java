@@ -0,0 +1,313 @@
+package com.symptocare.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Streaming parser for bank statements (CSV and OFX)
+// Reading is split in two so parsing can run in parallel:
+//  - a RecordReader cuts the stream into raw records (a CSV row / an OFX <STMTTRN> block), sequentially
+//  - parse() turns one raw record into a Row, and is safe to call from any thread
+// Only debits become rows; credits are skipped.
+@Component
+public class StatementParser {
+
+    public enum Format { CSV, OFX }
+
+    // One raw record and the line it starts on
+    public record RawRecord(long line, String text) {}
+
+    // A debit from the statement, or an error for a record that couldn't be read
+    public record Row(long line, LocalDate date, BigDecimal amount, String title, String error) {
+        static Row error(long line, String error) {
+            return new Row(line, null, null, null, error);
+        }
+    }
+
+    public interface RecordReader {
+        // Next raw record, or null at the end of the stream
+        RawRecord next() throws IOException;
+    }
+
+    // Column positions found from the CSV header.
+    // positiveDebits: a lone amount column lists money out as positive numbers (expense-tracker exports)
+    public record CsvLayout(int date, int title, int amount, int debit, int credit, int type, boolean positiveDebits) {}
+
+    // Longest CSV record (a row with multi-line quoted fields) before it's taken as an unclosed quote
+    private static final int MAX_CSV_RECORD_LENGTH = 64 * 1024;
+
+    private static final String OFX_OPEN = "<STMTTRN>";
+    private static final String OFX_CLOSE = "</STMTTRN>";
+    private static final Pattern OFX_FIELD = Pattern.compile("<(\\w+)>([^<\\r\\n]*)");
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            formatter("dd/MM/yyyy"), formatter("dd-MM-yyyy"), formatter("dd.MM.yyyy"),
+            formatter("dd/MM/yy"), formatter("dd-MM-yy"),
+            formatter("dd-MMM-yyyy"), formatter("dd MMM yyyy"), formatter("dd-MMM-yy"), formatter("dd MMM yy"),
+            formatter("yyyy/MM/dd"));
+
+    private static DateTimeFormatter formatter(String pattern) {
+        return new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern(pattern).toFormatter(Locale.ENGLISH);
+    }
+
+    public Format detect(String fileName, String firstLine) {
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".ofx") || name.endsWith(".qfx")) return Format.OFX;
+        if (firstLine != null && (firstLine.startsWith("OFXHEADER") || firstLine.trim().startsWith("<?xml")
+                || firstLine.trim().startsWith("<OFX"))) {
+            return Format.OFX;
+        }
+        return Format.CSV;
+    }
+
+    // ─── CSV ──────────────────────────────────────────────────────────────────
+
+    // Rows of a CSV stream; a quoted field may span several lines.
+    // A quote left open (a stray " in a narration) would otherwise swallow the rest of the
+    // file into one record, so a record is cut off at MAX_CSV_RECORD_LENGTH with an error.
+    public RecordReader csvRecords(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            String line = reader.readLine();
+            while (line != null && line.isBlank()) {
+                lineNumber[0]++;
+                line = reader.readLine();
+            }
+            if (line == null) return null;
+
+            long start = ++lineNumber[0];
+            StringBuilder record = new StringBuilder(line);
+            // "" inside a quoted field flips twice, so odd parity means a field is still open
+            boolean open = countQuotes(line) % 2 != 0;
+            while (open) {
+                String next = reader.readLine();
+                if (next == null) break;
+                lineNumber[0]++;
+                if (record.length() + 1 + next.length() > MAX_CSV_RECORD_LENGTH) {
+                    throw new RuntimeException("Line " + start + ": quoted field is never closed");
+                }
+                record.append('\n').append(next);
+                if (countQuotes(next) % 2 != 0) open = false;
+            }
+            return new RawRecord(start, record.toString());
+        };
+    }
+
+    // Finds the date / narration / amount columns by their usual header names
+    public CsvLayout csvLayout(String header, boolean positiveDebits) {
+        List<String> columns = splitCsv(header);
+        int date = -1, title = -1, amount = -1, debit = -1, credit = -1, type = -1;
+
+        for (int i = 0; i < columns.size(); i++) {
+            String name = columns.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+            if (date < 0 && (name.equals("date") || name.contains("txndate") || name.contains("transactiondate")
+                    || name.contains("valuedate") || name.contains("postingdate"))) {
+                date = i;
+            } else if (title < 0 && (name.contains("narration") || name.contains("description")
+                    || name.contains("particulars") || name.contains("details") || name.contains("remarks")
+                    || name.equals("title") || name.equals("payee") || name.equals("name"))) {
+                title = i;
+            } else if (debit < 0 && (name.contains("debit") || name.contains("withdrawal"))) {
+                debit = i;
+            } else if (credit < 0 && (name.contains("credit") || name.contains("deposit"))) {
+                credit = i;
+            } else if (amount < 0 && name.contains("amount")) {
+                amount = i;
+            } else if (type < 0 && (name.equals("type") || name.equals("drcr") || name.contains("transactiontype"))) {
+                type = i;
+            }
+        }
+
+        if (date < 0 || title < 0 || (amount < 0 && debit < 0)) {
+            throw new RuntimeException("Unrecognised CSV header — expected date, description and amount/debit columns");
+        }
+        return new CsvLayout(date, title, amount, debit, credit, type, positiveDebits);
+    }
+
+    public Row parseCsv(RawRecord record, CsvLayout layout) {
+        try {
+            List<String> fields = splitCsv(record.text());
+            LocalDate date = parseDate(field(fields, layout.date()));
+            String title = field(fields, layout.title()).replaceAll("\\s+", " ").trim();
+            if (date == null) return Row.error(record.line(), "Unreadable date");
+            if (title.isEmpty()) return Row.error(record.line(), "Missing description");
+
+            BigDecimal amount;
+            if (layout.debit() >= 0) {
+                // Separate debit / credit columns — rows with only a credit aren't expenses
+                amount = parseAmount(field(fields, layout.debit()));
+                if (amount == null || amount.signum() == 0) return null;
+                amount = amount.abs();
+            } else {
+                amount = parseAmount(field(fields, layout.amount()));
+                if (amount == null) return Row.error(record.line(), "Unreadable amount");
+
+                // Single amount column: marked DR / debit, or negative (positive if positiveDebits), is money out
+                String type = layout.type() >= 0 ? field(fields, layout.type()).toLowerCase(Locale.ROOT) : "";
+                boolean debit = !type.isEmpty()
+                        ? type.startsWith("d") || type.contains("debit")
+                        : layout.positiveDebits() ? amount.signum() > 0 : amount.signum() < 0;
+                if (!debit || amount.signum() == 0) return null;
+                amount = amount.abs();
+            }
+            return new Row(record.line(), date, amount, title, null);
+        } catch (RuntimeException e) {
+            return Row.error(record.line(), e.getMessage());
+        }
+    }
+
+    // RFC 4180 style split: quoted fields, "" as an escaped quote
+    List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    // ─── OFX ──────────────────────────────────────────────────────────────────
+
+    // <STMTTRN> ... </STMTTRN> blocks of an OFX (SGML or XML) stream
+    public RecordReader ofxRecords(BufferedReader reader) {
+        long[] lineNumber = {0};
+        // Rest of a line after a closing tag — single-line OFX files hold every block on one line
+        String[] pending = {null};
+        return () -> {
+            StringBuilder block = null;
+            long start = 0;
+            while (true) {
+                String line = pending[0];
+                pending[0] = null;
+                if (line == null) {
+                    line = reader.readLine();
+                    if (line == null) break;
+                    lineNumber[0]++;
+                }
+                String upper = line.toUpperCase(Locale.ROOT);
+
+                if (block == null) {
+                    int open = upper.indexOf(OFX_OPEN);
+                    if (open < 0) continue;
+                    block = new StringBuilder();
+                    start = lineNumber[0];
+                    line = line.substring(open + OFX_OPEN.length());
+                    upper = upper.substring(open + OFX_OPEN.length());
+                }
+
+                int close = upper.indexOf(OFX_CLOSE);
+                if (close >= 0) {
+                    block.append(line, 0, close);
+                    String rest = line.substring(close + OFX_CLOSE.length());
+                    if (!rest.isBlank()) pending[0] = rest;
+                    return new RawRecord(start, block.toString());
+                }
+                block.append(line).append('\n');
+            }
+            return block != null ? new RawRecord(start, block.toString()) : null;
+        };
+    }
+
+    public Row parseOfx(RawRecord record) {
+        try {
+            String posted = null, amountText = null, name = null, memo = null;
+            Matcher m = OFX_FIELD.matcher(record.text());
+            while (m.find()) {
+                String value = m.group(2).trim();
+                switch (m.group(1).toUpperCase(Locale.ROOT)) {
+                    case "DTPOSTED" -> posted = value;
+                    case "TRNAMT" -> amountText = value;
+                    case "NAME" -> name = value;
+                    case "MEMO" -> memo = value;
+                    default -> { }
+                }
+            }
+
+            if (posted == null || posted.length() < 8) return Row.error(record.line(), "Missing DTPOSTED");
+            LocalDate date = LocalDate.parse(posted.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+
+            BigDecimal amount = parseAmount(amountText);
+            if (amount == null) return Row.error(record.line(), "Unreadable TRNAMT");
+            if (amount.signum() >= 0) return null;   // credit
+
+            String title = name != null && !name.isEmpty() ? name : memo;
+            if (title == null || title.isEmpty()) return Row.error(record.line(), "Missing NAME / MEMO");
+            return new Row(record.line(), date, amount.abs(), title, null);
+        } catch (RuntimeException e) {
+            return Row.error(record.line(), e.getMessage());
+        }
+    }
+
+    // ─── Helpers ──────────────────────────────────────────────────────────────
+
+    private String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : "";
+    }
+
+    private LocalDate parseDate(String text) {
+        String value = text.trim();
+        if (value.length() > 10 && value.charAt(10) == ' ') value = value.substring(0, 10);   // "2025-03-15 10:42"
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+
+    // "₹1,234.50", "(450.00)", "-450", "450.00 DR" → BigDecimal (DR / brackets → negative)
+    private BigDecimal parseAmount(String text) {
+        if (text == null) return null;
+        String value = text.trim().toUpperCase(Locale.ROOT);
+        if (value.isEmpty()) return null;
+
+        boolean negative = value.startsWith("(") && value.endsWith(")") || value.endsWith("DR");
+        String digits = value.replaceAll("[^0-9.\\-]", "");
+        if (digits.isEmpty() || digits.equals("-") || digits.equals(".")) return null;
+
+        BigDecimal amount = new BigDecimal(digits);
+        return negative ? amount.abs().negate() : amount;
+    }
+
+    private int countQuotes(CharSequence text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,331 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.FileBlob;
+import com.symptocare.backend.model.FileEntry;
+import com.symptocare.backend.repository.FileBlobRepository;
+import com.symptocare.backend.repository.FileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Reconciles storage with the database:
+//  1. file_entries rows whose content is missing (dangling rows)
+//  2. file_blobs whose refCount is lower / higher than the rows using them
+//  3. files under file.upload-dir that nothing points at (orphans) and stale upload temp files
+// Rows are streamed in keyset pages and the upload dir is walked in parallel; every
+// storage / DB check is rate limited so a sweep never causes an I/O spike.
+// In dry-run mode (the default) it only reports.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageSweeper {
+
+    private static final int PAGE_SIZE = 200;
+    private static final List<String> METRICS = List.of(
+            "rowsScanned", "danglingRows", "blobsScanned", "refCountsRaised", "overCountedBlobs",
+            "filesScanned", "orphanFiles", "orphanBytes", "staleTempFiles", "repaired");
+
+    private final FileRepository fileRepository;
+    private final FileBlobRepository fileBlobRepository;
+    private final BlobService blobService;
+    private final FileService fileService;
+    private final MeterRegistry meterRegistry;
+
+    // Only report — nothing is deleted or changed
+    @Value("${file.sweeper.dry-run:true}")
+    private boolean dryRun;
+
+    // Upper bound on storage / DB checks per second
+    @Value("${file.sweeper.max-ops-per-second:500}")
+    private int maxOpsPerSecond;
+
+    @Value("${file.sweeper.parallelism:4}")
+    private int parallelism;
+
+    // Files and blobs younger than this are skipped — they may belong to an upload in progress
+    @Value("${file.sweeper.grace-period:1h}")
+    private Duration gracePeriod;
+
+    @Value("${file.sweeper.temp-max-age:24h}")
+    private Duration tempMaxAge;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    // Results of the last sweep, exported as storage.sweeper.* gauges
+    private final Map<String, AtomicLong> lastReport = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void registerMetrics() {
+        METRICS.forEach(name -> lastReport.put(name,
+                meterRegistry.gauge("storage.sweeper." + name, new AtomicLong())));
+    }
+
+    public Map<String, Object> getLastReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        lastReport.forEach((name, value) -> report.put(name, value.get()));
+        return report;
+    }
+
+    // Run one full sweep; returns the report (empty if a sweep is already running)
+    public Map<String, Object> sweep() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Storage sweep already running — skipped");
+            return Map.of();
+        }
+
+        long start = System.nanoTime();
+        Map<String, AtomicLong> report = new LinkedHashMap<>();
+        METRICS.forEach(name -> report.put(name, new AtomicLong()));
+
+        try {
+            Map<String, Long> references = new HashMap<>();
+            Set<Path> legacyFiles = ConcurrentHashMap.newKeySet();
+            scanRows(report, references, legacyFiles);
+
+            Set<String> storedKeys = ConcurrentHashMap.newKeySet();
+            Set<String> knownHashes = ConcurrentHashMap.newKeySet();
+            scanBlobs(report, references, storedKeys, knownHashes);
+
+            scanUploadDir(report, storedKeys, knownHashes, legacyFiles);
+        } catch (IOException | RuntimeException e) {
+            log.error("Storage sweep failed: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+
+        report.forEach((name, value) -> lastReport.get(name).set(value.get()));
+        meterRegistry.timer("storage.sweeper.duration").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        log.info("Storage sweep {}done in {} ms → {}", dryRun ? "(dry run) " : "",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), getLastReport());
+        return getLastReport();
+    }
+
+    // ─── 1. file_entries → storage ────────────────────────────────────────────
+
+    private void scanRows(Map<String, AtomicLong> report, Map<String, Long> references,
+                          Set<Path> legacyFiles) throws IOException {
+        Map<String, Boolean> keyExists = new HashMap<>();
+        LocalDateTime cutoff = LocalDateTime.now().minus(gracePeriod);
+        long lastId = 0;
+
+        while (true) {
+            List<FileEntry> page = fileRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, PAGE_SIZE));
+            if (page.isEmpty()) break;
+
+            for (FileEntry entry : page) {
+                lastId = entry.getId();
+                report.get("rowsScanned").incrementAndGet();
+
+                String key = blobService.keyOf(entry.getFilePath());
+                if (key == null) {
+                    legacyFiles.add(Paths.get(entry.getFilePath()).toAbsolutePath().normalize());
+                } else {
+                    references.merge(blobService.hashOf(key), 1L, Long::sum);
+                }
+
+                // Rows sharing a blob only need one existence check
+                boolean exists;
+                if (key != null && keyExists.containsKey(key)) {
+                    exists = keyExists.get(key);
+                } else {
+                    throttle();
+                    exists = blobService.exists(entry);
+                    if (key != null) keyExists.put(key, exists);
+                }
+                if (exists || entry.getUploadedAt().isAfter(cutoff)) continue;
+
+                report.get("danglingRows").incrementAndGet();
+                log.warn("Sweep: file {} points at missing content {}", entry.getId(), entry.getFilePath());
+                if (!dryRun) {
+                    fileService.removeMissing(entry);
+                    report.get("repaired").incrementAndGet();
+                }
+            }
+        }
+    }
+
+    // ─── 2. file_blobs → reference counts ────────────────────────────────────
+
+    private void scanBlobs(Map<String, AtomicLong> report, Map<String, Long> references,
+                           Set<String> storedKeys, Set<String> knownHashes) {
+        String lastHash = "";
+        String blobDir = blobService.blobRoot().toString();
+
+        while (true) {
+            List<FileBlob> page = fileBlobRepository.findByHashGreaterThanOrderByHashAsc(lastHash, PageRequest.of(0, PAGE_SIZE));
+            if (page.isEmpty()) break;
+
+            for (FileBlob blob : page) {
+                lastHash = blob.getHash();
+                report.get("blobsScanned").incrementAndGet();
+                storedKeys.add(blobService.storedKey(blob));
+                knownHashes.add(blob.getHash());
+
+                long counted = references.getOrDefault(blob.getHash(), 0L);
+                if (counted == blob.getRefCount()) continue;
+
+                // Rows may have changed since they were counted — recount (on the same basis) before acting
+                throttle();
+                long actual = fileRepository.countBlobReferences(blob.getHash(), blobDir);
+                if (actual > blob.getRefCount()) {
+                    report.get("refCountsRaised").incrementAndGet();
+                    log.warn("Sweep: blob {} has refCount {} but {} files", blob.getHash(), blob.getRefCount(), actual);
+                    if (!dryRun && blobService.raiseRefCount(blob.getHash(), actual)) {
+                        report.get("repaired").incrementAndGet();
+                    }
+                } else if (actual < blob.getRefCount()) {
+                    // Never lowered automatically (see BlobService.raiseRefCount) — only leaks space
+                    report.get("overCountedBlobs").incrementAndGet();
+                    log.warn("Sweep: blob {} has refCount {} but only {} files", blob.getHash(), blob.getRefCount(), actual);
+                }
+            }
+        }
+    }
+
+    // ─── 3. upload dir → rows ────────────────────────────────────────────────
+
+    private void scanUploadDir(Map<String, AtomicLong> report, Set<String> storedKeys,
+                               Set<String> knownHashes, Set<Path> legacyFiles) throws IOException {
+        Path root = blobService.uploadRoot();
+        if (!Files.isDirectory(root)) return;
+
+        // One walk per second-level directory, so large trees are split across workers
+        List<Path> walkRoots = new ArrayList<>();
+        try (Stream<Path> children = Files.list(root)) {
+            for (Path child : children.toList()) {
+                String name = child.getFileName().toString();
+                if (Files.isDirectory(child) && (name.equals("blobs") || name.equals("thumbnails"))) {
+                    try (Stream<Path> shards = Files.list(child)) {
+                        walkRoots.addAll(shards.toList());
+                    }
+                } else {
+                    walkRoots.add(child);
+                }
+            }
+        }
+
+        Instant graceCutoff = Instant.now().minus(gracePeriod);
+        Instant tempCutoff = Instant.now().minus(tempMaxAge);
+        Path tempDir = blobService.tempDir();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> walkRoots.parallelStream().forEach(walkRoot -> {
+                try {
+                    Files.walkFileTree(walkRoot, new SimpleFileVisitor<>() {
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                            throttle();
+                            report.get("filesScanned").incrementAndGet();
+                            Instant modified = attrs.lastModifiedTime().toInstant();
+
+                            try {
+                                if (file.startsWith(tempDir)) {
+                                    if (modified.isBefore(tempCutoff)) staleTemp(report, file);
+                                } else if (modified.isBefore(graceCutoff)) {
+                                    checkFile(report, root, file, attrs.size(), storedKeys, knownHashes, legacyFiles);
+                                }
+                            } catch (IOException | RuntimeException e) {
+                                log.warn("Sweep: could not check {}: {}", file, e.getMessage());
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFileFailed(Path file, IOException e) {
+                            log.warn("Sweep: could not read {}: {}", file, e.getMessage());
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+                } catch (IOException e) {
+                    log.warn("Sweep: could not walk {}: {}", walkRoot, e.getMessage());
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Upload dir walk failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void checkFile(Map<String, AtomicLong> report, Path root, Path file, long size,
+                           Set<String> storedKeys, Set<String> knownHashes, Set<Path> legacyFiles) throws IOException {
+        String key = root.relativize(file).toString().replace('\\', '/');
+
+        boolean orphan;
+        if (key.startsWith("blobs/")) {
+            orphan = !storedKeys.contains(key);
+        } else if (key.startsWith("thumbnails/")) {
+            orphan = !knownHashes.contains(blobService.hashOf(key));
+        } else {
+            orphan = !legacyFiles.contains(file.toAbsolutePath().normalize());
+        }
+        if (!orphan) return;
+
+        report.get("orphanFiles").incrementAndGet();
+        report.get("orphanBytes").addAndGet(size);
+        log.warn("Sweep: orphan file {} ({} bytes)", key, size);
+        if (dryRun) return;
+
+        throttle();
+        boolean deleted = key.startsWith("blobs/") || key.startsWith("thumbnails/")
+                ? blobService.deleteOrphan(key)   // re-checks the row under its row lock
+                : Files.deleteIfExists(file);
+        if (deleted) report.get("repaired").incrementAndGet();
+    }
+
+    private void staleTemp(Map<String, AtomicLong> report, Path file) throws IOException {
+        report.get("staleTempFiles").incrementAndGet();
+        if (dryRun) return;
+
+        throttle();
+        if (Files.deleteIfExists(file)) report.get("repaired").incrementAndGet();
+    }
+
+    // Shared pacing across all workers: at most maxOpsPerSecond checks
+    private void throttle() {
+        long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxOpsPerSecond);
+        long now = System.nanoTime();
+        long slot = nextSlot.getAndAccumulate(now, (next, current) -> Math.max(next, current) + interval);
+        long wait = Math.max(slot, now) - now;
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.FileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Builds storage counters for users who uploaded before storage_usage existed.
+// Only users with files but no counter rows are picked up, so once every user has been
+// backfilled a startup costs one query; reads never rebuild counters themselves.
+@Component
+@ConditionalOnProperty(name = "file.usage.backfill.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class StorageUsageBackfillRunner implements ApplicationRunner {
+
+    private final FileRepository fileRepository;
+    private final StorageUsageService storageUsageService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<User> users = fileRepository.findUsersWithoutStorageUsage();
+        if (users.isEmpty()) return;
+
+        int backfilled = 0;
+        for (User user : users) {
+            try {
+                storageUsageService.repair(user);
+                backfilled++;
+            } catch (RuntimeException e) {
+                log.error("Storage usage backfill failed for user {}: {}", user.getEmail(), e.getMessage());
+            }
+        }
+        log.info("Storage usage backfill finished → users: {} | backfilled: {}", users.size(), backfilled);
+    }
+}
@@ -0,0 +1,106 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.FileEntry;
+import com.symptocare.backend.model.FileEntry.FileCategory;
+import com.symptocare.backend.model.StorageUsage;
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.FileRepository;
+import com.symptocare.backend.repository.StorageUsageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Per-user storage counters (one row per category), adjusted in the same transaction as the
+// file row they count. Reads touch at most one row per FileCategory, however many files the user has.
+// repair() rebuilds the counters from file_entries; StorageUsageBackfillRunner runs it once for
+// users who uploaded before counters existed.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageUsageService {
+
+    private final StorageUsageRepository storageUsageRepository;
+    private final FileRepository fileRepository;
+
+    // Save a new file row and count it — both commit or neither does
+    @Transactional
+    public FileEntry saveFile(FileEntry entry) {
+        FileEntry saved = fileRepository.save(entry);
+        record(saved.getUser(), saved.getCategory(), 1, saved.getFileSize());
+        return saved;
+    }
+
+    // Delete a file row and uncount it — both commit or neither does
+    @Transactional
+    public void deleteFile(FileEntry entry) {
+        fileRepository.delete(entry);
+        record(entry.getUser(), entry.getCategory(), -1, -entry.getFileSize());
+    }
+
+    // Apply a change in file count / bytes for a category
+    private void record(User user, FileCategory category, long files, long bytes) {
+        storageUsageRepository.adjust(user.getId(), category.name(), files, bytes);
+    }
+
+    // Usage per category (categories without files are omitted)
+    public Map<FileCategory, StorageUsage> getUsage(User user) {
+        Map<FileCategory, StorageUsage> usage = new EnumMap<>(FileCategory.class);
+        storageUsageRepository.findByUser(user).stream()
+                .filter(row -> row.getFileCount() != 0 || row.getTotalBytes() != 0)
+                .forEach(row -> usage.put(row.getCategory(), row));
+        return usage;
+    }
+
+    public long totalBytes(User user) {
+        return storageUsageRepository.totalBytes(user);
+    }
+
+    // Rebuild a user's counters from file_entries.
+    // Adding 0 to every category creates any missing row and locks them all before file_entries
+    // is read: an upload or delete running meanwhile either committed before the read (and is
+    // counted by it) or adds its change after this commits — never both, never neither.
+    @Transactional
+    public void repair(User user) {
+        for (FileCategory category : FileCategory.values()) {
+            storageUsageRepository.adjust(user.getId(), category.name(), 0, 0);
+        }
+
+        Map<FileCategory, long[]> actual = actualUsage(user);
+        for (FileCategory category : FileCategory.values()) {
+            long[] usage = actual.getOrDefault(category, new long[2]);
+            storageUsageRepository.set(user, category, usage[0], usage[1]);
+        }
+    }
+
+    // Compare counters with file_entries and rebuild them if they differ — returns true if repaired
+    @Transactional
+    public boolean verify(User user) {
+        Map<FileCategory, long[]> actual = actualUsage(user);
+
+        Map<FileCategory, long[]> recorded = new EnumMap<>(FileCategory.class);
+        getUsage(user).forEach((category, row) ->
+                recorded.put(category, new long[]{row.getFileCount(), row.getTotalBytes()}));
+
+        boolean consistent = actual.keySet().equals(recorded.keySet())
+                && actual.entrySet().stream().allMatch(e ->
+                        Arrays.equals(e.getValue(), recorded.get(e.getKey())));
+        if (consistent) return false;
+
+        log.warn("Storage usage drift for user {} — rebuilding counters", user.getEmail());
+        repair(user);
+        return true;
+    }
+
+    private Map<FileCategory, long[]> actualUsage(User user) {
+        Map<FileCategory, long[]> actual = new EnumMap<>(FileCategory.class);
+        for (Object[] row : fileRepository.usageByCategory(user)) {
+            actual.put((FileCategory) row[0], new long[]{(Long) row[1], ((Number) row[2]).longValue()});
+        }
+        return actual;
+    }
+}
@@ -2,15 +2,23 @@ package com.symptocare.backend.service;
 
 import com.symptocare.backend.dto.TaskRequest;
 import com.symptocare.backend.dto.TaskResponse;
+import com.symptocare.backend.dto.TaskUpdateRequest;
+import com.symptocare.backend.dto.BulkResult;
 import com.symptocare.backend.model.Task;
 import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.BulkInsertRepository;
 import com.symptocare.backend.repository.TaskRepository;
 import com.symptocare.backend.repository.UserRepository;
+import com.symptocare.backend.service.ResourceVersions.Domain;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,6 +27,9 @@ public class TaskService {
 
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final BulkInsertRepository bulkInsertRepository;
+    private final BulkValidator bulkValidator;
+    private final ResourceVersions resourceVersions;
 
     private User getUser(String email) {
         return userRepository.findByEmail(email)
@@ -38,7 +49,9 @@ public class TaskService {
                 .status(Task.TaskStatus.PENDING)
                 .notificationSent(false)
                 .build();
-        return TaskResponse.from(taskRepository.save(task));
+        Task saved = taskRepository.save(task);
+        resourceVersions.bump(email, Domain.TASKS);
+        return TaskResponse.from(saved);
     }
 
     // Get all tasks (sorted by priority HIGH > MEDIUM > LOW)
@@ -86,7 +99,9 @@ public class TaskService {
         if (request.getPriority() != null) task.setPriority(request.getPriority());
         task.setNotificationSent(false); // reset so it notifies again if time changed
 
-        return TaskResponse.from(taskRepository.save(task));
+        Task saved = taskRepository.save(task);
+        resourceVersions.bump(email, Domain.TASKS);
+        return TaskResponse.from(saved);
     }
 
     // Mark task as complete
@@ -100,7 +115,9 @@ public class TaskService {
         }
 
         task.setStatus(Task.TaskStatus.COMPLETED);
-        return TaskResponse.from(taskRepository.save(task));
+        Task saved = taskRepository.save(task);
+        resourceVersions.bump(email, Domain.TASKS);
+        return TaskResponse.from(saved);
     }
 
     // Delete task
@@ -114,5 +131,106 @@ public class TaskService {
         }
 
         taskRepository.delete(task);
+        resourceVersions.bump(email, Domain.TASKS);
     }
-}
\ No newline at end of file
+
+    // ─── Bulk operations ──────────────────────────────────────────────────────
+
+    // Create many tasks in one transaction with batched inserts
+    @Transactional
+    public BulkResult bulkCreate(String email, List<TaskRequest> requests) {
+        bulkValidator.checkSize(requests);
+        User user = getUser(email);
+        BulkResult result = new BulkResult(requests.size());
+
+        List<Task> tasks = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String error = bulkValidator.violations(requests.get(i));
+            if (error != null) {
+                result.error(i, null, error);
+                continue;
+            }
+            TaskRequest request = requests.get(i);
+            tasks.add(Task.builder()
+                    .user(user)
+                    .title(request.getTitle())
+                    .description(request.getDescription())
+                    .taskDate(request.getTaskDate())
+                    .taskTime(request.getTaskTime())
+                    .priority(request.getPriority() != null ? request.getPriority() : 1)
+                    .status(Task.TaskStatus.PENDING)
+                    .notificationSent(false)
+                    .build());
+            indexes.add(i);
+        }
+
+        bulkInsertRepository.insertTasks(tasks);
+        resourceVersions.bump(email, Domain.TASKS);
+        for (int i = 0; i < tasks.size(); i++) {
+            result.ok(indexes.get(i), tasks.get(i).getId());
+        }
+        return result;
+    }
+
+    // Update many tasks — the ownership check is one query for all ids
+    @Transactional
+    public BulkResult bulkUpdate(String email, List<TaskUpdateRequest> requests) {
+        bulkValidator.checkSize(requests);
+        User user = getUser(email);
+        BulkResult result = new BulkResult(requests.size());
+
+        List<Long> ids = requests.stream().filter(r -> r != null && r.getId() != null)
+                .map(TaskUpdateRequest::getId).toList();
+        Map<Long, Task> owned = taskRepository.findByUserAndIdIn(user, ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<Task> changed = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TaskUpdateRequest request = requests.get(i);
+            String error = bulkValidator.violations(request);
+            if (error != null) {
+                result.error(i, request != null ? request.getId() : null, error);
+                continue;
+            }
+            Task task = owned.get(request.getId());
+            if (task == null) {
+                result.error(i, request.getId(), "Task not found");
+                continue;
+            }
+
+            task.setTitle(request.getTitle());
+            task.setDescription(request.getDescription());
+            task.setTaskDate(request.getTaskDate());
+            task.setTaskTime(request.getTaskTime());
+            if (request.getPriority() != null) task.setPriority(request.getPriority());
+            task.setNotificationSent(false);
+            changed.add(task);
+            result.ok(i, task.getId());
+        }
+
+        taskRepository.saveAll(changed);
+        resourceVersions.bump(email, Domain.TASKS);
+        return result;
+    }
+
+    // Delete many tasks (e.g. clearing old ones) with a single statement
+    @Transactional
+    public BulkResult bulkDelete(String email, List<Long> ids) {
+        bulkValidator.checkSize(ids);
+        User user = getUser(email);
+        BulkResult result = new BulkResult(ids.size());
+
+        Map<Long, Task> owned = taskRepository.findByUserAndIdIn(user, ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        for (int i = 0; i < ids.size(); i++) {
+            if (owned.containsKey(ids.get(i))) result.ok(i, ids.get(i));
+            else result.error(i, ids.get(i), "Task not found");
+        }
+
+        taskRepository.deleteAllByIdInBatch(owned.keySet());
+        resourceVersions.bump(email, Domain.TASKS);
+        return result;
+    }
+}
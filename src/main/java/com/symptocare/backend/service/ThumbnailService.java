@@ -0,0 +1,221 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.FileEntry;
+import com.symptocare.backend.model.FileEntry.FileCategory;
+import com.symptocare.backend.storage.LocalFile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Background thumbnail / preview generation for images and PDFs
+// Thumbnails are JPEGs stored next to the blob (keyed by content hash, so identical files share one).
+// Runs on a small, low-priority pool with a bounded queue so it never competes with requests.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ThumbnailService {
+
+    private final BlobService blobService;
+
+    // Longest edge of a thumbnail in pixels
+    @Value("${thumbnail.size:256}")
+    private int thumbnailSize;
+
+    // Images larger than this are skipped (decompression-bomb guard)
+    @Value("${thumbnail.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+
+    @Value("${thumbnail.workers:1}")
+    private int workerCount;
+
+    @Value("${thumbnail.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor workers;
+
+    // Hashes currently queued or rendering — avoids duplicate work for identical uploads
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void startWorkers() {
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "thumbnail-worker");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    public boolean isSupported(FileEntry entry) {
+        return entry.getContentHash() != null
+                && (entry.getCategory() == FileCategory.IMAGE || entry.getFileType().contains("pdf"));
+    }
+
+    // Queue thumbnail generation; dropped (and retried lazily on request) when the queue is full
+    public void submit(FileEntry entry) {
+        if (!isSupported(entry) || !inFlight.add(entry.getContentHash())) return;
+
+        try {
+            workers.execute(() -> {
+                try {
+                    generate(entry);
+                } catch (Exception | OutOfMemoryError e) {
+                    log.warn("Thumbnail generation failed for file {}: {}", entry.getId(), e.getMessage());
+                } finally {
+                    inFlight.remove(entry.getContentHash());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(entry.getContentHash());
+            log.debug("Thumbnail queue full — skipping file {}", entry.getId());
+        }
+    }
+
+    // Stored thumbnail, or empty if it isn't ready (generation is queued in that case)
+    public Optional<InputStream> open(FileEntry entry) throws IOException {
+        if (!isSupported(entry)) return Optional.empty();
+
+        if (blobService.thumbnailExists(entry.getContentHash())) {
+            return Optional.of(blobService.openThumbnail(entry.getContentHash()));
+        }
+        submit(entry);
+        return Optional.empty();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // --- Rendering ---
+
+    private void generate(FileEntry entry) throws IOException {
+        String hash = entry.getContentHash();
+        if (blobService.thumbnailExists(hash)) return;
+
+        BufferedImage source = entry.getCategory() == FileCategory.IMAGE
+                ? readImage(entry)
+                : renderFirstPdfPage(entry);
+        if (source == null) {
+            log.debug("No thumbnail for file {} (unsupported or too large)", entry.getId());
+            return;
+        }
+
+        Path out = blobService.tempDir().resolve(UUID.randomUUID() + ".jpg");
+        try {
+            ImageIO.write(fitToSize(source), "jpg", out.toFile());
+            blobService.putThumbnail(hash, out);
+            log.debug("Thumbnail stored for file {}", entry.getId());
+        } finally {
+            Files.deleteIfExists(out);
+        }
+    }
+
+    // Decode with subsampling so large photos never fully land in memory
+    private BufferedImage readImage(FileEntry entry) throws IOException {
+        try (InputStream in = blobService.open(entry);
+             ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            if (iis == null) return null;
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) return null;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) return null;
+
+                int step = Math.max(1, Math.max(width, height) / (thumbnailSize * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // First page at roughly twice the thumbnail size; PDFBox caches to temp files, not heap
+    private BufferedImage renderFirstPdfPage(FileEntry entry) throws IOException {
+        try (LocalFile local = blobService.localFile(entry).orElse(null)) {
+            if (local != null) return renderFirstPage(local.path());
+
+            Path download = blobService.tempDir().resolve(UUID.randomUUID() + ".pdf");
+            try {
+                try (InputStream in = blobService.open(entry)) {
+                    Files.copy(in, download, StandardCopyOption.REPLACE_EXISTING);
+                }
+                return renderFirstPage(download);
+            } finally {
+                Files.deleteIfExists(download);
+            }
+        }
+    }
+
+    private BufferedImage renderFirstPage(Path pdf) throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdf.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+            if (document.getNumberOfPages() == 0) return null;
+
+            PDRectangle box = document.getPage(0).getCropBox();
+            float scale = thumbnailSize * 2f / Math.max(box.getWidth(), box.getHeight());
+            return new PDFRenderer(document).renderImage(0, scale, ImageType.RGB);
+        }
+    }
+
+    // Scale to fit thumbnailSize × thumbnailSize, flattening transparency onto white
+    private BufferedImage fitToSize(BufferedImage source) {
+        double ratio = Math.min(1.0, (double) thumbnailSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return thumbnail;
+    }
+}
@@ -0,0 +1,102 @@
+package com.symptocare.backend.service;
+
+import org.springframework.stereotype.Component;
+
+// Local, allocation-free token counter for prompt budgeting (no network calls)
+// Splits text the way BPE tokenizers pre-tokenize (letter runs with their leading space,
+// digit groups of up to 3, punctuation runs, newlines) and estimates the merges per piece.
+// The result is an estimate, not an upper bound — rare words and non-English text can take more
+// real tokens than counted — so callers pack prompts against OpenAIService.promptBudget(), which
+// keeps chat.prompt.safety-margin of the budget in reserve.
+@Component
+public class TokenCounter {
+
+    // Extra tokens the chat template adds around every message (role markers, separators)
+    public static final int MESSAGE_OVERHEAD = 4;
+
+    // Average characters per BPE token inside a long word
+    private static final int CHARS_PER_WORD_TOKEN = 5;
+
+    public int count(CharSequence text) {
+        if (text == null) return 0;
+        return (int) scan(text, Integer.MAX_VALUE);
+    }
+
+    public int countMessage(String content) {
+        return count(content) + MESSAGE_OVERHEAD;
+    }
+
+    // Longest prefix length (in chars) of text that fits in maxTokens
+    public int prefixLength(CharSequence text, int maxTokens) {
+        if (text == null || maxTokens <= 0) return 0;
+        return (int) (scan(text, maxTokens) >>> 32);
+    }
+
+    public String truncate(String text, int maxTokens) {
+        int end = prefixLength(text, maxTokens);
+        return end >= text.length() ? text : text.substring(0, end);
+    }
+
+    // Single pass over the text. Returns (charsConsumed << 32) | tokens, stopping before
+    // the piece that would exceed maxTokens.
+    private long scan(CharSequence text, int maxTokens) {
+        int length = text.length();
+        int tokens = 0;
+        int i = 0;
+
+        while (i < length) {
+            int start = i;
+            char c = text.charAt(i);
+            int pieceTokens;
+
+            if (c == '\n' || c == '\r') {
+                // Runs of newlines merge into one token
+                while (i < length && (text.charAt(i) == '\n' || text.charAt(i) == '\r')) i++;
+                pieceTokens = 1;
+            } else if (c == ' ' || c == '\t') {
+                // A single space belongs to the following word; longer runs are their own token
+                while (i < length && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) i++;
+                if (i - start == 1 && i < length && isWordChar(text.charAt(i))) {
+                    int wordStart = i;
+                    while (i < length && isWordChar(text.charAt(i))) i++;
+                    pieceTokens = wordTokens(i - wordStart);
+                } else {
+                    pieceTokens = 1;
+                }
+            } else if (isWordChar(c)) {
+                while (i < length && isWordChar(text.charAt(i))) i++;
+                pieceTokens = wordTokens(i - start);
+            } else if (c >= '0' && c <= '9') {
+                while (i < length && text.charAt(i) >= '0' && text.charAt(i) <= '9') i++;
+                pieceTokens = (i - start + 2) / 3;
+            } else if (c < 0x80) {
+                // Punctuation runs: pairs like "--" or ")." usually merge
+                while (i < length && isPunctuation(text.charAt(i))) i++;
+                pieceTokens = (i - start + 1) / 2;
+            } else {
+                // Non-ASCII characters are mostly 1–2 tokens each; count them one by one
+                i += Character.isHighSurrogate(c) && i + 1 < length ? 2 : 1;
+                pieceTokens = 2;
+            }
+
+            if (tokens + pieceTokens > maxTokens) {
+                return ((long) start << 32) | tokens;
+            }
+            tokens += pieceTokens;
+        }
+        return ((long) length << 32) | tokens;
+    }
+
+    private static int wordTokens(int chars) {
+        return chars <= CHARS_PER_WORD_TOKEN + 1 ? 1 : (chars + CHARS_PER_WORD_TOKEN - 1) / CHARS_PER_WORD_TOKEN;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '\'';
+    }
+
+    private static boolean isPunctuation(char c) {
+        return c < 0x80 && !isWordChar(c) && !(c >= '0' && c <= '9')
+                && c != ' ' && c != '\t' && c != '\n' && c != '\r';
+    }
+}
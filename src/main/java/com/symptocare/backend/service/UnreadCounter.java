@@ -0,0 +1,95 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Unread notification count per user, kept in memory so the badge needs no COUNT query.
+// Loaded from the database on first use, then moved by the deltas NotificationService applies
+// after each commit; reloaded after notification.unread.ttl, which bounds any drift (e.g. a
+// delta racing the initial load).
+// Single instance only: another instance's writes never reach this map. With the broker relay
+// on (the multi-instance setup) nothing is cached and every count is a COUNT query.
+@Component
+@RequiredArgsConstructor
+public class UnreadCounter {
+
+    private final NotificationRepository notificationRepository;
+
+    @Value("${notification.unread.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${notification.unread.max-entries:50000}")
+    private int maxEntries;
+
+    @Value("${websocket.broker.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    private static final class Entry {
+        final AtomicLong count;
+        final long loadedAt = System.nanoTime();
+
+        Entry(long count) {
+            this.count = new AtomicLong(count);
+        }
+    }
+
+    // Keyed by email, like the WebSocket user destinations
+    private final Map<String, Entry> counts = new ConcurrentHashMap<>();
+
+    // The count if it is loaded and current — no user lookup needed
+    public Long cached(String email) {
+        if (relayEnabled) return null;
+        Entry entry = counts.get(email);
+        return entry != null && !expired(entry) ? entry.count.get() : null;
+    }
+
+    public long get(User user) {
+        if (relayEnabled) return notificationRepository.countByUserAndIsReadFalse(user);
+        Entry entry = counts.get(user.getEmail());
+        if (entry == null || expired(entry)) entry = load(user);
+        return entry.count.get();
+    }
+
+    // Apply a change and return the new count. A count loaded just now already includes it.
+    public long add(User user, long delta) {
+        if (relayEnabled) return notificationRepository.countByUserAndIsReadFalse(user);
+        Entry entry = counts.get(user.getEmail());
+        if (entry == null || expired(entry)) return load(user).count.get();
+        return entry.count.updateAndGet(count -> Math.max(0, count + delta));
+    }
+
+    public void reset(User user) {
+        if (relayEnabled) return;
+        counts.put(user.getEmail(), new Entry(0));
+    }
+
+    // After bulk deletes — every count reloads on demand
+    public void clear() {
+        counts.clear();
+    }
+
+    private Entry load(User user) {
+        Entry entry = new Entry(notificationRepository.countByUserAndIsReadFalse(user));
+        if (counts.size() >= maxEntries) evict();
+        counts.put(user.getEmail(), entry);
+        return entry;
+    }
+
+    private boolean expired(Entry entry) {
+        return System.nanoTime() - entry.loadedAt >= ttl.toNanos();
+    }
+
+    // Expired counts first; if that isn't enough, start over — every count reloads on demand
+    private void evict() {
+        counts.values().removeIf(this::expired);
+        if (counts.size() >= maxEntries) counts.clear();
+    }
+}
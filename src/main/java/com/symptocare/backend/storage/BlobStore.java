@@ -0,0 +1,28 @@
+package com.symptocare.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+// Where uploaded bytes live. Keys are relative, e.g. "blobs/ab/cd/<sha256>",
+// so file_entries never depend on one node's disk layout.
+public interface BlobStore {
+
+    // Store a fully written local file under key. The source file is consumed
+    // (moved or deleted) — callers must not use it afterwards.
+    void put(String key, Path source) throws IOException;
+
+    // Stream the whole object
+    InputStream open(String key) throws IOException;
+
+    // Stream bytes start..end (inclusive)
+    InputStream open(String key, long start, long end) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    // Local file for zero-copy reads, if this store keeps (or caches) one — close it when done
+    Optional<LocalFile> localFile(String key) throws IOException;
+}
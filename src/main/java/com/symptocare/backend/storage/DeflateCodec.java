@@ -0,0 +1,70 @@
+package com.symptocare.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+// Raw-zlib compression of stored blobs (JDK only, no native codec needed)
+// A fast level keeps compression cheaper than the disk / network I/O it saves.
+public final class DeflateCodec {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private DeflateCodec() {
+    }
+
+    // Compressed size / original size of the first sampleBytes of a file (1.0 = incompressible)
+    public static double sampleRatio(Path source, int sampleBytes, int level) throws IOException {
+        byte[] sample;
+        try (InputStream in = Files.newInputStream(source)) {
+            sample = in.readNBytes(sampleBytes);
+        }
+        if (sample.length == 0) return 1.0;
+
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(sample);
+            deflater.finish();
+            byte[] out = new byte[BUFFER_SIZE];
+            long compressed = 0;
+            while (!deflater.finished()) {
+                compressed += deflater.deflate(out);
+            }
+            return (double) compressed / sample.length;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // Compress source into target, returning the compressed size
+    public static long compress(Path source, Path target, int level) throws IOException {
+        Deflater deflater = new Deflater(level);
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = new DeflaterOutputStream(Files.newOutputStream(target), deflater, BUFFER_SIZE)) {
+            in.transferTo(out);
+        } finally {
+            deflater.end();
+        }
+        return Files.size(target);
+    }
+
+    // Decompress on the fly while streaming
+    public static InputStream decompress(InputStream compressed) {
+        return new InflaterInputStream(compressed, new Inflater(), BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inf.end();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.symptocare.backend.storage;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// A blob's local file, handed out for reading. A store that may remove its local files
+// (TieredBlobStore's cache) keeps this one in place until the handle is closed.
+public final class LocalFile implements Closeable {
+
+    private final Path path;
+    private final Runnable release;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private LocalFile(Path path, Runnable release) {
+        this.path = path;
+        this.release = release;
+    }
+
+    // A file that stays where it is (a plain local store)
+    public static LocalFile of(Path path) {
+        return new LocalFile(path, null);
+    }
+
+    // A file kept in place only until close()
+    public static LocalFile pinned(Path path, Runnable release) {
+        return new LocalFile(path, release);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    // The file may be removed once this is closed, so it must not be read after that
+    // (e.g. handed to the container for sendfile)
+    public boolean isPinned() {
+        return release != null;
+    }
+
+    @Override
+    public void close() {
+        if (release != null && closed.compareAndSet(false, true)) release.run();
+    }
+}
@@ -0,0 +1,123 @@
+package com.symptocare.backend.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.BoundedInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Blobs in an S3-compatible bucket (AWS S3, MinIO, R2 ...)
+// Large objects are sent with multipart upload so no single request carries the whole file
+@Slf4j
+public class S3BlobStore implements BlobStore, Closeable {
+
+    private final S3Client s3;
+    private final String bucket;
+    private final long multipartThreshold;
+    private final long partSize;
+
+    public S3BlobStore(S3Client s3, String bucket, long multipartThreshold, long partSize) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.multipartThreshold = multipartThreshold;
+        this.partSize = partSize;
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        long size = Files.size(source);
+        if (size >= multipartThreshold) {
+            putMultipart(key, source, size);
+        } else {
+            s3.putObject(PutObjectRequest.builder().bucket(bucket).key(key).build(),
+                    RequestBody.fromFile(source));
+        }
+        Files.deleteIfExists(source);
+    }
+
+    private void putMultipart(String key, Path source, long size) throws IOException {
+        String uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket).key(key).build()).uploadId();
+
+        List<CompletedPart> parts = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            int partNumber = 1;
+            for (long offset = 0; offset < size; offset += partSize, partNumber++) {
+                long length = Math.min(partSize, size - offset);
+                channel.position(offset);
+                BoundedInputStream part = new BoundedInputStream(Channels.newInputStream(channel), length);
+                // The channel is closed once after all parts, not by each part stream
+                part.setPropagateClose(false);
+
+                String etag = s3.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucket).key(key).uploadId(uploadId)
+                                .partNumber(partNumber).contentLength(length).build(),
+                        RequestBody.fromInputStream(part, length)).eTag();
+
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(etag).build());
+            }
+
+            s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket).key(key).uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            log.debug("Multipart upload of {} done in {} parts", key, parts.size());
+
+        } catch (IOException | RuntimeException e) {
+            s3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket).key(key).uploadId(uploadId).build());
+            throw e;
+        }
+    }
+
+    @Override
+    public InputStream open(String key) {
+        return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build());
+    }
+
+    @Override
+    public InputStream open(String key, long start, long end) {
+        return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(key)
+                .range("bytes=" + start + "-" + end).build());
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) return false;
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
+    }
+
+    @Override
+    public Optional<LocalFile> localFile(String key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void close() {
+        s3.close();
+    }
+}
@@ -0,0 +1,232 @@
+package com.symptocare.backend.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Hot-local / cold-remote storage: the remote store is the source of truth,
+// a bounded local directory keeps recently used blobs for fast (zero-copy) reads.
+// Local copies are evicted least-recently-used once the cache exceeds its size; a copy handed
+// out through localFile() is pinned (never evicted) until its LocalFile is closed.
+@Slf4j
+public class TieredBlobStore implements BlobStore, Closeable {
+
+    // Keys confirmed to exist remotely, so exists() doesn't HEAD the same blob on every download.
+    // Keys are content-addressed: an object never changes, it can only be deleted.
+    private static final int KNOWN_REMOTE_LIMIT = 10_000;
+
+    private final LocalBlobStore hot;
+    private final BlobStore cold;
+    private final Path cacheRoot;
+    private final long maxCacheBytes;
+
+    // key → size, in access order (eldest = least recently used); guards pins as well
+    private final LinkedHashMap<String, Long> cached = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, Integer> pins = new HashMap<>();
+    private long cachedBytes;
+
+    private final Map<String, Boolean> knownRemote = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > KNOWN_REMOTE_LIMIT;
+        }
+    };
+
+    public TieredBlobStore(Path cacheRoot, BlobStore cold, long maxCacheBytes) throws IOException {
+        this.cacheRoot = cacheRoot.toAbsolutePath().normalize();
+        this.hot = new LocalBlobStore(this.cacheRoot);
+        this.cold = cold;
+        this.maxCacheBytes = maxCacheBytes;
+        loadExistingCache();
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        // Keep a hot copy of fresh uploads — they're usually viewed right away. It is a hard link
+        // to the upload, so the bytes aren't written twice (only copied across filesystems)
+        Path hotCopy = tempFile();
+        try {
+            Files.createLink(hotCopy, source);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(source, hotCopy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try {
+            cold.put(key, source);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(hotCopy);
+            throw e;
+        }
+        rememberRemote(key);
+        admit(key, hotCopy);
+    }
+
+    // The stream keeps reading its file even if the cache evicts (unlinks) it meanwhile
+    @Override
+    public InputStream open(String key) throws IOException {
+        Path path = ensureLocal(key);
+        try {
+            return Files.newInputStream(path);
+        } finally {
+            unpin(key);
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long start, long end) throws IOException {
+        // Seeking inside a cold blob shouldn't wait for the whole object
+        if (!pinIfCached(key)) return cold.open(key, start, end);
+        try {
+            return hot.open(key, start, end);
+        } finally {
+            unpin(key);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        if (isCached(key) || isKnownRemote(key)) return true;
+        if (!cold.exists(key)) return false;
+        rememberRemote(key);
+        return true;
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        synchronized (cached) {
+            Long size = cached.remove(key);
+            if (size != null) cachedBytes -= size;
+        }
+        synchronized (knownRemote) {
+            knownRemote.remove(key);
+        }
+        hot.delete(key);
+        cold.delete(key);
+    }
+
+    @Override
+    public Optional<LocalFile> localFile(String key) throws IOException {
+        return Optional.of(LocalFile.pinned(ensureLocal(key), () -> unpin(key)));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (cold instanceof Closeable closeable) closeable.close();
+    }
+
+    // --- Helpers ---
+
+    private boolean isCached(String key) {
+        synchronized (cached) {
+            return cached.get(key) != null;
+        }
+    }
+
+    private boolean isKnownRemote(String key) {
+        synchronized (knownRemote) {
+            return knownRemote.get(key) != null;
+        }
+    }
+
+    private void rememberRemote(String key) {
+        synchronized (knownRemote) {
+            knownRemote.put(key, Boolean.TRUE);
+        }
+    }
+
+    private boolean pinIfCached(String key) {
+        synchronized (cached) {
+            if (cached.get(key) == null || !Files.exists(hot.resolve(key))) return false;
+            pins.merge(key, 1, Integer::sum);
+            return true;
+        }
+    }
+
+    private void unpin(String key) {
+        synchronized (cached) {
+            pins.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+            evictOverBudget(null);
+        }
+    }
+
+    // Pinned local copy of the blob, fetching it from the remote store on a miss
+    private Path ensureLocal(String key) throws IOException {
+        if (pinIfCached(key)) return hot.resolve(key);
+
+        Path download = tempFile();
+        try (InputStream in = cold.open(key)) {
+            Files.copy(in, download, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(download);
+            throw e;
+        }
+        rememberRemote(key);
+        synchronized (cached) {
+            admit(key, download);
+            pins.merge(key, 1, Integer::sum);
+        }
+        return hot.resolve(key);
+    }
+
+    // Moves the file into the cache; under the lock so an eviction can't remove it halfway
+    private void admit(String key, Path file) throws IOException {
+        long size = Files.size(file);
+        synchronized (cached) {
+            hot.put(key, file);
+            Long previous = cached.put(key, size);
+            cachedBytes += size - (previous != null ? previous : 0);
+            evictOverBudget(key);
+        }
+    }
+
+    // Callers hold the cached lock; pinned entries and the one just admitted are kept
+    private void evictOverBudget(String admitted) {
+        Iterator<Map.Entry<String, Long>> eldest = cached.entrySet().iterator();
+        while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> victim = eldest.next();
+            if (victim.getKey().equals(admitted) || pins.containsKey(victim.getKey())) continue;
+            eldest.remove();
+            cachedBytes -= victim.getValue();
+            try {
+                hot.delete(victim.getKey());
+            } catch (IOException e) {
+                log.warn("Could not evict {} from local blob cache: {}", victim.getKey(), e.getMessage());
+            }
+            log.debug("Evicted {} from local blob cache", victim.getKey());
+        }
+    }
+    private Path tempFile() throws IOException {
+        Path temp = cacheRoot.resolve("tmp");
+        Files.createDirectories(temp);
+        return temp.resolve(UUID.randomUUID() + ".part");
+    }
+
+    // Rebuild the LRU index from files left by a previous run (oldest first)
+    private void loadExistingCache() throws IOException {
+        Path blobs = cacheRoot.resolve("blobs");
+        if (!Files.isDirectory(blobs)) return;
+
+        try (Stream<Path> files = Files.walk(blobs)) {
+            files.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparingLong(file -> file.toFile().lastModified()))
+                    .forEach(file -> {
+                        long size = file.toFile().length();
+                        cached.put(cacheRoot.relativize(file).toString().replace('\\', '/'), size);
+                        cachedBytes += size;
+                    });
+        }
+        log.info("Local blob cache loaded: {} blobs, {} bytes", cached.size(), cachedBytes);
+    }
+}
@@ -0,0 +1,56 @@
+package com.symptocare.backend.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Rupee amounts as long paise for in-memory work — sums, comparisons and formatting —
+// without BigDecimal arithmetic. Entities and API fields stay BigDecimal; convert at
+// that boundary with toPaise / toRupees.
+public final class Money {
+
+    private Money() {}
+
+    // ₹12.5 → 1250 (rounded half-up to paise)
+    public static long toPaise(BigDecimal amount) {
+        // Up to 15 significant digits a double holds the value within far less than half a paisa,
+        // so rounding it is exact — and avoids the BigInteger unscaledValue() would allocate
+        if (amount.scale() <= 2 && amount.precision() <= 15) return Math.round(amount.doubleValue() * 100);
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toRupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    public static String format(BigDecimal amount) {
+        return format(toPaise(amount));
+    }
+
+    // 1234567890 → "₹1,23,45,678.90" (Indian grouping: last three digits, then pairs).
+    // Digits are written right to left into a stack buffer; the only allocation is the result.
+    public static String format(long paise) {
+        if (paise == Long.MIN_VALUE) return "-₹" + toRupees(paise).negate().toPlainString();
+
+        char[] buf = new char[32];
+        int pos = buf.length;
+        long value = Math.abs(paise);
+
+        long fraction = value % 100;
+        buf[--pos] = (char) ('0' + fraction % 10);
+        buf[--pos] = (char) ('0' + fraction / 10);
+        buf[--pos] = '.';
+
+        long rupees = value / 100;
+        int digits = 0;
+        do {
+            if (digits == 3 || (digits > 3 && (digits - 3) % 2 == 0)) buf[--pos] = ',';
+            buf[--pos] = (char) ('0' + rupees % 10);
+            rupees /= 10;
+            digits++;
+        } while (rupees > 0);
+
+        buf[--pos] = '₹';
+        if (paise < 0) buf[--pos] = '-';
+        return new String(buf, pos, buf.length - pos);
+    }
+}
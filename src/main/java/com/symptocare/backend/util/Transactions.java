@@ -0,0 +1,25 @@
+package com.symptocare.backend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Side effects that must only be seen once the data they describe is committed —
+// in-memory counters, cache versions, pushes to the client
+public final class Transactions {
+
+    private Transactions() {}
+
+    // After the surrounding transaction commits; right away if there is none
+    public static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
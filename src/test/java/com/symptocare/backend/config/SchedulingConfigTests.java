@@ -0,0 +1,95 @@
+package com.symptocare.backend.config;
+
+import com.symptocare.backend.repository.TaskRepository;
+import com.symptocare.backend.repository.UserRepository;
+import com.symptocare.backend.scheduler.ExpenseScheduler;
+import com.symptocare.backend.scheduler.StorageScheduler;
+import com.symptocare.backend.scheduler.TaskScheduler;
+import com.symptocare.backend.service.NotificationRetention;
+import com.symptocare.backend.service.NotificationService;
+import com.symptocare.backend.service.OpenAIService;
+import com.symptocare.backend.service.RecurringExpenseService;
+import com.symptocare.backend.service.StorageSweeper;
+import com.symptocare.backend.service.StorageUsageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.scheduling.config.CronTask;
+import org.springframework.scheduling.config.ScheduledTask;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// The @Scheduled jobs are picked up once SchedulingConfig is in the context
+class SchedulingConfigTests {
+
+	@Test
+	void recurringExpensesJobIsScheduled() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.getBeanFactory().registerSingleton("recurringExpenseService", mock(RecurringExpenseService.class));
+			context.register(SchedulingConfig.class, ExpenseScheduler.class);
+			context.refresh();
+
+			assertEquals(List.of("ExpenseScheduler.materializeRecurringExpenses @ 0 15 0 * * *"), cronTasks(context));
+		}
+	}
+
+	@Test
+	void storageUsageRepairIsScheduled() {
+		try (AnnotationConfigApplicationContext context = storageContext()) {
+			assertTrue(cronTasks(context).contains("StorageScheduler.repairStorageUsage @ 0 30 3 * * *"));
+		}
+	}
+
+	@Test
+	void storageSweepIsScheduled() {
+		try (AnnotationConfigApplicationContext context = storageContext()) {
+			assertTrue(cronTasks(context).contains("StorageScheduler.sweepStorage @ 0 0 4 * * *"));
+		}
+	}
+
+	@Test
+	void notificationRetentionIsScheduled() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.getBeanFactory().registerSingleton("taskRepository", mock(TaskRepository.class));
+			context.getBeanFactory().registerSingleton("userRepository", mock(UserRepository.class));
+			context.getBeanFactory().registerSingleton("notificationService", mock(NotificationService.class));
+			context.getBeanFactory().registerSingleton("notificationRetention", mock(NotificationRetention.class));
+			context.getBeanFactory().registerSingleton("openAIService", mock(OpenAIService.class));
+			context.register(SchedulingConfig.class, TaskScheduler.class);
+			context.refresh();
+
+			assertTrue(cronTasks(context).contains("TaskScheduler.maintainNotifications @ 0 30 2 * * *"));
+		}
+	}
+
+	private static AnnotationConfigApplicationContext storageContext() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.getBeanFactory().registerSingleton("userRepository", mock(UserRepository.class));
+		context.getBeanFactory().registerSingleton("storageUsageService", mock(StorageUsageService.class));
+		context.getBeanFactory().registerSingleton("storageSweeper", mock(StorageSweeper.class));
+		context.register(SchedulingConfig.class, StorageScheduler.class);
+		context.refresh();
+		return context;
+	}
+
+	// "Class.method @ cron" for every cron job registered with the scheduler
+	static List<String> cronTasks(AnnotationConfigApplicationContext context) {
+		return context.getBeansOfType(ScheduledTaskHolder.class).values().stream()
+				.flatMap(holder -> holder.getScheduledTasks().stream())
+				.map(ScheduledTask::getTask)
+				.filter(CronTask.class::isInstance)
+				.map(task -> describe((CronTask) task))
+				.sorted()
+				.toList();
+	}
+
+	private static String describe(CronTask task) {
+		String method = task.getRunnable().toString();
+		String[] parts = method.split("\\.");
+		return parts[parts.length - 2] + "." + parts[parts.length - 1] + " @ " + task.getExpression();
+	}
+}
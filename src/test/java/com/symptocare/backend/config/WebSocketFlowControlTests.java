@@ -0,0 +1,148 @@
+package com.symptocare.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The outbound channel as the broker drives it: a thread pool, the flow-control interceptor, and a
+// handler standing in for the socket writes — one session's "socket" blocks until released
+class WebSocketFlowControlTests {
+
+	private static final int QUEUE_LIMIT = 50;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final WebSocketFlowControl flowControl = new WebSocketFlowControl(QUEUE_LIMIT, meterRegistry);
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+	private final ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel(executor);
+
+	private final Map<String, List<String>> delivered = new ConcurrentHashMap<>();
+	private final CountDownLatch slowReleased = new CountDownLatch(1);
+
+	@BeforeEach
+	void setUp() {
+		channel.addInterceptor(flowControl);
+		channel.subscribe(message -> {
+			String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+			if (sessionId.equals("slow")) await(slowReleased);
+			delivered.computeIfAbsent(sessionId, key -> new CopyOnWriteArrayList<>()).add((String) message.getPayload());
+		});
+		connect("slow");
+	}
+
+	@AfterEach
+	void tearDown() {
+		slowReleased.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	void slowSessionIsBoundedWhileOthersKeepFlowing() throws Exception {
+		int sessions = 2000;
+		int perSession = 10;
+		for (int s = 0; s < sessions; s++) connect("s" + s);
+
+		for (int i = 0; i < 500; i++) channel.send(frame("slow", "m" + i, null));
+		long start = System.nanoTime();
+		for (int i = 0; i < perSession; i++) {
+			for (int s = 0; s < sessions; s++) channel.send(frame("s" + s, "m" + i, null));
+		}
+		waitFor(() -> countDelivered() == (long) sessions * perSession);
+		long elapsed = System.nanoTime() - start;
+
+		for (int s = 0; s < sessions; s++) {
+			assertEquals(List.of("m0", "m1", "m2", "m3", "m4", "m5", "m6", "m7", "m8", "m9"), delivered.get("s" + s));
+		}
+
+		slowReleased.countDown();
+		waitFor(() -> delivered.getOrDefault("slow", List.of()).size() == 1 + QUEUE_LIMIT);
+		Thread.sleep(100);
+		List<String> slow = delivered.get("slow");
+		assertEquals(1 + QUEUE_LIMIT, slow.size());
+		assertEquals("m" + QUEUE_LIMIT, slow.get(QUEUE_LIMIT));
+		assertEquals(500 - 1 - QUEUE_LIMIT, meterRegistry.counter("websocket.outbound.dropped").count());
+
+		System.out.printf("flow control: %d sessions x %d frames delivered in order in %d ms%n",
+				sessions, perSession, elapsed / 1_000_000);
+	}
+
+	@Test
+	void queuedStateEventsAreCoalescedAtTheTail() throws Exception {
+		channel.send(frame("slow", "first", null));
+		channel.send(frame("slow", "a", null));
+		channel.send(frame("slow", "count-0", "unread"));
+		channel.send(frame("slow", "b", null));
+		for (int i = 1; i < 100; i++) channel.send(frame("slow", "count-" + i, "unread"));
+
+		slowReleased.countDown();
+		waitFor(() -> delivered.getOrDefault("slow", List.of()).size() == 4);
+		Thread.sleep(100);
+
+		// count-99 is newer than b, so it must not be delivered before it
+		assertEquals(List.of("first", "a", "b", "count-99"), delivered.get("slow"));
+		assertEquals(99, meterRegistry.counter("websocket.outbound.coalesced").count());
+		assertEquals(0, meterRegistry.counter("websocket.outbound.dropped").count());
+	}
+
+	@Test
+	void framesForUntrackedSessionsPassThrough() throws Exception {
+		for (int i = 0; i < 10; i++) channel.send(frame("unknown", "m" + i, null));
+		waitFor(() -> delivered.getOrDefault("unknown", List.of()).size() == 10);
+	}
+
+	private void connect(String sessionId) {
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+		accessor.setSessionId(sessionId);
+		flowControl.onConnected(new SessionConnectedEvent(this,
+				MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())));
+	}
+
+	private static Message<String> frame(String sessionId, String payload, String coalesceKey) {
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+		accessor.setSessionId(sessionId);
+		if (coalesceKey != null) accessor.setNativeHeader(WebSocketFlowControl.COALESCE_KEY, coalesceKey);
+		return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+	}
+
+	private long countDelivered() {
+		return delivered.entrySet().stream()
+				.filter(entry -> !entry.getKey().equals("slow"))
+				.mapToLong(entry -> entry.getValue().size())
+				.sum();
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "timed out");
+			Thread.sleep(5);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
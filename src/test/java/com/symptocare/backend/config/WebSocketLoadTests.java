@@ -0,0 +1,229 @@
+package com.symptocare.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.tomcat.autoconfigure.servlet.TomcatServletWebServerAutoConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.webmvc.autoconfigure.DispatcherServletAutoConfiguration;
+import org.springframework.boot.webmvc.autoconfigure.WebMvcAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Thousands of STOMP clients over real WebSocket connections against WebSocketConfig, each pushed
+// to through its /user/queue/notifications destination like NotificationService does.
+// Sizes: -Dws.load.clients=2000 -Dws.load.messages=5. The context is closed afterwards, so the
+// thousands of server-side sockets don't linger into the next load test.
+// Not part of the default build (about a minute); run with -Pperf.
+@Tag("load")
+@SpringBootTest(classes = WebSocketLoadTests.App.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext
+class WebSocketLoadTests {
+
+	static final int CLIENTS = Integer.getInteger("ws.load.clients", 2000);
+	static final int MESSAGES = Integer.getInteger("ws.load.messages", 5);
+
+	@SpringBootConfiguration
+	@ImportAutoConfiguration({
+			TomcatServletWebServerAutoConfiguration.class,
+			DispatcherServletAutoConfiguration.class,
+			WebMvcAutoConfiguration.class,
+			JacksonAutoConfiguration.class
+	})
+	@Import({ WebSocketConfig.class, WebSocketFlowControl.class })
+	static class App {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		// Stands in for JwtAuthFilter: the handshake's principal is the ?user= parameter
+		@Bean
+		FilterRegistrationBean<OncePerRequestFilter> principalFromQuery() {
+			return new FilterRegistrationBean<>(new OncePerRequestFilter() {
+				@Override
+				protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+												FilterChain chain) throws ServletException, IOException {
+					String user = request.getParameter("user");
+					if (user == null) {
+						chain.doFilter(request, response);
+						return;
+					}
+					Principal principal = () -> user;
+					chain.doFilter(new HttpServletRequestWrapper(request) {
+						@Override
+						public Principal getUserPrincipal() {
+							return principal;
+						}
+					}, response);
+				}
+			});
+		}
+	}
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	SimpMessagingTemplate messagingTemplate;
+
+	@Autowired
+	List<AbstractBrokerMessageHandler> brokers;
+
+	@Test
+	void thousandsOfClientsReceiveTheirOwnPushes() throws Exception {
+		awaitBroker(brokers);
+		WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+		long connectStart = System.nanoTime();
+		List<Client> clients = connect(stompClient, port, CLIENTS, "user-");
+		long connected = System.nanoTime();
+		try {
+			awaitReady(messagingTemplate, clients);
+
+			CountDownLatch received = new CountDownLatch(CLIENTS * MESSAGES);
+			clients.forEach(client -> client.received = received);
+			long start = System.nanoTime();
+			for (int i = 0; i < MESSAGES; i++) {
+				for (Client client : clients) {
+					messagingTemplate.convertAndSendToUser(client.user, "/queue/notifications",
+							Map.of("event", "CREATED", "seq", i));
+				}
+			}
+			assertTrue(received.await(120, TimeUnit.SECONDS), received.getCount() + " pushes not delivered");
+			long elapsed = System.nanoTime() - start;
+
+			for (Client client : clients) assertEquals(MESSAGES, client.count.get(), client.user);
+			System.out.printf("%s: %d clients connected in %d ms; %d pushes delivered in %d ms (%.0f/s)%n",
+					getClass().getSimpleName(), CLIENTS, (connected - connectStart) / 1_000_000,
+					CLIENTS * MESSAGES, elapsed / 1_000_000, CLIENTS * MESSAGES / (elapsed / 1e9));
+		} finally {
+			disconnect(clients);
+		}
+	}
+
+	// ─── Simulated clients ────────────────────────────────────────────────────
+
+	static class Client extends StompSessionHandlerAdapter {
+		final String user;
+		final AtomicInteger count = new AtomicInteger();
+		volatile StompSession session;
+		volatile boolean ready;
+		volatile CountDownLatch received;
+
+		Client(String user) {
+			this.user = user;
+		}
+
+		@Override
+		public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+			session.subscribe("/user/queue/notifications", this);
+			this.session = session;
+		}
+
+		@Override
+		public Type getPayloadType(StompHeaders headers) {
+			return byte[].class;
+		}
+
+		@Override
+		public void handleFrame(StompHeaders headers, Object payload) {
+			if (new String((byte[]) payload, StandardCharsets.UTF_8).contains("PROBE")) {
+				ready = true;
+				return;
+			}
+			count.incrementAndGet();
+			if (received != null) received.countDown();
+		}
+	}
+
+	// Connections are opened 64 at a time, like a reconnect storm after a deploy
+	static List<Client> connect(WebSocketStompClient stompClient, int port, int count, String prefix) throws Exception {
+		Semaphore opening = new Semaphore(64);
+		ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+		List<Client> clients = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Client client = new Client(prefix + i);
+			clients.add(client);
+			opening.acquire();
+			stompClient.connectAsync("ws://localhost:{port}/ws/websocket?user={user}", client, port, client.user)
+					.whenComplete((session, ex) -> {
+						opening.release();
+						if (ex != null) failures.add(ex);
+					});
+		}
+		waitFor(() -> !failures.isEmpty() || clients.stream().allMatch(client -> client.session != null));
+		assertTrue(failures.isEmpty(), () -> failures.size() + " connections failed: " + failures.peek());
+		return clients;
+	}
+
+	// The relay turns CONNECTs away until its own "system" session to the broker is up
+	static void awaitBroker(List<AbstractBrokerMessageHandler> brokers) throws InterruptedException {
+		waitFor(() -> brokers.stream().allMatch(AbstractBrokerMessageHandler::isBrokerAvailable));
+	}
+
+	// Subscriptions get no RECEIPT from the simple broker, so probe until every client has one
+	static void awaitReady(SimpMessagingTemplate template, List<Client> clients) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+		while (true) {
+			List<Client> waiting = clients.stream().filter(client -> !client.ready).toList();
+			if (waiting.isEmpty()) return;
+			assertTrue(System.nanoTime() < deadline, waiting.size() + " clients never subscribed");
+			waiting.forEach(client -> template.convertAndSendToUser(client.user, "/queue/notifications",
+					Map.of("event", "PROBE")));
+			Thread.sleep(200);
+		}
+	}
+
+	static void disconnect(List<Client> clients) {
+		for (Client client : clients) {
+			if (client.session != null && client.session.isConnected()) client.session.disconnect();
+		}
+	}
+
+	static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "timed out");
+			Thread.sleep(20);
+		}
+	}
+}
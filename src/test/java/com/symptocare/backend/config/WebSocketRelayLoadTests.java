@@ -0,0 +1,96 @@
+package com.symptocare.backend.config;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The same load through the STOMP broker relay, against an embedded ActiveMQ Artemis broker
+// standing in for the shared one, plus a second instance pushing to users connected to the first
+@Tag("load")
+@SpringBootTest(classes = WebSocketLoadTests.App.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"websocket.broker.relay.enabled=true",
+				"websocket.broker.relay.host=127.0.0.1",
+				"logging.level.org.apache.activemq.audit=warn"
+		})
+class WebSocketRelayLoadTests extends WebSocketLoadTests {
+
+	private static EmbeddedActiveMQ broker;
+	private static int brokerPort;
+
+	@DynamicPropertySource
+	static void relay(DynamicPropertyRegistry registry) throws Exception {
+		startBroker();
+		registry.add("websocket.broker.relay.port", () -> brokerPort);
+	}
+
+	@AfterAll
+	static void stopBroker() throws Exception {
+		if (broker != null) broker.stop();
+	}
+
+	@Test
+	void pushesFromAnotherInstanceReachUsersConnectedHere() throws Exception {
+		try (ConfigurableApplicationContext other = new SpringApplicationBuilder(App.class).run(
+				"--server.port=0",
+				"--websocket.broker.relay.enabled=true",
+				"--websocket.broker.relay.host=127.0.0.1",
+				"--websocket.broker.relay.port=" + brokerPort,
+				"--logging.level.org.apache.activemq.audit=warn")) {
+			SimpMessagingTemplate otherTemplate = other.getBean(SimpMessagingTemplate.class);
+			awaitBroker(brokers);
+			awaitBroker(List.copyOf(other.getBeansOfType(AbstractBrokerMessageHandler.class).values()));
+			List<Client> clients = connect(new WebSocketStompClient(new StandardWebSocketClient()), port, 100, "remote-");
+			try {
+				awaitReady(otherTemplate, clients);
+
+				CountDownLatch received = new CountDownLatch(clients.size());
+				clients.forEach(client -> client.received = received);
+				clients.forEach(client -> otherTemplate.convertAndSendToUser(client.user, "/queue/notifications",
+						Map.of("event", "CREATED")));
+				assertTrue(received.await(30, TimeUnit.SECONDS), received.getCount() + " pushes not delivered");
+				for (Client client : clients) assertEquals(1, client.count.get(), client.user);
+			} finally {
+				disconnect(clients);
+			}
+		}
+	}
+
+	private static synchronized void startBroker() throws Exception {
+		if (broker != null) return;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			brokerPort = socket.getLocalPort();
+		}
+		broker = new EmbeddedActiveMQ();
+		broker.setConfiguration(new ConfigurationImpl()
+				.setPersistenceEnabled(false)
+				.setSecurityEnabled(false)
+				.addAddressSetting("#", new AddressSettings()
+						.setDeadLetterAddress(SimpleString.of("DLQ"))
+						.setExpiryAddress(SimpleString.of("ExpiryQueue")))
+				.addAcceptorConfiguration("stomp", "tcp://127.0.0.1:" + brokerPort + "?protocols=STOMP"));
+		broker.start();
+	}
+}
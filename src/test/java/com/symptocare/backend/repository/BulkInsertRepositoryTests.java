@@ -0,0 +1,199 @@
+package com.symptocare.backend.repository;
+
+import com.symptocare.backend.model.Expense;
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.model.Expense.PaymentMethod;
+import com.symptocare.backend.model.Task;
+import com.symptocare.backend.model.Task.TaskStatus;
+import com.symptocare.backend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// BulkInsertRepository against a real PostgreSQL (sequence reservation, ON CONFLICT and the
+// driver's rewritten batches can't be emulated). Skipped where Docker isn't available.
+@Testcontainers(disabledWithoutDocker = true)
+class BulkInsertRepositoryTests {
+
+	@Container
+	static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine")
+			// As in application.properties
+			.withUrlParam("reWriteBatchedInserts", "true");
+
+	private static final User USER = User.builder().id(1L).email("a@x.com").build();
+
+	private JdbcTemplate jdbcTemplate;
+	private BulkInsertRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+				postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+		repository = new BulkInsertRepository(jdbcTemplate);
+
+		// The columns Hibernate generates for Expense and Task
+		jdbcTemplate.execute("DROP TABLE IF EXISTS expenses, tasks");
+		jdbcTemplate.execute("""
+				CREATE TABLE expenses (
+					id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					user_id bigint NOT NULL,
+					amount numeric(12,2) NOT NULL,
+					title varchar(255) NOT NULL,
+					description text,
+					category varchar(255) NOT NULL,
+					payment_method varchar(255) NOT NULL,
+					expense_date date NOT NULL,
+					expense_month integer NOT NULL,
+					expense_year integer NOT NULL,
+					is_recurring boolean NOT NULL,
+					recurrence_id bigint,
+					recurrence_period varchar(10),
+					created_at timestamp(6) NOT NULL,
+					UNIQUE (recurrence_id, recurrence_period))""");
+		jdbcTemplate.execute("""
+				CREATE TABLE tasks (
+					id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					user_id bigint,
+					title varchar(255) NOT NULL,
+					description varchar(255),
+					task_date date NOT NULL,
+					task_time time(6) NOT NULL,
+					priority integer NOT NULL,
+					status varchar(255) NOT NULL,
+					notification_sent boolean NOT NULL)""");
+	}
+
+	@Test
+	void expensesAreInsertedWithEveryColumnBound() {
+		Expense groceries = expense("Groceries", "1234.50", LocalDate.of(2025, 3, 14));
+		groceries.setDescription("Weekly shopping");
+		groceries.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+		Expense fuel = expense("Fuel", "800.00", LocalDate.of(2025, 12, 31));
+
+		repository.insertExpenses(List.of(groceries, fuel));
+
+		Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM expenses WHERE id = ?", groceries.getId());
+		assertEquals(1L, row.get("user_id"));
+		assertEquals(new BigDecimal("1234.50"), row.get("amount"));
+		assertEquals("Groceries", row.get("title"));
+		assertEquals("Weekly shopping", row.get("description"));
+		assertEquals("FOOD", row.get("category"));
+		assertEquals("CREDIT_CARD", row.get("payment_method"));
+		assertEquals(java.sql.Date.valueOf("2025-03-14"), row.get("expense_date"));
+		assertEquals(3, row.get("expense_month"));
+		assertEquals(2025, row.get("expense_year"));
+		assertEquals(false, row.get("is_recurring"));
+		// timestamp(6) rounds to the microsecond
+		assertTrue(Duration.between(groceries.getCreatedAt(),
+				((java.sql.Timestamp) row.get("created_at")).toLocalDateTime()).abs().toNanos() < 1000);
+		assertNull(row.get("recurrence_id"));
+
+		row = jdbcTemplate.queryForMap("SELECT * FROM expenses WHERE id = ?", fuel.getId());
+		assertEquals("Fuel", row.get("title"));
+		assertNull(row.get("description"));
+		assertEquals(12, row.get("expense_month"));
+	}
+
+	@Test
+	void reservedIdsComeFromTheTableSequenceAcrossBatches() {
+		// More than one batch of 500
+		List<Expense> expenses = new ArrayList<>();
+		for (int i = 0; i < 1201; i++) {
+			expenses.add(expense("Expense " + i, "10.00", LocalDate.of(2025, 1, 1).plusDays(i % 365)));
+		}
+
+		repository.insertExpenses(expenses);
+
+		assertEquals(1201, jdbcTemplate.queryForObject("SELECT count(*) FROM expenses", Long.class));
+		assertEquals(1201, new HashSet<>(expenses.stream().map(Expense::getId).toList()).size());
+		for (Expense e : List.of(expenses.get(0), expenses.get(777), expenses.get(1200))) {
+			assertEquals(e.getTitle(), jdbcTemplate.queryForObject(
+					"SELECT title FROM expenses WHERE id = ?", String.class, e.getId()));
+		}
+
+		// A row inserted the JPA way afterwards doesn't collide with the reserved ids
+		Long next = jdbcTemplate.queryForObject(
+				"INSERT INTO expenses (user_id, amount, title, category, payment_method, expense_date, " +
+				"expense_month, expense_year, is_recurring, created_at) " +
+				"VALUES (1, 1, 'Later', 'FOOD', 'CASH', now(), 1, 2025, false, now()) RETURNING id", Long.class);
+		assertTrue(expenses.stream().allMatch(e -> e.getId() < next));
+	}
+
+	@Test
+	void recurringOccurrencesAlreadyGeneratedAreSkipped() {
+		assertEquals(2, repository.insertRecurringOccurrences(List.of(
+				occurrence(7L, "2025-01"), occurrence(7L, "2025-02"))));
+
+		// Re-running the job for the same periods writes only the new one
+		assertEquals(1, repository.insertRecurringOccurrences(List.of(
+				occurrence(7L, "2025-01"), occurrence(7L, "2025-02"), occurrence(7L, "2025-03"))));
+		assertEquals(0, repository.insertRecurringOccurrences(List.of(occurrence(7L, "2025-03"))));
+
+		assertEquals(List.of("2025-01", "2025-02", "2025-03"), jdbcTemplate.queryForList(
+				"SELECT recurrence_period FROM expenses WHERE recurrence_id = 7 ORDER BY recurrence_period",
+				String.class));
+		assertEquals(true, jdbcTemplate.queryForObject(
+				"SELECT bool_and(is_recurring) FROM expenses", Boolean.class));
+	}
+
+	@Test
+	void tasksAreInsertedWithEveryColumnBound() {
+		Task task = Task.builder()
+				.user(USER)
+				.title("Dentist")
+				.description("Bring reports")
+				.taskDate(LocalDate.of(2025, 6, 2))
+				.taskTime(LocalTime.of(9, 30))
+				.priority(2)
+				.status(TaskStatus.PENDING)
+				.build();
+
+		repository.insertTasks(List.of(task));
+
+		Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM tasks WHERE id = ?", task.getId());
+		assertEquals(1L, row.get("user_id"));
+		assertEquals("Dentist", row.get("title"));
+		assertEquals("Bring reports", row.get("description"));
+		assertEquals(java.sql.Date.valueOf("2025-06-02"), row.get("task_date"));
+		assertEquals(java.sql.Time.valueOf("09:30:00"), row.get("task_time"));
+		assertEquals(2, row.get("priority"));
+		assertEquals("PENDING", row.get("status"));
+		assertEquals(false, row.get("notification_sent"));
+	}
+
+	private static Expense expense(String title, String amount, LocalDate date) {
+		return Expense.builder()
+				.user(USER)
+				.title(title)
+				.amount(new BigDecimal(amount))
+				.category(ExpenseCategory.FOOD)
+				.paymentMethod(PaymentMethod.UPI)
+				.expenseDate(date)
+				.build();
+	}
+
+	private static Expense occurrence(Long recurrenceId, String period) {
+		Expense expense = expense("Rent", "15000.00", LocalDate.parse(period + "-01"));
+		expense.setRecurring(true);
+		expense.setRecurrenceId(recurrenceId);
+		expense.setRecurrencePeriod(period);
+		return expense;
+	}
+}
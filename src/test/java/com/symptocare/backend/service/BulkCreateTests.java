@@ -0,0 +1,118 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.dto.BulkResult;
+import com.symptocare.backend.dto.BulkResult.ItemResult;
+import com.symptocare.backend.dto.ExpenseRequest;
+import com.symptocare.backend.dto.TaskRequest;
+import com.symptocare.backend.model.Expense;
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.model.Expense.PaymentMethod;
+import com.symptocare.backend.model.Task;
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.BulkInsertRepository;
+import com.symptocare.backend.repository.ExpenseRepository;
+import com.symptocare.backend.repository.TaskRepository;
+import com.symptocare.backend.repository.UserRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Per-item results of a bulk create (repositories mocked, no DB)
+class BulkCreateTests {
+
+	private final User user = User.builder().id(1L).email("a@x.com").build();
+	private final AtomicLong ids = new AtomicLong(100);
+	private ExpenseService expenseService;
+	private TaskService taskService;
+
+	@BeforeEach
+	void setUp() {
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findByEmail("a@x.com")).thenReturn(Optional.of(user));
+
+		// Ids are assigned by the insert, as BulkInsertRepository does
+		BulkInsertRepository bulkInsertRepository = mock(BulkInsertRepository.class);
+		doAnswer(invocation -> {
+			invocation.<List<Expense>>getArgument(0).forEach(e -> e.setId(ids.incrementAndGet()));
+			return null;
+		}).when(bulkInsertRepository).insertExpenses(anyList());
+		doAnswer(invocation -> {
+			invocation.<List<Task>>getArgument(0).forEach(t -> t.setId(ids.incrementAndGet()));
+			return null;
+		}).when(bulkInsertRepository).insertTasks(anyList());
+
+		BulkValidator bulkValidator = new BulkValidator(Validation.buildDefaultValidatorFactory().getValidator());
+		ReflectionTestUtils.setField(bulkValidator, "maxItems", 100);
+
+		expenseService = new ExpenseService(mock(ExpenseRepository.class), userRepository, bulkInsertRepository,
+				bulkValidator, mock(BudgetTracker.class), mock(SpendingInsights.class),
+				mock(ResourceVersions.class), mock(RecurringExpenseService.class));
+		taskService = new TaskService(mock(TaskRepository.class), userRepository, bulkInsertRepository,
+				bulkValidator, mock(ResourceVersions.class));
+	}
+
+	@Test
+	void expenseResultsAreInRequestOrder() {
+		BulkResult result = expenseService.bulkCreate("a@x.com",
+				List.of(expense("Rent"), expense(""), expense("Fuel"), expense(null), expense("Tea")));
+
+		assertResults(result);
+	}
+
+	@Test
+	void taskResultsAreInRequestOrder() {
+		BulkResult result = taskService.bulkCreate("a@x.com",
+				List.of(task("Dentist"), task(""), task("Gym"), task(null), task("Call")));
+
+		assertResults(result);
+	}
+
+	// Items 1 and 3 are invalid, the others get ids in insert order
+	private static void assertResults(BulkResult result) {
+		assertEquals(5, result.getTotal());
+		assertEquals(3, result.getSucceeded());
+		assertEquals(2, result.getFailed());
+
+		List<ItemResult> items = result.getResults();
+		assertEquals(List.of(0, 1, 2, 3, 4), items.stream().map(ItemResult::getIndex).toList());
+		assertEquals(List.of(true, false, true, false, true), items.stream().map(ItemResult::isSuccess).toList());
+		assertEquals(101L, items.get(0).getId());
+		assertEquals("Title is required", items.get(1).getError());
+		assertNull(items.get(1).getId());
+		assertEquals(102L, items.get(2).getId());
+		assertEquals(103L, items.get(4).getId());
+	}
+
+	private static ExpenseRequest expense(String title) {
+		ExpenseRequest request = new ExpenseRequest();
+		request.setTitle(title);
+		request.setAmount(new BigDecimal("10.00"));
+		request.setCategory(ExpenseCategory.FOOD);
+		request.setPaymentMethod(PaymentMethod.UPI);
+		request.setExpenseDate(LocalDate.of(2025, 3, 14));
+		return request;
+	}
+
+	private static TaskRequest task(String title) {
+		TaskRequest request = new TaskRequest();
+		request.setTitle(title);
+		request.setTaskDate(LocalDate.of(2025, 3, 14));
+		request.setTaskTime(LocalTime.of(9, 0));
+		return request;
+	}
+}
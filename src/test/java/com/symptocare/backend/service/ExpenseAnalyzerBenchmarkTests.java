@@ -0,0 +1,59 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.service.ExpenseAnalyzer.Granularity;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Timing only (-Pperf); behaviour is covered by ExpenseAnalyzerTests
+@Tag("benchmark")
+class ExpenseAnalyzerBenchmarkTests {
+
+	static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+	static final LocalDate TO = LocalDate.of(2025, 12, 31);
+
+	// One analytics pass over 1M synthetic expenses already in columns
+	@Test
+	void analyticsThroughput() {
+		int rows = 1_000_000;
+		ExpenseColumns columns = syntheticExpenses(rows);
+
+		// Warm up the JIT
+		for (int i = 0; i < 5; i++) ExpenseAnalyzer.analyze(columns, FROM, TO, Granularity.DAY, 10);
+
+		for (Granularity granularity : Granularity.values()) {
+			int runs = 10;
+			long start = System.nanoTime();
+			Map<String, Object> result = null;
+			for (int i = 0; i < runs; i++) result = ExpenseAnalyzer.analyze(columns, FROM, TO, granularity, 10);
+			long elapsed = (System.nanoTime() - start) / runs;
+
+			System.out.printf("ExpenseAnalyzer %s: %d rows in %.1f ms (%.0f M rows/s)%n",
+					granularity, rows, elapsed / 1e6, rows / (elapsed / 1e9) / 1e6);
+			assertTrue((Long) result.get("transactions") > 0);
+		}
+	}
+
+	// Random expenses over FROM..TO plus the history before it, 500 merchants
+	static ExpenseColumns syntheticExpenses(int rows) {
+		Random random = new Random(42);
+		ExpenseColumns columns = new ExpenseColumns(rows);
+		int[] merchants = new int[500];
+		for (int i = 0; i < merchants.length; i++) merchants[i] = columns.merchantId("merchant" + i);
+
+		int firstDay = (int) ExpenseAnalyzer.historyStart(FROM).toEpochDay();
+		int span = (int) (TO.toEpochDay() - firstDay + 1);
+		int categories = ExpenseCategory.values().length;
+		for (int i = 0; i < rows; i++) {
+			columns.add(firstDay + random.nextInt(span), 100 + random.nextInt(500_000),
+					(byte) random.nextInt(categories), merchants[random.nextInt(merchants.length)]);
+		}
+		return columns;
+	}
+}
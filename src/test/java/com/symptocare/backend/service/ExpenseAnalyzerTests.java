@@ -0,0 +1,75 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.service.ExpenseAnalyzer.Granularity;
+import com.symptocare.backend.util.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static com.symptocare.backend.service.ExpenseAnalyzerBenchmarkTests.FROM;
+import static com.symptocare.backend.service.ExpenseAnalyzerBenchmarkTests.TO;
+import static com.symptocare.backend.service.ExpenseAnalyzerBenchmarkTests.syntheticExpenses;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExpenseAnalyzerTests {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void monthlyTotalsAndDeltas() {
+		ExpenseColumns columns = new ExpenseColumns(8);
+		columns.add(LocalDate.of(2024, 12, 20), new BigDecimal("300.00"), ExpenseCategory.FOOD, "UPI/SWIGGY/1/x");
+		columns.add(LocalDate.of(2025, 1, 5), new BigDecimal("450.50"), ExpenseCategory.FOOD, "Swiggy dinner");
+		columns.add(LocalDate.of(2025, 1, 9), new BigDecimal("120.00"), ExpenseCategory.TRANSPORT, "POS OLA CABS");
+		columns.add(LocalDate.of(2025, 2, 1), new BigDecimal("900.00"), ExpenseCategory.FOOD, "Zomato");
+
+		Map<String, Object> result = ExpenseAnalyzer.analyze(columns, FROM, TO, Granularity.MONTH, 2);
+
+		assertEquals(new BigDecimal("1470.50"), result.get("totalAmount"));   // December is history only
+		assertEquals(3L, result.get("transactions"));
+
+		List<Map<String, Object>> months = (List<Map<String, Object>>) result.get("months");
+		assertEquals(12, months.size());
+		Map<String, Object> january = months.get(0);
+		assertEquals("2025-01", january.get("month"));
+		assertEquals(new BigDecimal("570.50"), january.get("total"));
+		assertEquals(new BigDecimal("270.50"), january.get("change"));
+		assertNull(january.get("rolling3"));   // history starts in December
+		assertEquals(new BigDecimal("590.17"), months.get(1).get("rolling3"));
+
+		List<Map<String, Object>> merchants = (List<Map<String, Object>>) result.get("topMerchants");
+		assertEquals("zomato", merchants.get(0).get("merchant"));
+		assertEquals("swiggy", merchants.get(1).get("merchant"));
+		assertEquals(new BigDecimal("450.50"), merchants.get(1).get("total"));
+	}
+
+	// Every granularity buckets the same rows: totals match a plain sum over the range
+	@Test
+	@SuppressWarnings("unchecked")
+	void everyGranularityAddsUpToTheSameTotal() {
+		ExpenseColumns columns = syntheticExpenses(50_000);
+		long from = FROM.toEpochDay(), to = TO.toEpochDay();
+		long expectedPaise = 0, expectedCount = 0;
+		for (int i = 0; i < columns.size(); i++) {
+			if (columns.days()[i] < from || columns.days()[i] > to) continue;
+			expectedPaise += columns.paise()[i];
+			expectedCount++;
+		}
+		BigDecimal expected = Money.toRupees(expectedPaise);
+
+		for (Granularity granularity : Granularity.values()) {
+			Map<String, Object> result = ExpenseAnalyzer.analyze(columns, FROM, TO, granularity, 10);
+
+			assertEquals(expected, result.get("totalAmount"), granularity.name());
+			assertEquals(expectedCount, result.get("transactions"), granularity.name());
+			BigDecimal seriesTotal = ((List<Map<String, Object>>) result.get("series")).stream()
+					.map(point -> (BigDecimal) point.get("total"))
+					.reduce(BigDecimal.ZERO, BigDecimal::add);
+			assertEquals(0, expected.compareTo(seriesTotal), granularity.name());
+		}
+	}
+}
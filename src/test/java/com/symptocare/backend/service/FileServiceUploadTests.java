@@ -0,0 +1,158 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.FileEntry;
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.FileBlobRepository;
+import com.symptocare.backend.repository.FileRepository;
+import com.symptocare.backend.repository.UserRepository;
+import com.symptocare.backend.storage.LocalBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// A raw-body upload through FileService into a real LocalBlobStore (repositories mocked, no DB):
+// the body is read once and written to disk once — the temp file is moved into the store, not copied
+class FileServiceUploadTests {
+
+	private static final int SIZE = 8 * 1024 * 1024;
+
+	@TempDir
+	Path uploadDir;
+
+	private final List<Object> putFileKeys = new ArrayList<>();
+	private final List<Long> putSizes = new ArrayList<>();
+	private FileService fileService;
+	private LocalBlobStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new LocalBlobStore(uploadDir) {
+			@Override
+			public void put(String key, Path source) throws IOException {
+				putFileKeys.add(Files.readAttributes(source, BasicFileAttributes.class).fileKey());
+				putSizes.add(Files.size(source));
+				super.put(key, source);
+			}
+		};
+
+		FileBlobRepository fileBlobRepository = mock(FileBlobRepository.class);
+		when(fileBlobRepository.insertOrIncrement(anyString(), anyLong())).thenReturn(1);
+		BlobService blobService = new BlobService(fileBlobRepository, store, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(blobService, "uploadDir", uploadDir.toString());
+		ReflectionTestUtils.setField(blobService, "compressionEnabled", false);
+
+		User user = User.builder().id(1L).email("a@x.com").build();
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findByEmail("a@x.com")).thenReturn(Optional.of(user));
+		FileRepository fileRepository = mock(FileRepository.class);
+
+		StorageUsageService storageUsageService = mock(StorageUsageService.class);
+		when(storageUsageService.saveFile(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		fileService = new FileService(fileRepository, userRepository, mock(PdfChatSessionStore.class),
+				mock(PdfAnswerCache.class), blobService, mock(ThumbnailService.class),
+				storageUsageService, mock(BulkValidator.class));
+		ReflectionTestUtils.setField(fileService, "uploadDir", uploadDir.toString());
+		ReflectionTestUtils.setField(fileService, "maxUploadSize", DataSize.ofMegabytes(50));
+		ReflectionTestUtils.setField(fileService, "userQuota", DataSize.ofGigabytes(1));
+	}
+
+	@Test
+	void bodyIsStreamedToDiskOnceAndMovedIntoTheStore() throws Exception {
+		byte[] content = new byte[SIZE];
+		new Random(7).nextBytes(content);
+		AtomicLong bodyRead = new AtomicLong();
+		InputStream body = new FilterInputStream(new ByteArrayInputStream(content)) {
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				int read = super.read(b, off, len);
+				if (read > 0) bodyRead.addAndGet(read);
+				return read;
+			}
+		};
+
+		FileEntry entry = fileService.uploadStream("a@x.com", body, SIZE, "scan.bin",
+				"application/octet-stream", null);
+
+		assertEquals(SIZE, bodyRead.get());
+		assertEquals(List.of((long) SIZE), putSizes);
+
+		// Same inode before and after put: the bytes written while streaming are the stored ones
+		Path stored = store.resolve(entry.getFilePath());
+		Object storedFileKey = Files.readAttributes(stored, BasicFileAttributes.class).fileKey();
+		assertNotNull(storedFileKey);
+		assertEquals(putFileKeys.get(0), storedFileKey);
+
+		assertArrayEquals(content, Files.readAllBytes(stored));
+		try (var temp = Files.list(uploadDir.resolve("tmp"))) {
+			assertEquals(0, temp.count());
+		}
+	}
+
+	@Test
+	void fileNameCannotSteerTheTempOrStoredPath() throws Exception {
+		// Resolved against the temp dir, the old "<uuid>.<extension>.part" name pointed here
+		Path outside = Files.createDirectories(uploadDir.resolve("outside"));
+		Path victim = Files.writeString(outside.resolve("foo.part"), "keep");
+		ReflectionTestUtils.setField(fileService, "maxUploadSize", DataSize.ofBytes(10));
+		String name = "x./../../outside/foo";
+
+		// Fails mid-stream, which deletes the temp file
+		assertThrows(RuntimeException.class, () -> fileService.uploadStream("a@x.com",
+				new ByteArrayInputStream(new byte[100]), -1, name, "application/octet-stream", null));
+		assertEquals("keep", Files.readString(victim));
+
+		ReflectionTestUtils.setField(fileService, "maxUploadSize", DataSize.ofMegabytes(50));
+		FileEntry entry = fileService.uploadStream("a@x.com", new ByteArrayInputStream(new byte[100]), 100,
+				name, "application/octet-stream", null);
+		assertTrue(entry.getStoredFileName().matches("[0-9a-f-]{36}\\.bin"), entry.getStoredFileName());
+		assertEquals(name, entry.getOriginalFileName());
+		try (var files = Files.list(outside)) {
+			assertEquals(List.of(victim), files.toList());
+		}
+	}
+
+	@Test
+	void oversizedBodyIsCutOffMidStreamAndLeavesNothingBehind() throws Exception {
+		ReflectionTestUtils.setField(fileService, "maxUploadSize", DataSize.ofMegabytes(1));
+		InputStream body = new ByteArrayInputStream(new byte[SIZE]);
+
+		// Unknown length (chunked), so only the mid-stream check can stop it
+		RuntimeException e = assertThrows(RuntimeException.class, () ->
+				fileService.uploadStream("a@x.com", body, -1, "big.bin", "application/octet-stream", null));
+
+		assertTrue(e.getMessage().startsWith("File exceeds maximum size"));
+		assertTrue(body.available() > 0);
+		assertTrue(putSizes.isEmpty());
+		try (var temp = Files.list(uploadDir.resolve("tmp"))) {
+			assertEquals(0, temp.count());
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+// Monthly notification partitions against a real PostgreSQL. Skipped where Docker isn't available.
+@Testcontainers(disabledWithoutDocker = true)
+class NotificationRetentionTests {
+
+	@Container
+	static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+	private JdbcTemplate jdbcTemplate;
+	private NotificationRetention retention;
+
+	@BeforeEach
+	void setUp() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+		jdbcTemplate = new JdbcTemplate(dataSource);
+
+		// The plain table Hibernate generates, converted by the startup run
+		jdbcTemplate.execute("DROP TABLE IF EXISTS notifications CASCADE");
+		jdbcTemplate.execute("""
+				CREATE TABLE notifications (
+					id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					user_id bigint NOT NULL,
+					title varchar(255) NOT NULL,
+					message text NOT NULL,
+					type varchar(255) NOT NULL,
+					reference_id bigint,
+					is_read boolean NOT NULL,
+					created_at timestamp(6) NOT NULL)""");
+		jdbcTemplate.execute("CREATE INDEX idx_notification_user_created ON notifications (user_id, created_at)");
+
+		retention = new NotificationRetention(jdbcTemplate, mock(NotificationRepository.class),
+				mock(RecentNotifications.class), mock(UnreadCounter.class),
+				new DataSourceTransactionManager(dataSource), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(retention, "partitionsEnabled", true);
+		ReflectionTestUtils.setField(retention, "monthsAhead", 1);
+		ReflectionTestUtils.setField(retention, "retentionMonths", 6);
+		ReflectionTestUtils.setField(retention, "readAfter", Duration.ofDays(30));
+		retention.init();
+		retention.run(null);
+	}
+
+	@Test
+	void rowsBeyondThePartitionsAreMovedOutOfTheDefault() {
+		YearMonth later = YearMonth.now().plusMonths(3);
+		insert(later.atDay(10).atTime(9, 0));
+		insert(later.atEndOfMonth().atTime(23, 59));
+		assertEquals(2, count("notifications_default"));
+
+		ReflectionTestUtils.setField(retention, "monthsAhead", 4);
+		retention.maintain();
+
+		assertEquals(0, count("notifications_default"));
+		assertEquals(2, count(String.format("notifications_p%04d_%02d", later.getYear(), later.getMonthValue())));
+		assertEquals(2, count("notifications"));
+	}
+
+	@Test
+	void pastMonthsLeftInTheDefaultGetAPartitionAndExpire() {
+		// Older than anything the startup run partitioned
+		YearMonth old = YearMonth.now().minusMonths(8);
+		insert(old.atDay(1).atStartOfDay());
+
+		retention.maintain();
+
+		// Partitioned, then dropped as older than the 6 months kept
+		assertEquals(0, count("notifications_default"));
+		assertEquals(0, count("notifications"));
+	}
+
+	private void insert(LocalDateTime createdAt) {
+		jdbcTemplate.update("INSERT INTO notifications (user_id, title, message, type, is_read, created_at) " +
+				"VALUES (1, 'Reminder', 'Dentist', 'TASK_REMINDER', false, ?)", createdAt);
+	}
+
+	private long count(String table) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+	}
+}
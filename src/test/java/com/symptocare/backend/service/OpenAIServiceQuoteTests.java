@@ -0,0 +1,75 @@
+package com.symptocare.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Quote batching against a stubbed completion that takes a while to answer (no network)
+class OpenAIServiceQuoteTests {
+
+	private static final long COMPLETION_MS = 300;
+
+	private final AtomicInteger completions = new AtomicInteger();
+	private OpenAIService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new OpenAIService(null, new TokenCounter()) {
+			@Override
+			public String chat(List<Map<String, String>> messages, int maxTokens) {
+				completions.incrementAndGet();
+				try {
+					Thread.sleep(COMPLETION_MS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				// One numbered line per task in the prompt
+				StringBuilder reply = new StringBuilder();
+				long tasks = messages.get(1).get("content").lines().filter(line -> line.matches("\\d+\\..*")).count();
+				for (int i = 1; i <= tasks; i++) reply.append(i).append(". Quote ").append(i).append('\n');
+				return reply.toString();
+			}
+		};
+		ReflectionTestUtils.setField(service, "quoteBatchWindowMs", 50L);
+		ReflectionTestUtils.setField(service, "quoteBatchMaxSize", 2);
+		// Longer than one completion, shorter than three back to back
+		ReflectionTestUtils.setField(service, "quoteTimeoutMs", 2 * COMPLETION_MS);
+		ReflectionTestUtils.setField(service, "quoteSenderThreads", 4);
+		service.startQuoteSenders();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdownQuoteBatcher();
+	}
+
+	@Test
+	void aBurstOfBatchesIsSentSideBySide() {
+		List<CompletableFuture<String>> quotes = new ArrayList<>();
+		for (int i = 0; i < 8; i++) quotes.add(service.getMotivationalQuoteAsync("task " + i));
+
+		quotes.forEach(quote -> assertTrue(quote.join().startsWith("Quote "), quote.join()));
+		assertEquals(4, completions.get());
+	}
+
+	@Test
+	void aBatchThatDoesNotAnswerFallsBack() {
+		ReflectionTestUtils.setField(service, "quoteTimeoutMs", COMPLETION_MS / 3);
+
+		CompletableFuture<String> first = service.getMotivationalQuoteAsync("gym");
+		CompletableFuture<String> second = service.getMotivationalQuoteAsync("report");
+
+		assertTrue(first.join().startsWith("Chalo gym"));
+		assertTrue(second.join().startsWith("Chalo report"));
+	}
+}
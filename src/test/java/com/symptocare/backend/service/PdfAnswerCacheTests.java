@@ -0,0 +1,60 @@
+package com.symptocare.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PdfAnswerCacheTests {
+
+	private static final int MAX_ENTRIES = 10;
+
+	private PdfAnswerCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new PdfAnswerCache(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(cache, "maxEntries", MAX_ENTRIES);
+		ReflectionTestUtils.setField(cache, "fuzzyEnabled", true);
+		ReflectionTestUtils.setField(cache, "fuzzyThreshold", 0.8);
+		cache.init();
+	}
+
+	@Test
+	void fuzzyMatchFindsARephrasedQuestion() {
+		cache.put(1L, "h", "What is the total amount due?", "₹4,200", 100);
+
+		assertEquals("₹4,200", cache.lookup(1L, "h", "what is the total amount due"));
+		assertEquals("₹4,200", cache.lookup(1L, "h", "What is the total amount due for this document, please?"));
+		assertNull(cache.lookup(1L, "other", "What is the total amount due?"));
+	}
+
+	// A fuzzy scan reads every candidate of the document; only a hit may count as a use
+	@Test
+	void fuzzyScanDoesNotRefreshCandidates() {
+		// Newest first, so insertion order differs from the index's iteration order
+		for (int i = MAX_ENTRIES - 1; i >= 0; i--) cache.put(1L, "h", "question" + i + " topic" + i, "answer" + i, 10);
+
+		assertNull(cache.lookup(1L, "h", "something unrelated entirely"));
+		// The oldest entries are still the first to go
+		for (int i = 0; i < 3; i++) cache.put(1L, "h", "new" + i + " later" + i, "answer", 10);
+
+		for (int i = MAX_ENTRIES - 3; i < MAX_ENTRIES; i++) assertNull(cache.lookup(1L, "h", "question" + i + " topic" + i));
+		for (int i = 0; i < MAX_ENTRIES - 3; i++) assertNotNull(cache.lookup(1L, "h", "question" + i + " topic" + i));
+	}
+
+	@Test
+	void invalidateFileDropsItsAnswers() {
+		cache.put(1L, "h", "What is the total?", "₹4,200", 100);
+		cache.put(2L, "h", "What is the total?", "₹900", 100);
+
+		cache.invalidateFile(1L);
+
+		assertNull(cache.lookup(1L, "h", "What is the total?"));
+		assertEquals("₹900", cache.lookup(2L, "h", "What is the total?"));
+	}
+}
@@ -0,0 +1,58 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.Notification;
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecentNotificationsTests {
+
+	private final User user = User.builder().id(1L).email("a@x.com").build();
+	private final NotificationRepository repository = mock(NotificationRepository.class);
+	private RecentNotifications recent;
+
+	@BeforeEach
+	void setUp() {
+		recent = new RecentNotifications(repository);
+		ReflectionTestUtils.setField(recent, "size", 20);
+		ReflectionTestUtils.setField(recent, "maxUsers", 100);
+		when(repository.findLatestByUser(eq(user), any(Pageable.class))).thenReturn(List.of(
+				Notification.builder().id(1L).user(user).title("Dentist").createdAt(LocalDateTime.now()).build()));
+	}
+
+	@Test
+	void feedIsLoadedOnce() {
+		recent.latest(user);
+
+		assertEquals(1, recent.latest(user).size());
+		assertEquals(1, recent.cached("a@x.com").size());
+		verify(repository, times(1)).findLatestByUser(eq(user), any(Pageable.class));
+	}
+
+	// Another instance's reads and deletes never drop this one's rings, so nothing is kept
+	@Test
+	void everyFeedComesFromTheDatabaseWithTheRelayOn() {
+		ReflectionTestUtils.setField(recent, "relayEnabled", true);
+
+		recent.latest(user);
+
+		assertEquals(1, recent.latest(user).size());
+		assertNull(recent.cached("a@x.com"));
+		verify(repository, times(2)).findLatestByUser(eq(user), any(Pageable.class));
+	}
+}
@@ -0,0 +1,40 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.RecurringExpense;
+import com.symptocare.backend.model.RecurringExpense.Frequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecurrenceScheduleTests {
+
+	@Test
+	void monthlyFallsBackToLastDayOfShortMonths() {
+		RecurringExpense rent = RecurringExpense.builder().frequency(Frequency.MONTHLY).dayOfMonth(31).build();
+
+		LocalDate first = RecurrenceSchedule.firstOnOrAfter(rent, LocalDate.of(2025, 1, 31));
+		assertEquals(LocalDate.of(2025, 1, 31), first);
+		LocalDate february = RecurrenceSchedule.nextAfter(rent, first);
+		assertEquals(LocalDate.of(2025, 2, 28), february);
+		assertEquals(LocalDate.of(2025, 3, 31), RecurrenceSchedule.nextAfter(rent, february));
+		assertEquals("2025-02", RecurrenceSchedule.periodKey(Frequency.MONTHLY, february));
+	}
+
+	@Test
+	void weeklyAndYearly() {
+		RecurringExpense sip = RecurringExpense.builder().frequency(Frequency.WEEKLY).dayOfWeek(1).build();
+		LocalDate monday = RecurrenceSchedule.firstOnOrAfter(sip, LocalDate.of(2025, 3, 12));   // a Wednesday
+		assertEquals(LocalDate.of(2025, 3, 17), monday);
+		assertEquals(LocalDate.of(2025, 3, 24), RecurrenceSchedule.nextAfter(sip, monday));
+		assertEquals("2025-W12", RecurrenceSchedule.periodKey(Frequency.WEEKLY, monday));
+
+		RecurringExpense insurance = RecurringExpense.builder()
+				.frequency(Frequency.YEARLY).monthOfYear(2).dayOfMonth(29).build();
+		LocalDate due = RecurrenceSchedule.firstOnOrAfter(insurance, LocalDate.of(2025, 3, 1));
+		assertEquals(LocalDate.of(2026, 2, 28), due);
+		assertEquals(LocalDate.of(2027, 2, 28), RecurrenceSchedule.nextAfter(insurance, due));
+		assertEquals(LocalDate.of(2028, 2, 29), RecurrenceSchedule.nextAfter(insurance, LocalDate.of(2027, 2, 28)));
+	}
+}
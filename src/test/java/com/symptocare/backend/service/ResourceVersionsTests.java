@@ -0,0 +1,40 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.service.ResourceVersions.Domain;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResourceVersionsTests {
+
+	@Test
+	void bumpChangesOnlyThatUsersDomain() {
+		ResourceVersions versions = new ResourceVersions();
+		String expenses = versions.etag("a@x.com", Domain.EXPENSES);
+		String tasks = versions.etag("a@x.com", Domain.TASKS);
+		String other = versions.etag("b@x.com", Domain.EXPENSES);
+
+		versions.bump("a@x.com", Domain.EXPENSES);
+
+		assertNotEquals(expenses, versions.etag("a@x.com", Domain.EXPENSES));
+		assertEquals(tasks, versions.etag("a@x.com", Domain.TASKS));
+		assertEquals(other, versions.etag("b@x.com", Domain.EXPENSES));
+	}
+
+	@Test
+	void tagsDoNotSurviveARestart() {
+		assertNotEquals(new ResourceVersions().etag("a@x.com", Domain.TASKS),
+				new ResourceVersions().etag("a@x.com", Domain.TASKS));
+	}
+
+	@Test
+	void noTagsWhenInstancesShareTheRelay() {
+		ResourceVersions versions = new ResourceVersions();
+		ReflectionTestUtils.setField(versions, "relayEnabled", true);
+
+		assertNull(versions.etag("a@x.com", Domain.EXPENSES));
+	}
+}
@@ -0,0 +1,51 @@
+package com.symptocare.backend.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Timing only (-Pperf); behaviour is covered by SpendingModelTests
+@Tag("benchmark")
+class SpendingModelBenchmarkTests {
+
+	private static final int FOOD = 0;
+	private static final int MONTH = SpendingModel.monthIndex(2025, 6);
+
+	// Cost of one incremental update (score the amount, then add it) with a full window
+	@Test
+	void incrementalUpdateCost() {
+		int inserts = 1_000_000;
+		Random random = new Random(42);
+		long[] amounts = new long[inserts];
+		for (int i = 0; i < inserts; i++) {
+			// ~₹250 with some spread, and every 97th amount ten times that
+			amounts[i] = (long) (random.nextGaussian() * 2_000 + 25_000) * (i % 97 == 0 ? 10 : 1);
+		}
+
+		for (int window : new int[]{32, 64, 256}) {
+			SpendingModel model = new SpendingModel(window);
+			// Warm up the JIT and fill the window
+			double sink = 0;
+			for (int i = 0; i < 200_000; i++) sink += update(model, i, amounts[i]);
+
+			long start = System.nanoTime();
+			for (int i = 0; i < inserts; i++) sink += update(model, i, amounts[i]);
+			long elapsed = System.nanoTime() - start;
+
+			System.out.printf("SpendingModel window %d: %d inserts, %.0f ns/insert%n",
+					window, inserts, elapsed / (double) inserts);
+			assertEquals(window, model.samples(FOOD));
+			assertTrue(sink != 0);
+		}
+	}
+
+	private static double update(SpendingModel model, int i, long paise) {
+		double score = model.score(FOOD, paise);
+		model.add(MONTH + i / 50_000, FOOD, paise);
+		return Double.isNaN(score) ? 0 : score;
+	}
+}
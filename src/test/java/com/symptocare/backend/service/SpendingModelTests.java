@@ -0,0 +1,69 @@
+package com.symptocare.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpendingModelTests {
+
+	private static final int FOOD = 0;
+	private static final int MONTH = SpendingModel.monthIndex(2025, 6);
+
+	@Test
+	void medianAndMadMatchSorting() {
+		Random random = new Random(7);
+		SpendingModel model = new SpendingModel(16);
+		long[] recent = new long[16];
+		for (int i = 0; i < 100; i++) {
+			long paise = 10_000 + random.nextInt(50_000);
+			model.add(MONTH, FOOD, paise);
+			recent[i % 16] = paise;
+
+			int n = Math.min(i + 1, 16);
+			long[] window = Arrays.copyOf(recent, n);
+			Arrays.sort(window);
+			long median = median(window);
+			assertEquals(median, model.median(FOOD));
+
+			if (n < 2) continue;
+			long[] deviations = new long[n];
+			for (int k = 0; k < n; k++) deviations[k] = Math.abs(window[k] - median);
+			Arrays.sort(deviations);
+			long probe = 80_000;
+			assertEquals(0.6745 * (probe - median) / median(deviations), model.score(FOOD, probe), 1e-9);
+		}
+	}
+
+	@Test
+	void flagsOutlierButNotUsualSpend() {
+		SpendingModel model = new SpendingModel(64);
+		for (int i = 0; i < 30; i++) model.add(MONTH, FOOD, 30_000 + (i % 5) * 2_000);
+
+		assertTrue(model.score(FOOD, 34_000) < 3.5);
+		assertTrue(model.score(FOOD, 250_000) > 3.5);
+	}
+
+	@Test
+	void ewmaAndSeasonalNaive() {
+		SpendingModel model = new SpendingModel(8);
+		model.add(MONTH - 12, FOOD, 90_000);   // same month last year
+		model.add(MONTH - 2, FOOD, 100_000);
+		model.add(MONTH - 1, FOOD, 200_000);
+
+		assertEquals(90_000, model.seasonalNaive(MONTH, FOOD));
+		// Starts at 90,000, then ten months: nine at 0, then 100,000 and 200,000 with alpha 0.5
+		double expected = 90_000;
+		for (int m = MONTH - 11; m < MONTH; m++) expected = 0.5 * model.monthTotal(m, FOOD) + 0.5 * expected;
+		assertEquals(Math.round(expected), model.ewma(MONTH, FOOD, 0.5));
+		assertEquals(-1, model.seasonalNaive(MONTH + 1, FOOD));
+	}
+
+	private static long median(long[] sorted) {
+		int n = sorted.length;
+		return (n & 1) == 1 ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2;
+	}
+}
@@ -0,0 +1,118 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.Expense;
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.BulkInsertRepository;
+import com.symptocare.backend.repository.ExpenseRepository;
+import com.symptocare.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Deduplication of a statement import against the user's expenses (repositories mocked, no DB)
+class StatementImportServiceTests {
+
+	private static final String CSV = """
+			Date,Description,Amount
+			15/03/2025,COFFEE DAY,-50.00
+			15/03/2025,COFFEE DAY,-50.00
+			15/03/2025,COFFEE DAY,-50.00
+			16/03/2025,UPI/SWIGGY/452199,-320.00
+			""";
+
+	private final User user = User.builder().id(1L).email("a@x.com").build();
+	private final List<Object[]> existing = new ArrayList<>();
+	private final List<Expense> inserted = new ArrayList<>();
+	private StatementImportService service;
+
+	@BeforeEach
+	void setUp() {
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findByEmail("a@x.com")).thenReturn(Optional.of(user));
+		ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+		when(expenseRepository.streamDedupKeys(user)).thenAnswer(invocation -> existing.stream());
+
+		// Inserted rows become existing expenses, as they would in the DB
+		BulkInsertRepository bulkInsertRepository = mock(BulkInsertRepository.class);
+		doAnswer(invocation -> {
+			List<Expense> batch = invocation.getArgument(0);
+			inserted.addAll(batch);
+			batch.forEach(e -> existing.add(new Object[]{e.getExpenseDate(), e.getAmount(), e.getTitle()}));
+			return null;
+		}).when(bulkInsertRepository).insertExpenses(anyList());
+
+		TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+		doAnswer(invocation -> {
+			invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+
+		service = new StatementImportService(expenseRepository, userRepository, bulkInsertRepository,
+				new StatementParser(), new ExpenseCategorizer(), transactionTemplate,
+				mock(BudgetTracker.class), mock(SpendingInsights.class), mock(ResourceVersions.class));
+		ReflectionTestUtils.setField(service, "parseThreads", 2);
+		ReflectionTestUtils.setField(service, "chunksInFlight", 4);
+		service.startParsers();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void repeatedRowsInOneFileAreAllImported() throws Exception {
+		Map<String, Object> report = importCsv();
+
+		assertEquals(4L, report.get("imported"));
+		assertEquals(0L, report.get("duplicates"));
+		assertEquals(3, inserted.stream().filter(e -> e.getTitle().equals("COFFEE DAY")).count());
+	}
+
+	@Test
+	void eachExistingExpenseMatchesOneRow() throws Exception {
+		existing.add(new Object[]{LocalDate.of(2025, 3, 15), new BigDecimal("50.00"), "Coffee Day"});
+
+		Map<String, Object> report = importCsv();
+
+		assertEquals(3L, report.get("imported"));
+		assertEquals(1L, report.get("duplicates"));
+	}
+
+	@Test
+	void reimportingTheSameFileImportsNothing() throws Exception {
+		importCsv();
+		inserted.clear();
+
+		Map<String, Object> report = importCsv();
+
+		assertEquals(0L, report.get("imported"));
+		assertEquals(4L, report.get("duplicates"));
+		assertEquals(List.of(), inserted);
+	}
+
+	private Map<String, Object> importCsv() throws Exception {
+		return service.importStatement("a@x.com",
+				new MockMultipartFile("file", "statement.csv", "text/csv", CSV.getBytes(StandardCharsets.UTF_8)), false);
+	}
+}
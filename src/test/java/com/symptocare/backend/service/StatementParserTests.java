@@ -0,0 +1,99 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.model.Expense.PaymentMethod;
+import com.symptocare.backend.service.StatementParser.CsvLayout;
+import com.symptocare.backend.service.StatementParser.RawRecord;
+import com.symptocare.backend.service.StatementParser.RecordReader;
+import com.symptocare.backend.service.StatementParser.Row;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatementParserTests {
+
+	private final StatementParser parser = new StatementParser();
+	private final ExpenseCategorizer categorizer = new ExpenseCategorizer();
+
+	@Test
+	void parsesBankCsvWithDebitAndCreditColumns() throws IOException {
+		String csv = """
+				Txn Date,Narration,Withdrawal Amt.,Deposit Amt.,Closing Balance
+				15/03/2025,UPI/SWIGGY/452199/Dinner,"1,250.00",,48750.00
+				16/03/2025,NEFT SALARY,,"50,000.00",98750.00
+				17/03/2025,"POS OLA CABS
+				BANGALORE",320.50,,98429.50
+				""";
+		RecordReader records = parser.csvRecords(new BufferedReader(new StringReader(csv)));
+		CsvLayout layout = parser.csvLayout(records.next().text(), false);
+
+		List<Row> rows = new ArrayList<>();
+		RawRecord record;
+		while ((record = records.next()) != null) rows.add(parser.parseCsv(record, layout));
+
+		assertEquals(3, rows.size());
+		assertEquals(new Row(2, LocalDate.of(2025, 3, 15), new BigDecimal("1250.00"),
+				"UPI/SWIGGY/452199/Dinner", null), rows.get(0));
+		assertNull(rows.get(1));   // credit
+		assertEquals("POS OLA CABS BANGALORE", rows.get(2).title());
+		assertEquals(4, rows.get(2).line());
+	}
+
+	@Test
+	void parsesSingleLineOfx() throws IOException {
+		String ofx = "OFXHEADER:100\n<OFX><BANKTRANLIST>"
+				+ "<STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20250315120000<TRNAMT>-499.00<NAME>NETFLIX.COM</STMTTRN>"
+				+ "<STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20250316<TRNAMT>1000.00<NAME>REFUND</STMTTRN>"
+				+ "</BANKTRANLIST></OFX>";
+		RecordReader records = parser.ofxRecords(new BufferedReader(new StringReader(ofx)));
+
+		Row debit = parser.parseOfx(records.next());
+		assertEquals(LocalDate.of(2025, 3, 15), debit.date());
+		assertEquals(new BigDecimal("499.00"), debit.amount());
+		assertEquals("NETFLIX.COM", debit.title());
+
+		assertNull(parser.parseOfx(records.next()));
+		assertNull(records.next());
+	}
+
+	@Test
+	void unclosedQuoteStopsAtTheRecordLimit() throws IOException {
+		StringBuilder csv = new StringBuilder("Date,Description,Amount\n15/03/2025,\"STRAY QUOTE,-50\n");
+		for (int i = 0; i < 10_000; i++) csv.append("16/03/2025,Coffee,-50\n");
+		RecordReader records = parser.csvRecords(new BufferedReader(new StringReader(csv.toString())));
+		records.next();
+
+		RuntimeException e = assertThrows(RuntimeException.class, records::next);
+		assertEquals("Line 2: quoted field is never closed", e.getMessage());
+	}
+
+	@Test
+	void reportsUnreadableRows() {
+		CsvLayout layout = parser.csvLayout("Date,Description,Amount", false);
+		Row row = parser.parseCsv(new RawRecord(7, "not a date,Coffee,-50"), layout);
+
+		assertNotNull(row.error());
+		assertEquals(7, row.line());
+	}
+
+	@Test
+	void categorizesByWholeKeywords() {
+		assertEquals(ExpenseCategory.FOOD, categorizer.categorize("UPI/SWIGGY/452199"));
+		assertEquals(ExpenseCategory.TRANSPORT, categorizer.categorize("POS OLA CABS"));
+		assertEquals(ExpenseCategory.OTHER, categorizer.categorize("COCA COLA VENDING"));
+		assertEquals(ExpenseCategory.ENTERTAINMENT, categorizer.categorize("NETFLIX.COM"));
+		assertEquals(PaymentMethod.UPI, categorizer.paymentMethod("UPI/SWIGGY/452199"));
+		assertEquals(PaymentMethod.CASH, categorizer.paymentMethod("ATM WDL MG ROAD"));
+	}
+}
@@ -0,0 +1,43 @@
+package com.symptocare.backend.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Timing only (-Pperf); behaviour is covered by TokenCounterTests
+@Tag("benchmark")
+class TokenCounterBenchmarkTests {
+
+	private final TokenCounter tokenCounter = new TokenCounter();
+
+	// Throughput of counting a large document (~8 MB of text)
+	@Test
+	void tokenizationThroughput() {
+		String text = largeDocument(8 * 1024 * 1024);
+
+		// Warm up the JIT
+		for (int i = 0; i < 5; i++) tokenCounter.count(text);
+
+		int runs = 10;
+		long tokens = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < runs; i++) tokens += tokenCounter.count(text);
+		long elapsed = System.nanoTime() - start;
+
+		double mbPerSecond = (double) text.length() * runs / (1024 * 1024) / (elapsed / 1e9);
+		System.out.printf("TokenCounter: %d chars -> %d tokens, %.1f MB/s%n",
+				text.length(), tokens / runs, mbPerSecond);
+
+		assertTrue(tokens > 0);
+	}
+
+	static String largeDocument(int chars) {
+		String paragraph = "Invoice No. 2024-0193 dated 15/03/2025. The total amount payable is Rs. 12,450.00 " +
+				"including GST @ 18%. Payment is due within thirty (30) days of receipt; late payments " +
+				"attract interest at 1.5% per month.\nTerms & conditions apply — see clause 7(b).\n\n";
+		StringBuilder sb = new StringBuilder(chars + paragraph.length());
+		while (sb.length() < chars) sb.append(paragraph);
+		return sb.toString();
+	}
+}
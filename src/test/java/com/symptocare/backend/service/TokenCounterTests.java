@@ -0,0 +1,46 @@
+package com.symptocare.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenCounterTests {
+
+	private final TokenCounter tokenCounter = new TokenCounter();
+
+	@Test
+	void countsPiecesTheWayBpePreTokenizes() {
+		assertEquals(0, tokenCounter.count(null));
+		assertEquals(0, tokenCounter.count(""));
+		// A space joins the following word: "Hello" " world"
+		assertEquals(2, tokenCounter.count("Hello world"));
+		// Digits go in groups of up to three
+		assertEquals(3, tokenCounter.count("1234567"));
+		// A run of newlines is one token
+		assertEquals(3, tokenCounter.count("a\n\n\nb"));
+		// Long words are split into several pieces
+		assertTrue(tokenCounter.count("internationalization") > 1);
+		assertEquals(tokenCounter.count("Hi") + TokenCounter.MESSAGE_OVERHEAD, tokenCounter.countMessage("Hi"));
+	}
+
+	@Test
+	void truncateStaysWithinBudget() {
+		String text = TokenCounterBenchmarkTests.largeDocument(50_000);
+		String truncated = tokenCounter.truncate(text, 1000);
+
+		assertTrue(tokenCounter.count(truncated) <= 1000);
+		assertTrue(tokenCounter.count(text.substring(0, truncated.length() + 1)) > 1000
+				|| truncated.length() == text.length());
+		assertTrue(text.startsWith(truncated));
+		assertEquals(text, tokenCounter.truncate(text, Integer.MAX_VALUE));
+		assertEquals("", tokenCounter.truncate(text, 0));
+	}
+
+	@Test
+	void prefixEndsOnAPieceBoundary() {
+		String text = "alpha beta gamma";
+		assertEquals("alpha beta".length(), tokenCounter.prefixLength(text, 2));
+		assertEquals(text.length(), tokenCounter.prefixLength(text, 3));
+	}
+}
@@ -0,0 +1,49 @@
+package com.symptocare.backend.service;
+
+import com.symptocare.backend.model.User;
+import com.symptocare.backend.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadCounterTests {
+
+	private final User user = User.builder().id(1L).email("a@x.com").build();
+	private final NotificationRepository repository = mock(NotificationRepository.class);
+	private UnreadCounter counter;
+
+	@BeforeEach
+	void setUp() {
+		counter = new UnreadCounter(repository);
+		ReflectionTestUtils.setField(counter, "ttl", Duration.ofMinutes(10));
+		ReflectionTestUtils.setField(counter, "maxEntries", 100);
+		when(repository.countByUserAndIsReadFalse(user)).thenReturn(3L, 7L);
+	}
+
+	@Test
+	void countIsLoadedOnceAndMovedByDeltas() {
+		assertEquals(3, counter.get(user));
+		assertEquals(4, counter.add(user, 1));
+		assertEquals(4L, counter.cached("a@x.com"));
+		verify(repository, times(1)).countByUserAndIsReadFalse(user);
+	}
+
+	// Another instance's writes never reach this one's map, so nothing is kept
+	@Test
+	void everyCountComesFromTheDatabaseWithTheRelayOn() {
+		ReflectionTestUtils.setField(counter, "relayEnabled", true);
+
+		assertEquals(3, counter.get(user));
+		assertEquals(7, counter.add(user, 1));
+		assertNull(counter.cached("a@x.com"));
+	}
+}
@@ -0,0 +1,70 @@
+package com.symptocare.backend.storage;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Timing only (-Pperf); behaviour is covered by DeflateCodecTests
+@Tag("benchmark")
+class DeflateCodecBenchmarkTests {
+
+	private static final int SIZE = 16 * 1024 * 1024;
+
+	@TempDir
+	Path dir;
+
+	// CPU cost per level vs bytes saved on a text-heavy document (~16 MB);
+	// compression pays off while MB/s stays well above disk / network throughput
+	@Test
+	void compressionThroughput() throws IOException {
+		Path source = write("report.txt", textDocument(SIZE));
+
+		for (int level : new int[]{Deflater.BEST_SPEED, 6, Deflater.BEST_COMPRESSION}) {
+			Path target = dir.resolve("report-" + level + ".deflate");
+
+			// Warm up the JIT
+			DeflateCodec.compress(source, target, level);
+
+			long start = System.nanoTime();
+			long compressedSize = DeflateCodec.compress(source, target, level);
+			long compressNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			try (InputStream in = DeflateCodec.decompress(Files.newInputStream(target))) {
+				in.transferTo(OutputStream.nullOutputStream());
+			}
+			long inflateNanos = System.nanoTime() - start;
+
+			System.out.printf("Deflate level %d: ratio %.2f, compress %.0f MB/s, inflate %.0f MB/s%n",
+					level, (double) compressedSize / SIZE,
+					SIZE / 1048576.0 / (compressNanos / 1e9), SIZE / 1048576.0 / (inflateNanos / 1e9));
+
+			assertTrue(compressedSize < SIZE);
+		}
+	}
+
+	private Path write(String name, byte[] content) throws IOException {
+		return Files.write(dir.resolve(name), content);
+	}
+
+	static byte[] textDocument(int bytes) {
+		String paragraph = "Invoice No. 2024-0193 dated 15/03/2025. The total amount payable is Rs. 12,450.00 " +
+				"including GST @ 18%. Payment is due within thirty (30) days of receipt; late payments " +
+				"attract interest at 1.5% per month.\nTerms & conditions apply — see clause 7(b).\n\n";
+		StringBuilder sb = new StringBuilder(bytes + paragraph.length());
+		Random random = new Random(42);
+		while (sb.length() < bytes) sb.append(paragraph).append(random.nextInt(100_000)).append('\n');
+		return sb.substring(0, bytes).getBytes(StandardCharsets.UTF_8);
+	}
+}
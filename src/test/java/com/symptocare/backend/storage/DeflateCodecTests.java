@@ -0,0 +1,55 @@
+package com.symptocare.backend.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import static com.symptocare.backend.storage.DeflateCodecBenchmarkTests.textDocument;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeflateCodecTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void roundTrip() throws IOException {
+		Path source = write("doc.txt", textDocument(200_000));
+		Path compressed = dir.resolve("doc.deflate");
+		long size = DeflateCodec.compress(source, compressed, Deflater.BEST_SPEED);
+
+		assertEquals(Files.size(compressed), size);
+		assertTrue(size < 200_000 / 4);
+		try (InputStream in = DeflateCodec.decompress(Files.newInputStream(compressed))) {
+			assertArrayEquals(Files.readAllBytes(source), in.readAllBytes());
+		}
+	}
+
+	@Test
+	void sampleSeparatesTextFromPackedContent() throws IOException {
+		Path text = write("doc.txt", textDocument(1024 * 1024));
+		byte[] noise = new byte[1024 * 1024];
+		new Random(42).nextBytes(noise);
+		Path random = write("photo.jpg", noise);
+
+		assertTrue(DeflateCodec.sampleRatio(text, 64 * 1024, Deflater.BEST_SPEED) < 0.5);
+		assertTrue(DeflateCodec.sampleRatio(random, 64 * 1024, Deflater.BEST_SPEED) > 0.95);
+	}
+
+	@Test
+	void emptyFileIsTreatedAsIncompressible() throws IOException {
+		assertEquals(1.0, DeflateCodec.sampleRatio(write("empty.txt", new byte[0]), 64 * 1024, Deflater.BEST_SPEED));
+	}
+
+	private Path write(String name, byte[] content) throws IOException {
+		return Files.write(dir.resolve(name), content);
+	}
+}
@@ -0,0 +1,118 @@
+package com.symptocare.backend.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// S3BlobStore against MinIO, built the way StorageConfig builds it (endpoint override, path-style).
+// Skipped where Docker isn't available.
+@Testcontainers(disabledWithoutDocker = true)
+class S3BlobStoreTests {
+
+	// S3's smallest part size (every part but the last)
+	private static final int PART_SIZE = 5 * 1024 * 1024;
+
+	@Container
+	static final MinIOContainer minio = new MinIOContainer("minio/minio:RELEASE.2024-12-18T13-15-44Z");
+
+	@TempDir
+	Path dir;
+
+	private S3BlobStore store;
+
+	@BeforeEach
+	void setUp() {
+		S3Client s3 = S3Client.builder()
+				.region(Region.US_EAST_1)
+				.forcePathStyle(true)
+				.endpointOverride(URI.create(minio.getS3URL()))
+				.credentialsProvider(StaticCredentialsProvider.create(
+						AwsBasicCredentials.create(minio.getUserName(), minio.getPassword())))
+				.build();
+		String bucket = "blobs-" + UUID.randomUUID();
+		s3.createBucket(request -> request.bucket(bucket));
+		store = new S3BlobStore(s3, bucket, 2L * PART_SIZE, PART_SIZE);
+	}
+
+	@AfterEach
+	void tearDown() {
+		store.close();
+	}
+
+	@Test
+	void putOpenExistsDelete() throws IOException {
+		byte[] content = content(1000);
+		Path source = write("upload", content);
+
+		store.put("blobs/ab/abc", source);
+
+		assertFalse(Files.exists(source));
+		assertTrue(store.exists("blobs/ab/abc"));
+		assertFalse(store.exists("blobs/ab/missing"));
+		try (InputStream in = store.open("blobs/ab/abc")) {
+			assertArrayEquals(content, in.readAllBytes());
+		}
+
+		store.delete("blobs/ab/abc");
+		assertFalse(store.exists("blobs/ab/abc"));
+	}
+
+	@Test
+	void rangeIsReadWithoutTheRestOfTheObject() throws IOException {
+		byte[] content = content(100_000);
+		store.put("blobs/range", write("upload", content));
+
+		try (InputStream in = store.open("blobs/range", 1000, 1999)) {
+			assertArrayEquals(Arrays.copyOfRange(content, 1000, 2000), in.readAllBytes());
+		}
+		// Last byte only
+		try (InputStream in = store.open("blobs/range", 99_999, 99_999)) {
+			assertArrayEquals(new byte[]{content[99_999]}, in.readAllBytes());
+		}
+	}
+
+	@Test
+	void largeObjectIsUploadedInParts() throws IOException {
+		// Two full parts and a short last one
+		byte[] content = content(2 * PART_SIZE + 12345);
+		store.put("blobs/large", write("upload", content));
+
+		try (InputStream in = store.open("blobs/large")) {
+			assertArrayEquals(content, in.readAllBytes());
+		}
+		try (InputStream in = store.open("blobs/large", PART_SIZE - 10, PART_SIZE + 9)) {
+			assertArrayEquals(Arrays.copyOfRange(content, PART_SIZE - 10, PART_SIZE + 10), in.readAllBytes());
+		}
+	}
+
+	private Path write(String name, byte[] content) throws IOException {
+		return Files.write(dir.resolve(name), content);
+	}
+
+	private static byte[] content(int size) {
+		byte[] bytes = new byte[size];
+		new Random(size).nextBytes(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,188 @@
+package com.symptocare.backend.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// TieredBlobStore over S3BlobStore, with an in-memory S3Client standing in for the bucket
+class TieredBlobStoreTests {
+
+	private static final int BLOB_SIZE = 1000;
+
+	@TempDir
+	Path cacheRoot;
+
+	@TempDir
+	Path uploads;
+
+	private final StubS3 s3 = new StubS3();
+	private TieredBlobStore store;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		// Room for one blob
+		store = new TieredBlobStore(cacheRoot, new S3BlobStore(s3, "bucket", Long.MAX_VALUE, 8 << 20), BLOB_SIZE);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		store.close();
+	}
+
+	@Test
+	void putUploadsToS3AndKeepsTheUploadAsHotCopyWithoutCopyingIt() throws IOException {
+		Path upload = upload(1);
+		Object uploadFileKey = Files.readAttributes(upload, BasicFileAttributes.class).fileKey();
+
+		store.put("blobs/a", upload);
+
+		assertFalse(Files.exists(upload));
+		assertArrayEquals(content(1), s3.objects.get("blobs/a"));
+		try (LocalFile local = store.localFile("blobs/a").orElseThrow()) {
+			assertEquals(uploadFileKey, Files.readAttributes(local.path(), BasicFileAttributes.class).fileKey());
+		}
+		assertEquals(0, s3.gets.get());
+	}
+
+	@Test
+	void existsAsksS3OncePerBlob() throws IOException {
+		s3.objects.put("blobs/remote", content(2));
+
+		assertTrue(store.exists("blobs/remote"));
+		assertTrue(store.exists("blobs/remote"));
+		assertFalse(store.exists("blobs/missing"));
+		assertEquals(2, s3.heads.get());
+
+		store.put("blobs/a", upload(1));
+		assertTrue(store.exists("blobs/a"));
+		assertEquals(2, s3.heads.get());
+
+		store.delete("blobs/remote");
+		assertFalse(store.exists("blobs/remote"));
+	}
+
+	@Test
+	void pinnedCopyIsNotEvictedUntilClosed() throws IOException {
+		store.put("blobs/a", upload(1));
+		LocalFile pinned = store.localFile("blobs/a").orElseThrow();
+
+		// Over budget, but a is still being read
+		store.put("blobs/b", upload(2));
+		assertArrayEquals(content(1), Files.readAllBytes(pinned.path()));
+
+		pinned.close();
+		assertFalse(Files.exists(pinned.path()));
+		assertTrue(Files.exists(cacheRoot.resolve("blobs/b")));
+
+		// Evicted copies are fetched again from S3
+		try (InputStream in = store.open("blobs/a")) {
+			assertArrayEquals(content(1), in.readAllBytes());
+		}
+		assertEquals(1, s3.gets.get());
+		assertFalse(Files.exists(cacheRoot.resolve("blobs/b")));
+	}
+
+	@Test
+	void rangeOfAColdBlobIsReadFromS3WithoutCachingIt() throws IOException {
+		s3.objects.put("blobs/remote", content(2));
+
+		try (InputStream in = store.open("blobs/remote", 10, 19)) {
+			assertArrayEquals(Arrays.copyOfRange(content(2), 10, 20), in.readAllBytes());
+		}
+		assertFalse(Files.exists(cacheRoot.resolve("blobs/remote")));
+	}
+
+	private Path upload(int seed) throws IOException {
+		return Files.write(uploads.resolve("upload-" + seed), content(seed));
+	}
+
+	private static byte[] content(int seed) {
+		byte[] bytes = new byte[BLOB_SIZE];
+		Arrays.fill(bytes, (byte) seed);
+		return bytes;
+	}
+
+	// Only the calls S3BlobStore makes for single-part objects
+	static class StubS3 implements S3Client {
+		final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+		final AtomicInteger heads = new AtomicInteger();
+		final AtomicInteger gets = new AtomicInteger();
+
+		@Override
+		public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+			try (InputStream in = body.contentStreamProvider().newStream()) {
+				objects.put(request.key(), in.readAllBytes());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return PutObjectResponse.builder().build();
+		}
+
+		@Override
+		public ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest request) {
+			gets.incrementAndGet();
+			byte[] bytes = Optional.ofNullable(objects.get(request.key()))
+					.orElseThrow(() -> NoSuchKeyException.builder().build());
+			if (request.range() != null) {
+				String[] range = request.range().substring("bytes=".length()).split("-");
+				bytes = Arrays.copyOfRange(bytes, Integer.parseInt(range[0]), Integer.parseInt(range[1]) + 1);
+			}
+			return new ResponseInputStream<>(GetObjectResponse.builder().build(),
+					AbortableInputStream.create(new ByteArrayInputStream(bytes)));
+		}
+
+		@Override
+		public HeadObjectResponse headObject(HeadObjectRequest request) {
+			heads.incrementAndGet();
+			if (!objects.containsKey(request.key())) throw NoSuchKeyException.builder().build();
+			return HeadObjectResponse.builder().build();
+		}
+
+		@Override
+		public DeleteObjectResponse deleteObject(DeleteObjectRequest request) {
+			objects.remove(request.key());
+			return DeleteObjectResponse.builder().build();
+		}
+
+		@Override
+		public String serviceName() {
+			return "s3";
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
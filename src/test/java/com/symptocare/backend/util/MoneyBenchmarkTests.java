@@ -0,0 +1,79 @@
+package com.symptocare.backend.util;
+
+import com.symptocare.backend.dto.ExpenseResponse;
+import com.symptocare.backend.model.Expense;
+import com.symptocare.backend.model.Expense.ExpenseCategory;
+import com.symptocare.backend.model.Expense.PaymentMethod;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Timing only (-Pperf); behaviour is covered by MoneyTests
+@Tag("benchmark")
+class MoneyBenchmarkTests {
+
+	// ExpenseResponse.from over 100k expenses, against the "₹" + String.format("%,.2f") it replaced
+	@Test
+	void responseFormattingThroughput() {
+		List<Expense> expenses = syntheticExpenses(100_000);
+
+		// Warm up the JIT
+		for (int i = 0; i < 5; i++) {
+			formatBefore(expenses);
+			responses(expenses);
+		}
+
+		long before = time(() -> formatBefore(expenses));
+		long after = time(() -> responses(expenses));
+		System.out.printf("Amount formatting x%d: String.format %.1f ms, ExpenseResponse.from %.1f ms%n",
+				expenses.size(), before / 1e6, after / 1e6);
+
+		List<ExpenseResponse> responses = responses(expenses);
+		assertEquals(expenses.size(), responses.size());
+		assertEquals(Money.format(expenses.get(0).getAmount()), responses.get(0).getAmountFormatted());
+	}
+
+	private long formatBefore(List<Expense> expenses) {
+		long chars = 0;
+		for (Expense expense : expenses) chars += ("₹" + String.format("%,.2f", expense.getAmount())).length();
+		return chars;
+	}
+
+	private List<ExpenseResponse> responses(List<Expense> expenses) {
+		List<ExpenseResponse> responses = new ArrayList<>(expenses.size());
+		for (Expense expense : expenses) responses.add(ExpenseResponse.from(expense));
+		return responses;
+	}
+
+	private long time(Runnable run) {
+		int runs = 10;
+		long start = System.nanoTime();
+		for (int i = 0; i < runs; i++) run.run();
+		return (System.nanoTime() - start) / runs;
+	}
+
+	static List<Expense> syntheticExpenses(int count) {
+		Random random = new Random(42);
+		List<Expense> expenses = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			expenses.add(Expense.builder()
+					.id((long) i)
+					.amount(BigDecimal.valueOf(100 + random.nextInt(5_000_000), 2))
+					.title("Expense " + i)
+					.category(ExpenseCategory.FOOD)
+					.paymentMethod(PaymentMethod.UPI)
+					.expenseDate(LocalDate.of(2025, 3, 1 + random.nextInt(28)))
+					.createdAt(LocalDateTime.now())
+					.build());
+		}
+		return expenses;
+	}
+}
@@ -0,0 +1,48 @@
+package com.symptocare.backend.util;
+
+import com.symptocare.backend.dto.ExpenseResponse;
+import com.symptocare.backend.model.Expense;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static com.symptocare.backend.util.MoneyBenchmarkTests.syntheticExpenses;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MoneyTests {
+
+	@Test
+	void formatsWithIndianGrouping() {
+		assertEquals("₹0.00", Money.format(0));
+		assertEquals("₹0.05", Money.format(5));
+		assertEquals("₹999.99", Money.format(99_999));
+		assertEquals("₹1,000.00", Money.format(100_000));
+		assertEquals("₹12,34,567.80", Money.format(123_456_780));
+		assertEquals("₹1,23,45,678.90", Money.format(1_234_567_890));
+		assertEquals("-₹4,50,000.50", Money.format(-45_000_050));
+		assertEquals("₹12.35", Money.format(new BigDecimal("12.345")));
+		assertEquals(1250, Money.toPaise(new BigDecimal("12.5")));
+		assertEquals(999_999_999_999L, Money.toPaise(new BigDecimal("9999999999.99")));
+		assertEquals(new BigDecimal("12.50"), Money.toRupees(1250));
+	}
+
+	// The double shortcut in toPaise must agree with exact BigDecimal rounding
+	@Test
+	void toPaiseMatchesExactRounding() {
+		Random random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			BigDecimal amount = BigDecimal.valueOf(random.nextLong() % 1_000_000_000_000L, random.nextInt(4));
+			long exact = amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+			assertEquals(exact, Money.toPaise(amount), amount.toPlainString());
+			if (amount.scale() <= 2) assertEquals(0, amount.compareTo(Money.toRupees(exact)));
+		}
+	}
+
+	@Test
+	void responseUsesMoneyFormat() {
+		Expense expense = syntheticExpenses(1).get(0);
+		assertEquals(Money.format(expense.getAmount()), ExpenseResponse.from(expense).getAmountFormatted());
+	}
+}